@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Measures the cold start of the text launcher (cli.MagicSquareCli) against the graphical launcher
+# (view.MagicSquareView), with and without an application class-data sharing (AppCDS) archive. Each launcher checks
+# or plays one 3x3 game and exits. Without a display, the graphical launcher falls back to the text version after
+# loading its Swing classes, which is what is measured; with a display, creating the window comes on top of that.
+# Requires JDK 13 or later for -XX:ArchiveClassesAtExit, and bash 5 for $EPOCHREALTIME (or else GNU date, whose %N
+# gives nanoseconds). Set RUNS to change the number of runs averaged.
+set -e
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-10}
+JAR=target/FinalLabExam-1.0-FINAL-jar-with-dependencies.jar
+GRID=target/lo-shu.txt
+MOVES=target/lo-shu-moves.txt
+
+[ -f "$JAR" ] || mvn -B -q package -DskipTests
+printf '2 7 6\n9 5 1\n4 3 8\n' > "$GRID"
+printf '0 0 2\n0 1 7\n0 2 6\n1 0 9\n1 1 5\n1 2 1\n2 0 4\n2 1 3\n2 2 8\n' > "$MOVES"
+
+# Prints the current wall-clock time, in milliseconds
+now() {
+    if [ -n "${EPOCHREALTIME:-}" ]; then
+        micros=${EPOCHREALTIME/[.,]/}
+        echo $((10#$micros / 1000))
+    else
+        echo $(($(date +%s%N) / 1000000))
+    fi
+}
+
+# Prints the average wall-clock time of a command, in milliseconds
+average() {
+    start=$(now)
+    i=0
+    while [ $i -lt "$RUNS" ]; do
+        "$@" < "$MOVES" > /dev/null 2>&1 || true
+        i=$((i + 1))
+    done
+    end=$(now)
+    echo "$(((end - start) / RUNS)) ms"
+}
+
+# Prints the number of classes the JVM loads with the given arguments, and how many of them are from AWT or Swing
+classes() {
+    java -Xlog:class+load=info:file=target/classes.log "$@" < "$MOVES" > /dev/null 2>&1 || true
+    echo "$(grep -c 'source:' target/classes.log) classes ($(grep -c -E ' (java\.awt|javax\.swing|sun\.awt)' target/classes.log) AWT/Swing)"
+}
+
+for launcher in "cli.MagicSquareCli check $GRID" "cli.MagicSquareCli play" "view.MagicSquareView"; do
+    archive=target/$(echo "$launcher" | cut -d' ' -f1-2 | tr ' .' '--').jsa
+    java -XX:ArchiveClassesAtExit="$archive" -Djava.awt.headless=true -cp "$JAR" $launcher < "$MOVES" > /dev/null 2>&1 || true
+
+    echo "$launcher"
+    echo "  loads:     $(classes -Djava.awt.headless=true -cp "$JAR" $launcher)"
+    echo "  cold:      $(average java -Djava.awt.headless=true -cp "$JAR" $launcher)"
+    echo "  with CDS:  $(average java -XX:SharedArchiveFile="$archive" -Djava.awt.headless=true -cp "$JAR" $launcher)"
+done
@@ -0,0 +1,87 @@
+package benchmark;
+
+import model.BoardStore;
+import model.MagicSquareModel;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the heap used by each resident 3x3 board when boards are kept as MagicSquareModels and when they are kept in
+ * a BoardStore, along with the time spent in full garbage collections while they are resident. Run it from the
+ * benchmarks jar, with the number of boards as the (optional) argument:
+ * {@code java -Xmx4g -cp target/benchmarks.jar benchmark.BoardFootprint 1000000}.
+ *
+ * @author Samuel Gamelin
+ */
+public class BoardFootprint {
+    /**
+     * The number of full collections timed for each layout.
+     */
+    private static final int COLLECTIONS = 5;
+
+    /**
+     * Fills each layout with boards and reports its footprint.
+     *
+     * @param args The command-line arguments, where the first (optional) argument is the number of boards
+     */
+    public static void main(String[] args) {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long baseline = usedHeap();
+        MagicSquareModel[] models = new MagicSquareModel[boards];
+        for (int k = 0; k < boards; k++) {
+            models[k] = new MagicSquareModel();
+            models[k].play(k % 3, 0, k); // Make every board hold a move, so that its grid has been written to
+        }
+        report("MagicSquareModel", boards, usedHeap() - baseline);
+        models = null;
+
+        baseline = usedHeap();
+        BoardStore store = new BoardStore(3, boards);
+        for (int k = 0; k < boards; k++) {
+            store.play(store.allocate(), k % 3, 0, k);
+        }
+        report("BoardStore", boards, usedHeap() - baseline);
+        System.out.printf("%-16s %8d bytes per board (arrays only)%n", "", store.getBytesPerBoard());
+    }
+
+    /**
+     * Prints the heap used per board and the average time of a full collection while the boards are resident.
+     */
+    private static void report(String layout, int boards, long bytes) {
+        long pauseNanos = 0;
+        for (int i = 0; i < COLLECTIONS; i++) {
+            long start = System.nanoTime();
+            System.gc();
+            pauseNanos += System.nanoTime() - start;
+        }
+        System.out.printf("%-16s %8.1f bytes per board, %8.2f ms per full GC (%s)%n", layout, (double) bytes / boards,
+                pauseNanos / 1e6 / COLLECTIONS, collectors());
+    }
+
+    /**
+     * Returns the used heap after a full collection.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Returns the names of the garbage collectors and the total time they have spent collecting.
+     */
+    private static String collectors() {
+        StringBuilder names = new StringBuilder();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (names.length() > 0) {
+                names.append(", ");
+            }
+            names.append(collector.getName()).append(": ").append(collector.getCollectionTime()).append(" ms total");
+        }
+        return names.toString();
+    }
+}
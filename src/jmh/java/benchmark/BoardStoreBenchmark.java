@@ -0,0 +1,79 @@
+package benchmark;
+
+import model.BoardStore;
+import model.MagicSquareModel;
+import model.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing full 3x3 games played on many resident models with the same games played on the boards of a
+ * BoardStore. Each operation resets the next board and fills it with the Lo Shu square. See BoardFootprint for the
+ * memory used by each layout and the resulting garbage collection pauses.
+ *
+ * @author Samuel Gamelin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BoardStoreBenchmark {
+    static final int[] LO_SHU = {2, 7, 6, 9, 5, 1, 4, 3, 8};
+
+    @Param({"1000", "1000000"})
+    int boards;
+
+    MagicSquareModel[] models;
+
+    BoardStore store;
+
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        models = new MagicSquareModel[boards];
+        store = new BoardStore(3, boards);
+        for (int k = 0; k < boards; k++) {
+            models[k] = new MagicSquareModel();
+            store.allocate();
+        }
+    }
+
+    @Benchmark
+    public Status models() {
+        MagicSquareModel model = models[next];
+        next = next + 1 == boards ? 0 : next + 1;
+
+        model.reset();
+        for (int square = 0; square < 9; square++) {
+            model.play(square / 3, square % 3, LO_SHU[square]);
+        }
+        return model.getStatus();
+    }
+
+    @Benchmark
+    public Status store() {
+        int board = next;
+        next = next + 1 == boards ? 0 : next + 1;
+
+        store.reset(board);
+        for (int square = 0; square < 9; square++) {
+            store.play(board, square / 3, square % 3, LO_SHU[square]);
+        }
+        return store.getStatus(board);
+    }
+}
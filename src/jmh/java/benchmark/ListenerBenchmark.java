@@ -0,0 +1,63 @@
+package benchmark;
+
+import model.MagicSquareModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the cost of notifying listeners, playing a full game on the default-sized grid with 1, 10 or 1000
+ * registered listeners, receiving either MagicSquareEvents or packed events.
+ *
+ * @author Samuel Gamelin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerBenchmark {
+    @Param({"1", "10", "1000"})
+    int listeners;
+
+    @Param({"false", "true"})
+    boolean packed;
+
+    MagicSquareModel model;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        model = new MagicSquareModel();
+        for (int i = 0; i < listeners; i++) {
+            if (packed) {
+                model.addPackedMagicSquareListener(blackhole::consume);
+            } else {
+                model.addMagicSquareListener(blackhole::consume);
+            }
+        }
+    }
+
+    @Benchmark
+    public void fullGame() {
+        int size = model.getSize();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                model.play(i, j, i + j);
+            }
+        }
+        model.reset();
+    }
+}
@@ -0,0 +1,60 @@
+package benchmark;
+
+import model.MagicSquareModel;
+import model.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for playing games on a MagicSquareModel without any listeners: a full game (every square played followed
+ * by a reset) and a reset on its own.
+ *
+ * @author Samuel Gamelin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+    @Param({"3", "16", "64"})
+    int size;
+
+    MagicSquareModel model;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        model = new MagicSquareModel(size);
+    }
+
+    @Benchmark
+    public Status fullGame() {
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                model.play(i, j, i + j);
+            }
+        }
+
+        Status status = model.getStatus();
+        model.reset();
+        return status;
+    }
+
+    @Benchmark
+    public void reset() {
+        model.reset();
+    }
+}
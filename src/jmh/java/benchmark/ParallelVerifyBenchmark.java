@@ -0,0 +1,70 @@
+package benchmark;
+
+import model.MagicSquareVerifier;
+import model.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks showing how the verification of a single large grid scales with the number of threads, compared with the
+ * sequential verification. A parallelism of 0 uses every available core.
+ *
+ * @author Samuel Gamelin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelVerifyBenchmark {
+    @Param({"1000", "4000"})
+    int size;
+
+    @Param({"1", "2", "4", "0"})
+    int parallelism;
+
+    int[] cells;
+
+    ForkJoinPool pool;
+
+    MagicSquareVerifier verifier;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cells = new int[size * size];
+        Arrays.fill(cells, 1); // A constant grid is a magic square, so every line is compared
+        pool = new ForkJoinPool(parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism);
+        verifier = new MagicSquareVerifier(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Status sequential() {
+        return MagicSquareVerifier.verify(cells, size);
+    }
+
+    @Benchmark
+    public Status parallel() {
+        return verifier.verifyLarge(cells, size);
+    }
+}
@@ -0,0 +1,115 @@
+package benchmark;
+
+import model.MagicSquareModel;
+import model.MagicSquareVerifier;
+import model.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for evaluating the status of a filled grid at several grid sizes: the last move of a game (which triggers
+ * the model's status update) and the verification of a whole grid through MagicSquareVerifier.
+ * <p>
+ * A move cannot be made twice on the same grid, and refilling a grid before every move would be timed along with it at
+ * such a fine grain. The last move is therefore measured in batches of {@link #BATCH_SIZE} moves, each on its own grid
+ * of a pool filled before the batch, and its score is the time of a whole batch.
+ *
+ * @author Samuel Gamelin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusBenchmark {
+    /**
+     * The number of last moves timed together, which is also the number of grids filled before each batch.
+     */
+    static final int BATCH_SIZE = 64;
+
+    @Param({"3", "64", "512"})
+    int size;
+
+    int[] cells;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        cells = new int[size * size];
+        Arrays.fill(cells, 1); // A constant grid is a magic square, so every line is compared
+    }
+
+    /**
+     * The pool of grids completed by the last moves of a batch.
+     */
+    @State(Scope.Thread)
+    public static class Grids {
+        /**
+         * The grids, each missing its last move.
+         */
+        MagicSquareModel[] models;
+
+        /**
+         * The index of the grid completed by the next move of the batch.
+         */
+        int next;
+
+        /**
+         * Fills every square but the last one of every grid of the pool, so that each move of the batch completes a
+         * grid. The models are kept from one batch to the next, and only reset.
+         *
+         * @param benchmark The benchmark, holding the size of the grids
+         */
+        @Setup(Level.Iteration)
+        public void fill(StatusBenchmark benchmark) {
+            int size = benchmark.size;
+            if (models == null) {
+                models = new MagicSquareModel[BATCH_SIZE];
+                for (int k = 0; k < models.length; k++) {
+                    models[k] = new MagicSquareModel(size);
+                }
+            }
+
+            for (MagicSquareModel model : models) {
+                model.reset();
+                for (int i = 0; i < size; i++) {
+                    for (int j = 0; j < size; j++) {
+                        if (i != size - 1 || j != size - 1) {
+                            model.play(i, j, 1);
+                        }
+                    }
+                }
+            }
+            next = 0;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 10, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 20, batchSize = BATCH_SIZE)
+    public Status lastMove(Grids grids) {
+        MagicSquareModel model = grids.models[grids.next++];
+        model.play(size - 1, size - 1, 1);
+        return model.getStatus();
+    }
+
+    @Benchmark
+    public Status verify() {
+        return MagicSquareVerifier.verify(cells, size);
+    }
+}
@@ -0,0 +1,97 @@
+package benchmark;
+
+import model.MagicSquareVerifier;
+import model.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing the original evaluation of a filled grid (boxed numbers summed into ints) with the primitive long
+ * sums of MagicSquareVerifier, for int grids and for overflow-checked long grids.
+ *
+ * @author Samuel Gamelin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SumBenchmark {
+    @Param({"3", "64", "512"})
+    int size;
+
+    int[][] intGrid;
+
+    long[][] longGrid;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        intGrid = new int[size][size];
+        longGrid = new long[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                intGrid[i][j] = 1; // A constant grid is a magic square, so every line is compared
+                longGrid[i][j] = 1;
+            }
+        }
+    }
+
+    @Benchmark
+    public Status boxedInt() {
+        Set<Integer> allSums = new HashSet<>();
+        List<Integer> integerListRow = new ArrayList<>();
+        List<Integer> integerListColumn = new ArrayList<>();
+        List<Integer> integerListDiagonal = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                integerListRow.add(intGrid[i][j]);
+                integerListColumn.add(intGrid[j][i]);
+            }
+            allSums.add(integerListRow.stream().mapToInt(Integer::intValue).sum());
+            allSums.add(integerListColumn.stream().mapToInt(Integer::intValue).sum());
+            integerListRow.clear();
+            integerListColumn.clear();
+        }
+
+        for (int i = 0; i < size; i++) {
+            integerListDiagonal.add(intGrid[i][i]);
+        }
+        allSums.add(integerListDiagonal.stream().mapToInt(Integer::intValue).sum());
+        integerListDiagonal.clear();
+
+        for (int i = 0; i < size; i++) {
+            integerListDiagonal.add(intGrid[size - 1 - i][i]);
+        }
+        allSums.add(integerListDiagonal.stream().mapToInt(Integer::intValue).sum());
+
+        return allSums.size() == 1 ? Status.VICTORY : Status.NO_VICTORY;
+    }
+
+    @Benchmark
+    public Status primitiveInt() {
+        return MagicSquareVerifier.verify(intGrid);
+    }
+
+    @Benchmark
+    public Status checkedLong() {
+        return MagicSquareVerifier.verify(longGrid);
+    }
+}
@@ -0,0 +1,57 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import trace.Trace;
+import trace.TraceGenerator;
+import trace.TraceMismatchException;
+import trace.TraceRunner;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks replaying a generated trace of STEPS steps (plays, rejected plays and resets) against a model, so that
+ * the score is in steps per second. Run with the GC profiler to see the allocations per step.
+ *
+ * @author Samuel Gamelin
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceReplayBenchmark {
+    static final int STEPS = 100000;
+
+    @Param({"3", "64"})
+    int size;
+
+    Trace trace;
+
+    TraceRunner runner;
+
+    @Setup(Level.Trial)
+    public void setUp() throws TraceMismatchException {
+        trace = new TraceGenerator(size, 42).generate(STEPS);
+        runner = new TraceRunner(size);
+        runner.check(trace);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public int replay() {
+        return runner.replay(trace);
+    }
+}
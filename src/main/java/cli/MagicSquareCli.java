@@ -0,0 +1,218 @@
+package cli;
+
+import controller.GridParseException;
+import controller.GridParser;
+import model.MagicProperty;
+import model.MagicSquareAnalyzer;
+import model.MagicSquareModel;
+import model.MagicSquareVerifier;
+import model.Status;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+
+import static model.MagicSquareModel.DEFAULT_SIZE;
+
+/**
+ * This class is a text launcher for the Magic Square game, for servers and scripts without a display. It only uses the
+ * model (and the grid parser of the controller, which does not use AWT either), so it never loads AWT or Swing and
+ * starts much faster than the graphical view. It supports two commands:
+ * <ul>
+ * <li>"play [size]" plays a game on the standard input, one move ("x y number"), "undo", "redo", "reset" or "quit"
+ * per line, printing the grid after every change. The size must be between 1 and {@link #MAX_SIZE}.</li>
+ * <li>"check file..." checks grids written as text (one row per line, as in the Game menu of the view) and prints the
+ * verdict and properties of each of them. The exit status is 0 if every grid is a magic square, 1 if one is not and 2 if
+ * one cannot be read.</li>
+ * </ul>
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareCli {
+    /**
+     * The largest size of the games played with the "play" command, whose grid is printed after every change.
+     */
+    public static final int MAX_SIZE = 1024;
+
+    /**
+     * The stream the launcher prints to.
+     */
+    private final PrintStream out;
+
+    /**
+     * Constructs a launcher printing to the provided stream.
+     *
+     * @param out The stream to print to
+     */
+    public MagicSquareCli(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Runs a command.
+     *
+     * @param args The command and its arguments
+     * @param in   The reader of the moves of the "play" command
+     * @return the exit status of the command
+     * @throws IOException If the moves cannot be read
+     */
+    public int run(String[] args, BufferedReader in) throws IOException {
+        if (args.length > 0 && args[0].equals("play")) {
+            int size = args.length > 1 ? parseSize(args[1]) : DEFAULT_SIZE;
+            if (size > 0) {
+                return play(size, in);
+            }
+        } else if (args.length > 1 && args[0].equals("check")) {
+            int status = 0;
+            for (int i = 1; i < args.length; i++) {
+                status = Math.max(status, check(args[i]));
+            }
+            return status;
+        }
+
+        out.println("Usage: MagicSquareCli play [size] | MagicSquareCli check <file>...");
+        return 2;
+    }
+
+    /**
+     * Parses the size of the grid of the "play" command, printing why it is invalid if it is.
+     *
+     * @param text The text of the size
+     * @return the size, or -1 if it is not a number between 1 and {@link #MAX_SIZE}
+     */
+    private int parseSize(String text) {
+        try {
+            int size = Integer.parseInt(text);
+            if (size >= 1 && size <= MAX_SIZE) {
+                return size;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below, as for an out-of-range size
+        }
+
+        out.println("The size must be a number between 1 and " + MAX_SIZE + ": " + text);
+        return -1;
+    }
+
+    /**
+     * Plays a game with the moves read from a reader until the reader ends or the player quits.
+     *
+     * @param size The size of the grid
+     * @param in   The reader of the moves
+     * @return the exit status, 0
+     * @throws IOException If the moves cannot be read
+     */
+    private int play(int size, BufferedReader in) throws IOException {
+        MagicSquareModel model = new MagicSquareModel(size);
+        print(model);
+
+        for (String line = in.readLine(); line != null; line = in.readLine()) {
+            String[] tokens = line.trim().split("\\s+");
+            if (tokens[0].equals("quit")) {
+                break;
+            } else if (tokens[0].equals("undo")) {
+                model.undo();
+            } else if (tokens[0].equals("redo")) {
+                model.redo();
+            } else if (tokens[0].equals("reset")) {
+                model.reset();
+            } else if (tokens.length == 3) {
+                try {
+                    int x = Integer.parseInt(tokens[0]);
+                    int y = Integer.parseInt(tokens[1]);
+                    int number = Integer.parseInt(tokens[2]);
+                    if (x < 0 || y < 0 || x >= size || y >= size || model.isOccupied(x, y)) {
+                        out.println("(" + x + ", " + y + ") is not a free square");
+                        continue;
+                    }
+                    model.play(x, y, number);
+                } catch (NumberFormatException e) {
+                    out.println("Not a number: " + e.getMessage());
+                    continue;
+                }
+            } else {
+                out.println("Expected \"x y number\", \"undo\", \"redo\", \"reset\" or \"quit\"");
+                continue;
+            }
+            print(model);
+        }
+        return 0;
+    }
+
+    /**
+     * Prints the grid of a model, with a dot for each free square, followed by the status of the game.
+     *
+     * @param model The model to print
+     */
+    private void print(MagicSquareModel model) {
+        int size = model.getSize();
+        int width = 1;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (model.isOccupied(i, j)) {
+                    width = Math.max(width, Integer.toString(model.getNumber(i, j)).length());
+                }
+            }
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                String square = model.isOccupied(i, j) ? Integer.toString(model.getNumber(i, j)) : ".";
+                for (int pad = square.length(); pad <= width; pad++) {
+                    text.append(' ');
+                }
+                text.append(square);
+            }
+            text.append('\n');
+        }
+        out.print(text);
+
+        if (model.getStatus() == Status.VICTORY) {
+            out.println("Magic square!");
+        } else if (model.getStatus() == Status.NO_VICTORY) {
+            out.println("Not a magic square, reset or undo to continue");
+        }
+    }
+
+    /**
+     * Checks the grid written in a text file and prints its verdict and properties.
+     *
+     * @param path The path of the file
+     * @return 0 if the grid is a magic square, 1 if it is not, 2 if it cannot be read
+     */
+    private int check(String path) {
+        int[][] grid;
+        try (Reader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            grid = GridParser.parse(reader);
+        } catch (IOException | GridParseException e) {
+            out.println(path + ": " + e.getMessage());
+            return 2;
+        }
+
+        Status status = MagicSquareVerifier.verify(grid);
+        EnumSet<MagicProperty> properties = MagicSquareAnalyzer.analyze(grid);
+        out.println(path + ": " + status + " " + properties);
+        return status == Status.VICTORY ? 0 : 1;
+    }
+
+    /**
+     * This is the entry point of the text launcher.
+     *
+     * @param args The command and its arguments
+     * @throws IOException If the moves cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        int status = new MagicSquareCli(System.out).run(args, in);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+}
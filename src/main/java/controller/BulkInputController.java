@@ -0,0 +1,105 @@
+package controller;
+
+import model.MagicSquareModel;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * This class represents a controller that fills a whole Magic Square grid at once, from a file or from text pasted by
+ * the user, rather than one square at a time. The grid is read by a GridParser and placed on the model with a single
+ * call to playAll, so listeners are notified once.
+ *
+ * @author Samuel Gamelin
+ */
+public class BulkInputController {
+    /**
+     * The model on which the grid is placed.
+     */
+    private final MagicSquareModel model;
+
+    /**
+     * The component above which dialogs are shown.
+     */
+    private final Component parent;
+
+    /**
+     * Creates a BulkInputController for the provided model.
+     *
+     * @param model  The model on which grids should be placed
+     * @param parent The component above which dialogs should be shown
+     */
+    public BulkInputController(MagicSquareModel model, Component parent) {
+        this.model = model;
+        this.parent = parent;
+    }
+
+    /**
+     * Asks the user for a file and places the grid it contains on the model. Nothing is placed if the user cancels or
+     * the file is not a valid grid, in which case the user is told why.
+     */
+    public void loadFromFile() {
+        JFileChooser fileChooser = new JFileChooser();
+        if (fileChooser.showOpenDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(fileChooser.getSelectedFile().toPath(),
+                StandardCharsets.UTF_8)) {
+            apply(GridParser.parse(reader));
+        } catch (IOException e) {
+            showError("The file could not be read: " + e.getMessage());
+        } catch (GridParseException e) {
+            showError(e.getMessage());
+        }
+    }
+
+    /**
+     * Asks the user to paste a grid and places it on the model. The user is asked again until they either provide a
+     * valid grid or cancel.
+     */
+    public void paste() {
+        JTextArea textArea = new JTextArea(12, 40);
+        JScrollPane scrollPane = new JScrollPane(textArea);
+        String message = "Paste a grid of " + model.getSize() + " rows, separating numbers with spaces or commas";
+
+        while (JOptionPane.showConfirmDialog(parent, new Object[]{message, scrollPane}, "Paste grid",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) == JOptionPane.OK_OPTION) {
+            try {
+                if (apply(GridParser.parse(textArea.getText()))) {
+                    return;
+                }
+            } catch (GridParseException e) {
+                showError(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Places a grid on the model, unless it is not the size of the model, in which case the user is told so.
+     *
+     * @param grid The grid to place
+     * @return true if the grid was placed, false otherwise
+     */
+    private boolean apply(int[][] grid) {
+        if (grid.length != model.getSize()) {
+            showError("Expected a grid of size " + model.getSize() + " but found a grid of size " + grid.length);
+            return false;
+        }
+        model.playAll(grid);
+        return true;
+    }
+
+    /**
+     * Tells the user why a grid could not be placed.
+     *
+     * @param message The description of the problem
+     */
+    private void showError(String message) {
+        JOptionPane.showMessageDialog(parent, message, "Invalid grid", JOptionPane.ERROR_MESSAGE);
+    }
+}
@@ -0,0 +1,50 @@
+package controller;
+
+/**
+ * This exception is thrown when text cannot be read as the grid of a Magic Square game. It records where in the text
+ * the problem was found.
+ *
+ * @author Samuel Gamelin
+ */
+public class GridParseException extends Exception {
+    /**
+     * The line of the text (starting at 1) where the problem was found.
+     */
+    private final int line;
+
+    /**
+     * The column of the text (starting at 1) where the problem was found.
+     */
+    private final int column;
+
+    /**
+     * Constructs an exception for a problem found at the provided position of the text.
+     *
+     * @param message The description of the problem
+     * @param line    The line of the text (starting at 1) where the problem was found
+     * @param column  The column of the text (starting at 1) where the problem was found
+     */
+    public GridParseException(String message, int line, int column) {
+        super(message + " (line " + line + ", column " + column + ")");
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Returns the line of the text (starting at 1) where the problem was found.
+     *
+     * @return the line of the text (starting at 1) where the problem was found
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * Returns the column of the text (starting at 1) where the problem was found.
+     *
+     * @return the column of the text (starting at 1) where the problem was found
+     */
+    public int getColumn() {
+        return column;
+    }
+}
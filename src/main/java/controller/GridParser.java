@@ -0,0 +1,141 @@
+package controller;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class reads the grid of a Magic Square game from text, with one row per line and the numbers of a row separated
+ * by whitespace, commas or semicolons (so that comma-separated values can be read as well). Blank lines are ignored. The
+ * text is read one character at a time and numbers are converted as they are read, so no line or number is ever held as
+ * a String.
+ *
+ * @author Samuel Gamelin
+ */
+public final class GridParser {
+    /**
+     * The character read when the end of the text has been reached.
+     */
+    private static final int END = -1;
+
+    private GridParser() {
+    }
+
+    /**
+     * Reads a grid from text.
+     *
+     * @param text The text of the grid
+     * @return the grid, indexed by row then column
+     * @throws GridParseException If the text is not a square grid of numbers
+     */
+    public static int[][] parse(String text) throws GridParseException {
+        try {
+            return parse(new StringReader(text));
+        } catch (IOException e) {
+            throw new AssertionError("A StringReader cannot fail", e);
+        }
+    }
+
+    /**
+     * Reads a grid from a stream of text. The reader should be buffered, as it is read one character at a time.
+     *
+     * @param reader The reader of the text of the grid
+     * @return the grid, indexed by row then column
+     * @throws IOException        If the text cannot be read
+     * @throws GridParseException If the text is not a square grid of numbers
+     */
+    public static int[][] parse(Reader reader) throws IOException, GridParseException {
+        List<int[]> rows = new ArrayList<>();
+        int[] row = new int[16];
+        int rowLength = 0;
+        int line = 1;
+        int column = 0;
+        boolean expectNumber = false; // Whether a separator was read since the last number of the row
+
+        int c = reader.read();
+        while (true) {
+            column++;
+
+            if (c == END || c == '\n' || c == '\r') {
+                if (expectNumber) {
+                    throw new GridParseException("Expected a number after the separator", line, column);
+                }
+                if (rowLength > 0) {
+                    if (!rows.isEmpty() && rowLength != rows.get(0).length) {
+                        throw new GridParseException("Expected " + rows.get(0).length + " numbers in the row but found "
+                                + rowLength, line, column);
+                    }
+                    rows.add(Arrays.copyOf(row, rowLength));
+                    rowLength = 0;
+                }
+                if (c == END) {
+                    break;
+                }
+
+                int next = reader.read();
+                if (c == '\r' && next == '\n') { // Treat \r\n as a single line break
+                    next = reader.read();
+                }
+                c = next;
+                line++;
+                column = 0;
+            } else if (c == ' ' || c == '\t') {
+                c = reader.read();
+            } else if (c == ',' || c == ';') {
+                if (rowLength == 0 || expectNumber) {
+                    throw new GridParseException("Expected a number before the separator", line, column);
+                }
+                expectNumber = true;
+                c = reader.read();
+            } else if (c == '-' || c == '+' || (c >= '0' && c <= '9')) {
+                int start = column;
+                boolean negative = c == '-';
+                if (c == '-' || c == '+') {
+                    c = reader.read();
+                    column++;
+                }
+                if (c < '0' || c > '9') {
+                    throw new GridParseException("Expected a digit", line, column);
+                }
+
+                // Accumulate the magnitude of the number in a long, which also holds the magnitude of Integer.MIN_VALUE
+                long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+                long value = 0;
+                while (c >= '0' && c <= '9') {
+                    value = value * 10 + (c - '0');
+                    if (value > limit) {
+                        throw new GridParseException("The number does not fit in an int", line, start);
+                    }
+                    c = reader.read();
+                    column++;
+                }
+                column--; // The character after the number has not been handled yet
+
+                if (rowLength == row.length) {
+                    row = Arrays.copyOf(row, row.length * 2);
+                }
+                row[rowLength++] = (int) (negative ? -value : value);
+                expectNumber = false;
+
+                if (c != END && c != '\n' && c != '\r' && c != ' ' && c != '\t' && c != ',' && c != ';') {
+                    throw new GridParseException("Unexpected character '" + (char) c + "'", line, column + 1);
+                }
+            } else {
+                throw new GridParseException("Unexpected character '" + (char) c + "'", line, column);
+            }
+        }
+
+        if (rows.isEmpty()) {
+            throw new GridParseException("The grid is empty", line, column);
+        }
+        if (rows.size() != rows.get(0).length) {
+            throw new GridParseException("Expected " + rows.get(0).length + " rows but found " + rows.size(), line,
+                    column);
+        }
+
+        return rows.toArray(new int[0][]);
+    }
+}
@@ -9,7 +9,8 @@ import java.awt.event.ActionListener;
 /**
  * This class represents a controller for the Magic Square game. It is intended to be used on individual buttons.
  * It contains an associated position (as two integers, x and y) along with the corresponding model on which a move
- * should be made when a button from the game is clicked.
+ * should be made when a button from the game is clicked. Components that are not made of buttons can prompt for a move
+ * directly through the promptAndPlay method.
  *
  * @author Samuel Gamelin
  */
@@ -51,6 +52,18 @@ public class MagicSquareController implements ActionListener {
      */
     @Override
     public void actionPerformed(ActionEvent e) {
+        promptAndPlay(x, y, model);
+    }
+
+    /**
+     * Prompts the user for a number and makes a move with it on the provided model. The user is asked again until they
+     * either input a valid number or cancel their input, in which case no move is made.
+     *
+     * @param x     The x-coordinate of the move
+     * @param y     The y-coordinate of the move
+     * @param model The model on which the move should be made
+     */
+    public static void promptAndPlay(int x, int y, MagicSquareModel model) {
         boolean invalidNumber = false; // Used to keep track of if the user has put in an invalid number (start off by assuming it's invalid)
 
         /*
@@ -58,21 +71,27 @@ public class MagicSquareController implements ActionListener {
          * cancel their input, at which point the function returns without making a move.
          */
         do {
-            String input = JOptionPane.showInputDialog(null, invalidNumber ? "Enter a valid number" : "Enter a number");
+            String input = JOptionPane.showInputDialog(null, invalidNumber ? "Enter a valid number (between "
+                    + Integer.MIN_VALUE + " and " + Integer.MAX_VALUE + ")" : "Enter a number");
 
             if (input == null) { // If the user cancels, return immediately without making a move
                 return;
-            } else if (input.matches("-?\\d+")) {
+            }
+
+            invalidNumber = true;
+            if (input.matches("-?\\d+")) {
                 /*
                  * The above regular expression determines if the string represents a number, which can optionally start
-                 * with a negative sign, followed by one or more digits. If the number is valid, the play method in the
-                 * model is called with the number.
+                 * with a negative sign, followed by one or more digits. If the number is valid (it also has to fit in
+                 * an int), the play method in the model is called with the number.
                  */
-                int number = Integer.parseInt(input);
-                this.model.play(x, y, number);
-                invalidNumber = false;
-            } else {
-                invalidNumber = true;
+                try {
+                    int number = Integer.parseInt(input);
+                    model.play(x, y, number);
+                    invalidNumber = false;
+                } catch (NumberFormatException ignored) {
+                    // The number is out of range, so the user is asked again
+                }
             }
         } while (invalidNumber);
     }
@@ -0,0 +1,180 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class represents a histogram of latencies that many threads can record into at once. Values are counted in
+ * buckets whose width grows with the magnitude of the values, in the manner of an HDR histogram: every power of two is
+ * split into eight buckets, so that any value is reported with an error of at most 12.5%. Each bucket is a striped
+ * counter, so threads recording at the same time do not contend on a single memory location.
+ *
+ * @author Samuel Gamelin
+ */
+public class LatencyHistogram {
+    /**
+     * The number of bits of a value, after its leading one, that select its bucket within a power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * The number of buckets each power of two is split into.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The number of buckets needed to hold every non-negative long.
+     */
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /**
+     * The number of values recorded in each bucket.
+     */
+    private final LongAdder[] counts;
+
+    /**
+     * The sum of all recorded values.
+     */
+    private final LongAdder sum;
+
+    /**
+     * The largest recorded value.
+     */
+    private final LongAccumulator max;
+
+    /**
+     * Constructs an empty histogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts[i] = new LongAdder();
+        }
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Records a value. Negative values (which a clock going backwards could produce) are recorded as zero.
+     *
+     * @param value The value to record
+     */
+    public void record(long value) {
+        long clamped = Math.max(value, 0);
+        counts[bucketOf(clamped)].increment();
+        sum.add(clamped);
+        max.accumulate(clamped);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : counts) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the largest recorded value, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return the mean of the recorded values, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded values fall. The value is the upper bound of
+     * the bucket holding that percentile, so it may overestimate the exact value by up to 12.5%.
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return the value at the percentile, or 0 if nothing was recorded
+     * @throws IllegalArgumentException If the percentile is out of range
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        }
+
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns a copy of this histogram, which is not affected by values recorded afterwards.
+     *
+     * @return the copy of this histogram
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        for (int i = 0; i < BUCKETS; i++) {
+            copy.counts[i].add(counts[i].sum());
+        }
+        copy.sum.add(sum.sum());
+        copy.max.accumulate(max.get());
+        return copy;
+    }
+
+    /**
+     * Returns the bucket of a value. Values below SUB_BUCKETS each have a bucket of their own, after which every power
+     * of two is split into SUB_BUCKETS buckets of equal width.
+     *
+     * @param value The non-negative value
+     * @return the index of the bucket holding the value
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest value held by a bucket.
+     *
+     * @param bucket The index of the bucket
+     * @return the largest value of the bucket
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
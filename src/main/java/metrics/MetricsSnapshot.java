@@ -0,0 +1,223 @@
+package metrics;
+
+import model.MoveResult;
+import model.Status;
+
+import java.util.Locale;
+
+/**
+ * This class represents the metrics recorded by a ModelMetrics up to some point in time. Snapshots are immutable and
+ * can be exported as text, one metric per line, in the exposition format understood by common monitoring systems.
+ *
+ * @author Samuel Gamelin
+ */
+public class MetricsSnapshot {
+    /**
+     * The percentiles of each latency histogram included in the text export.
+     */
+    private static final double[] EXPORTED_PERCENTILES = {50, 90, 99, 99.9};
+
+    /**
+     * The number of moves made.
+     */
+    private final long movesPlayed;
+
+    /**
+     * The number of moves rejected, indexed by the ordinal of the reason.
+     */
+    private final long[] movesRejected;
+
+    /**
+     * The number of evaluations, indexed by the ordinal of their outcome.
+     */
+    private final long[] evaluations;
+
+    /**
+     * The number of resets.
+     */
+    private final long resets;
+
+    /**
+     * The time taken by moves made with play, in nanoseconds.
+     */
+    private final LatencyHistogram playLatency;
+
+    /**
+     * The time taken by evaluations, in nanoseconds.
+     */
+    private final LatencyHistogram evaluationLatency;
+
+    /**
+     * The time taken to notify listeners, in nanoseconds.
+     */
+    private final LatencyHistogram notificationLatency;
+
+    /**
+     * The time taken by resets, in nanoseconds.
+     */
+    private final LatencyHistogram resetLatency;
+
+    /**
+     * Constructs a snapshot from the values read from a ModelMetrics. The arrays and histograms must not be shared.
+     *
+     * @param movesPlayed         The number of moves made
+     * @param movesRejected       The number of moves rejected, indexed by the ordinal of the reason
+     * @param evaluations         The number of evaluations, indexed by the ordinal of their outcome
+     * @param resets              The number of resets
+     * @param playLatency         The time taken by moves made with play, in nanoseconds
+     * @param evaluationLatency   The time taken by evaluations, in nanoseconds
+     * @param notificationLatency The time taken to notify listeners, in nanoseconds
+     * @param resetLatency        The time taken by resets, in nanoseconds
+     */
+    MetricsSnapshot(long movesPlayed, long[] movesRejected, long[] evaluations, long resets,
+                    LatencyHistogram playLatency, LatencyHistogram evaluationLatency,
+                    LatencyHistogram notificationLatency, LatencyHistogram resetLatency) {
+        this.movesPlayed = movesPlayed;
+        this.movesRejected = movesRejected;
+        this.evaluations = evaluations;
+        this.resets = resets;
+        this.playLatency = playLatency;
+        this.evaluationLatency = evaluationLatency;
+        this.notificationLatency = notificationLatency;
+        this.resetLatency = resetLatency;
+    }
+
+    /**
+     * Returns the number of moves made.
+     *
+     * @return the number of moves made
+     */
+    public long getMovesPlayed() {
+        return movesPlayed;
+    }
+
+    /**
+     * Returns the number of moves rejected for a reason.
+     *
+     * @param reason The reason of the rejections
+     * @return the number of moves rejected for the reason
+     */
+    public long getMovesRejected(MoveResult reason) {
+        return movesRejected[reason.ordinal()];
+    }
+
+    /**
+     * Returns the number of evaluations with an outcome.
+     *
+     * @param status The outcome of the evaluations
+     * @return the number of evaluations with the outcome
+     */
+    public long getEvaluations(Status status) {
+        return evaluations[status.ordinal()];
+    }
+
+    /**
+     * Returns the number of resets.
+     *
+     * @return the number of resets
+     */
+    public long getResets() {
+        return resets;
+    }
+
+    /**
+     * Returns the time taken by moves made with play, in nanoseconds.
+     *
+     * @return the time taken by moves made with play, in nanoseconds
+     */
+    public LatencyHistogram getPlayLatency() {
+        return playLatency;
+    }
+
+    /**
+     * Returns the time taken by evaluations, in nanoseconds.
+     *
+     * @return the time taken by evaluations, in nanoseconds
+     */
+    public LatencyHistogram getEvaluationLatency() {
+        return evaluationLatency;
+    }
+
+    /**
+     * Returns the time taken to notify listeners, in nanoseconds.
+     *
+     * @return the time taken to notify listeners, in nanoseconds
+     */
+    public LatencyHistogram getNotificationLatency() {
+        return notificationLatency;
+    }
+
+    /**
+     * Returns the time taken by resets, in nanoseconds.
+     *
+     * @return the time taken by resets, in nanoseconds
+     */
+    public LatencyHistogram getResetLatency() {
+        return resetLatency;
+    }
+
+    /**
+     * Exports this snapshot as text, with one metric per line.
+     *
+     * @return the text of this snapshot
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        line(text, "magic_square_moves_played_total", "", movesPlayed);
+        for (MoveResult reason : MoveResult.values()) {
+            if (reason != MoveResult.ACCEPTED) {
+                line(text, "magic_square_moves_rejected_total", "reason=\"" + reason.name() + "\"",
+                        getMovesRejected(reason));
+            }
+        }
+        for (Status status : Status.values()) {
+            if (status != Status.IN_PROGRESS) {
+                line(text, "magic_square_evaluations_total", "status=\"" + status.name() + "\"",
+                        getEvaluations(status));
+            }
+        }
+        line(text, "magic_square_resets_total", "", resets);
+        histogram(text, "magic_square_play_nanos", playLatency);
+        histogram(text, "magic_square_evaluation_nanos", evaluationLatency);
+        histogram(text, "magic_square_notification_nanos", notificationLatency);
+        histogram(text, "magic_square_reset_nanos", resetLatency);
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toText();
+    }
+
+    /**
+     * Appends the exported percentiles, the maximum and the count of a histogram, one per line.
+     *
+     * @param text      The text to append to
+     * @param name      The name of the metric
+     * @param histogram The histogram of the metric
+     */
+    private static void histogram(StringBuilder text, String name, LatencyHistogram histogram) {
+        for (double percentile : EXPORTED_PERCENTILES) {
+            String quantile = String.format(Locale.ROOT, "quantile=\"%s\"", percentile / 100);
+            line(text, name, quantile, histogram.getValueAtPercentile(percentile));
+        }
+        line(text, name + "_max", "", histogram.getMax());
+        line(text, name + "_count", "", histogram.getCount());
+    }
+
+    /**
+     * Appends the line of one value of a metric.
+     *
+     * @param text   The text to append to
+     * @param name   The name of the metric
+     * @param labels The labels of the value, or an empty string if it has none
+     * @param value  The value
+     */
+    private static void line(StringBuilder text, String name, String labels, long value) {
+        text.append(name);
+        if (!labels.isEmpty()) {
+            text.append('{').append(labels).append('}');
+        }
+        text.append(' ').append(value).append('\n');
+    }
+}
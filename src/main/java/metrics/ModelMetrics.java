@@ -0,0 +1,127 @@
+package metrics;
+
+import model.MagicSquareMetrics;
+import model.MoveResult;
+import model.Status;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class records the metrics of any number of MagicSquareModels, which may be used from different threads at once.
+ * Counters are striped and latencies are recorded in LatencyHistograms, so recording stays cheap under contention.
+ * The metrics recorded so far can be read through a MetricsSnapshot.
+ *
+ * @author Samuel Gamelin
+ */
+public class ModelMetrics implements MagicSquareMetrics {
+    /**
+     * The number of moves made.
+     */
+    private final LongAdder movesPlayed = new LongAdder();
+
+    /**
+     * The number of moves rejected, indexed by the ordinal of the reason.
+     */
+    private final LongAdder[] movesRejected = adders(MoveResult.values().length);
+
+    /**
+     * The number of evaluations, indexed by the ordinal of their outcome.
+     */
+    private final LongAdder[] evaluations = adders(Status.values().length);
+
+    /**
+     * The number of resets.
+     */
+    private final LongAdder resets = new LongAdder();
+
+    /**
+     * The time taken by moves made with play, in nanoseconds.
+     */
+    private final LatencyHistogram playLatency = new LatencyHistogram();
+
+    /**
+     * The time taken by evaluations, in nanoseconds.
+     */
+    private final LatencyHistogram evaluationLatency = new LatencyHistogram();
+
+    /**
+     * The time taken to notify listeners, in nanoseconds.
+     */
+    private final LatencyHistogram notificationLatency = new LatencyHistogram();
+
+    /**
+     * The time taken by resets, in nanoseconds.
+     */
+    private final LatencyHistogram resetLatency = new LatencyHistogram();
+
+    @Override
+    public void movePlayed() {
+        movesPlayed.increment();
+    }
+
+    @Override
+    public void playTimed(long nanos) {
+        playLatency.record(nanos);
+    }
+
+    @Override
+    public void moveRejected(MoveResult reason) {
+        movesRejected[reason.ordinal()].increment();
+    }
+
+    @Override
+    public void statusEvaluated(Status status, long nanos) {
+        evaluations[status.ordinal()].increment();
+        evaluationLatency.record(nanos);
+    }
+
+    @Override
+    public void listenersNotified(long nanos) {
+        notificationLatency.record(nanos);
+    }
+
+    @Override
+    public void gameReset(long nanos) {
+        resets.increment();
+        resetLatency.record(nanos);
+    }
+
+    /**
+     * Returns the metrics recorded so far. Metrics recorded while the snapshot is being taken may or may not be part of
+     * it.
+     *
+     * @return the snapshot of the metrics
+     */
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(movesPlayed.sum(), sums(movesRejected), sums(evaluations), resets.sum(),
+                playLatency.copy(), evaluationLatency.copy(), notificationLatency.copy(), resetLatency.copy());
+    }
+
+    /**
+     * Creates an array of counters.
+     *
+     * @param length The number of counters
+     * @return the counters, all at 0
+     */
+    private static LongAdder[] adders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Reads an array of counters.
+     *
+     * @param adders The counters
+     * @return the current value of each counter
+     */
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+}
@@ -0,0 +1,358 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class hands the events of a model to its listeners on an executor rather than on the thread making the moves.
+ * Events are held in a bounded ring buffer and drained in batches. At most one drain runs at a time for a given
+ * dispatcher, so listeners always receive the events of a model in the order in which the moves were made, even when
+ * the executor is shared between several models.
+ * <p>
+ * The BLOCK policy needs the drains to run on another thread than the one making the moves, or at least to never wait
+ * for room from within a listener: a listener of this dispatcher that makes a move while the buffer is full would wait
+ * for itself, so that move fails with an IllegalStateException instead.
+ *
+ * @author Samuel Gamelin
+ */
+final class AsyncEventDispatcher implements Runnable {
+    /**
+     * The executor on which events are drained and handed to listeners.
+     */
+    private final Executor executor;
+
+    /**
+     * The maximum number of events handed to listeners in one batch.
+     */
+    private final int batchSize;
+
+    /**
+     * What to do with a new event when the buffer is full.
+     */
+    private final BackPressurePolicy policy;
+
+    /**
+     * The listeners receiving events one at a time.
+     */
+    private final List<MagicSquareListener> listeners;
+
+    /**
+     * The listeners receiving events in batches.
+     */
+    private final List<MagicSquareBatchListener> batchListeners;
+
+    /**
+     * The ring buffer of pending events.
+     */
+    private final MagicSquareEvent[] buffer;
+
+    /**
+     * The index of the oldest pending event in the buffer.
+     */
+    private int head;
+
+    /**
+     * The number of pending events in the buffer.
+     */
+    private int count;
+
+    /**
+     * Whether a drain has been submitted to the executor and has not finished yet.
+     */
+    private boolean scheduled;
+
+    /**
+     * The thread handing events to listeners, or null if no drain is running.
+     */
+    private Thread drainingThread;
+
+    /**
+     * Whether the dispatcher was closed, after which it no longer accepts events.
+     */
+    private boolean closed;
+
+    /**
+     * The number of events that were discarded or replaced because the buffer was full.
+     */
+    private long discardedEvents;
+
+    /**
+     * The lock guarding the buffer and the fields above.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled whenever room is made in the buffer.
+     */
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * Signalled whenever a drain stops running.
+     */
+    private final Condition idle = lock.newCondition();
+
+    /**
+     * Constructs a dispatcher for the provided listeners.
+     *
+     * @param executor       The executor on which events should be handed to listeners
+     * @param capacity       The maximum number of pending events
+     * @param batchSize      The maximum number of events handed to listeners in one batch
+     * @param policy         What to do with a new event when the buffer is full
+     * @param listeners      The listeners receiving events one at a time
+     * @param batchListeners The listeners receiving events in batches
+     */
+    AsyncEventDispatcher(Executor executor, int capacity, int batchSize, BackPressurePolicy policy,
+                         List<MagicSquareListener> listeners, List<MagicSquareBatchListener> batchListeners) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("The capacity and batch size must be positive");
+        }
+
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.policy = policy;
+        this.listeners = listeners;
+        this.batchListeners = batchListeners;
+        this.buffer = new MagicSquareEvent[capacity];
+    }
+
+    /**
+     * Adds an event to the buffer, applying the back-pressure policy if the buffer is full, and makes sure that a drain
+     * is scheduled.
+     *
+     * @param event The event to hand to listeners
+     * @throws IllegalStateException      If the dispatcher was closed, or if a listener of this dispatcher would have to
+     *                                    wait for room under the BLOCK policy
+     * @throws RejectedExecutionException If the executor does not accept the drain, in which case the event is kept and
+     *                                    the drain is submitted again with the next event
+     */
+    void dispatch(MagicSquareEvent event) {
+        boolean submit = false;
+        boolean coalesced = false;
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The dispatcher is closed");
+            }
+
+            if (count == buffer.length) {
+                switch (policy) {
+                    case BLOCK:
+                        while (count == buffer.length) {
+                            if (drainingThread == Thread.currentThread()) {
+                                throw new IllegalStateException("A listener cannot wait for room in its own dispatcher");
+                            }
+                            if (!scheduled) { // The last submission failed, so no drain is coming to make room
+                                scheduled = true;
+                                lock.unlock();
+                                try {
+                                    submit();
+                                } finally {
+                                    lock.lock();
+                                }
+                                continue;
+                            }
+                            notFull.awaitUninterruptibly();
+                        }
+                        break;
+                    case DROP_OLDEST:
+                        buffer[head] = null;
+                        head = (head + 1) % buffer.length;
+                        count--;
+                        discardedEvents++;
+                        break;
+                    case COALESCE:
+                        buffer[(head + count - 1) % buffer.length] = event;
+                        discardedEvents++;
+                        coalesced = true;
+                        break;
+                }
+            }
+
+            if (!coalesced) {
+                buffer[(head + count) % buffer.length] = event;
+                count++;
+            }
+
+            // Even if the event replaced a buffered one, a drain may be missing after a failed submission
+
+            if (!scheduled) {
+                scheduled = true;
+                submit = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (submit) {
+            submit();
+        }
+    }
+
+    /**
+     * Submits a drain to the executor. If the executor does not accept it, the drain is marked as not scheduled so that
+     * the next event submits it again.
+     *
+     * @throws RejectedExecutionException If the executor does not accept the drain
+     */
+    private void submit() {
+        try {
+            executor.execute(this);
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                scheduled = false;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the dispatcher: waits for a running drain to finish, then hands the remaining events to listeners on the
+     * calling thread, so that they are received before any event dispatched some other way afterwards. Drains that
+     * start after the dispatcher is closed do nothing. If a listener throws, the exception propagates and the remaining
+     * events are discarded.
+     *
+     * @throws IllegalStateException If called from a listener of this dispatcher
+     */
+    void close() {
+        lock.lock();
+        try {
+            if (drainingThread == Thread.currentThread()) {
+                throw new IllegalStateException("A listener cannot close its own dispatcher");
+            }
+            while (drainingThread != null) {
+                idle.awaitUninterruptibly();
+            }
+            closed = true;
+            drainingThread = Thread.currentThread();
+        } finally {
+            lock.unlock();
+        }
+
+        drain();
+    }
+
+    /**
+     * Returns the number of events that were discarded or replaced because the buffer was full.
+     *
+     * @return the number of discarded events
+     */
+    long getDiscardedEvents() {
+        lock.lock();
+        try {
+            return discardedEvents;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drains the buffer, handing batches of events to listeners until it is empty.
+     */
+    @Override
+    public void run() {
+        lock.lock();
+        try {
+            if (closed) { // The dispatcher was closed, and its events delivered, before this drain started
+                return;
+            }
+            drainingThread = Thread.currentThread();
+        } finally {
+            lock.unlock();
+        }
+
+        drain();
+    }
+
+    /**
+     * Hands batches of events to listeners until the buffer is empty, on the thread marked as draining.
+     */
+    private void drain() {
+        boolean delivered = false;
+
+        try {
+            List<MagicSquareEvent> batch;
+            while ((batch = takeBatch()) != null) {
+                for (MagicSquareEvent event : batch) {
+                    for (MagicSquareListener magicSquareListener : listeners) {
+                        magicSquareListener.handleMagicSquareEvent(event);
+                    }
+                }
+                for (MagicSquareBatchListener magicSquareBatchListener : batchListeners) {
+                    magicSquareBatchListener.handleMagicSquareEvents(batch);
+                }
+            }
+            delivered = true;
+        } finally {
+            lock.lock();
+            try {
+                if (drainingThread == Thread.currentThread()) {
+                    drainingThread = null;
+                }
+                idle.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            if (!delivered) {
+                // A listener threw: let the exception propagate to the executor, but keep draining remaining events
+                rescheduleAfterFailure();
+            }
+        }
+    }
+
+    /**
+     * Removes up to a batch of events from the buffer. If the buffer is empty, the drain is marked as finished.
+     *
+     * @return The removed events, or null if there were none
+     */
+    private List<MagicSquareEvent> takeBatch() {
+        lock.lock();
+        try {
+            if (count == 0) {
+                scheduled = false;
+                return null;
+            }
+
+            int taken = Math.min(count, batchSize);
+            List<MagicSquareEvent> batch = new ArrayList<>(taken);
+            for (int i = 0; i < taken; i++) {
+                batch.add(buffer[head]);
+                buffer[head] = null;
+                head = (head + 1) % buffer.length;
+            }
+            count -= taken;
+            notFull.signalAll();
+
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Submits a new drain if events are still pending after a drain ended abruptly.
+     */
+    private void rescheduleAfterFailure() {
+        boolean submit;
+
+        lock.lock();
+        try {
+            submit = count > 0 && !closed;
+            scheduled = submit;
+        } finally {
+            lock.unlock();
+        }
+
+        if (submit) {
+            submit();
+        }
+    }
+}
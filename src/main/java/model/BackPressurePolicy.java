@@ -0,0 +1,25 @@
+package model;
+
+/**
+ * This enumeration represents what a model dispatching its events asynchronously does with a new event when its buffer
+ * of pending events is full.
+ *
+ * @author Samuel Gamelin
+ */
+public enum BackPressurePolicy {
+    /**
+     * The thread making the move waits until listeners have caught up and there is room in the buffer.
+     */
+    BLOCK,
+
+    /**
+     * The oldest pending event is discarded to make room for the new event.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The new event replaces the most recent pending event, so that a burst of moves collapses into the latest one and
+     * listeners always end up seeing the latest status of the game.
+     */
+    COALESCE
+}
@@ -0,0 +1,417 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * This class stores the games of many boards of the same size in a few large primitive arrays, rather than in one
+ * MagicSquareModel (and its grid, history, line sums and listener lists) per board. A board only costs its squares, its
+ * bits of occupancy, its number of free squares, its generation and one byte of status, so millions of boards can
+ * stay resident without weighing on the garbage collector, which only sees a handful of arrays. Boards are identified
+ * by an index, and {@link #board(int)} provides a MagicSquareBoard view of a board for code written against the
+ * model's API.
+ * <p>
+ * Boards in a store have no listeners and no undo history. Filled grids are evaluated with the same rule as the model.
+ * A store is not thread-safe.
+ *
+ * @author Samuel Gamelin
+ */
+public class BoardStore {
+    /**
+     * The marker of a board that is not allocated, stored in place of its status.
+     */
+    private static final byte FREE = -1;
+
+    /**
+     * The statuses of the game, indexed by the ordinal stored for each board.
+     */
+    private static final Status[] STATUSES = Status.values();
+
+    /**
+     * The size of the boards.
+     */
+    private final int size;
+
+    /**
+     * The number of squares of a board.
+     */
+    private final int cellsPerBoard;
+
+    /**
+     * The number of longs holding the occupancy bits of a board.
+     */
+    private final int wordsPerBoard;
+
+    /**
+     * The maximum number of boards in this store.
+     */
+    private final int capacity;
+
+    /**
+     * The numbers of every board, one board after the other, each in row-major order.
+     */
+    private final int[] cells;
+
+    /**
+     * The occupancy bits of every board, one board after the other, where a set bit marks an occupied square.
+     */
+    private final long[] occupied;
+
+    /**
+     * The number of free squares of each board.
+     */
+    private final int[] freeSquares;
+
+    /**
+     * The ordinal of the status of each board, or FREE if the board is not allocated.
+     */
+    private final byte[] statuses;
+
+    /**
+     * The number of times each board was released, so that a view of a board can tell whether its index has been
+     * allocated again since the view was created.
+     */
+    private final int[] generations;
+
+    /**
+     * The indices of the boards that were released, which are allocated again before any other board.
+     */
+    private final int[] releasedBoards;
+
+    /**
+     * The number of released boards waiting to be allocated again.
+     */
+    private int releasedCount;
+
+    /**
+     * The number of boards that were ever allocated, which is also the index of the next new board.
+     */
+    private int highWater;
+
+    /**
+     * The line sums used to evaluate filled grids, shared by every board so that evaluating does not allocate.
+     */
+    private final LineSums lineSums;
+
+    /**
+     * Constructs an empty store.
+     *
+     * @param size     The size of the boards, which must be at least 1
+     * @param capacity The maximum number of boards in the store
+     * @throws IllegalArgumentException If the size or capacity is not positive, or if the boards would not fit in
+     *                                  arrays
+     */
+    public BoardStore(int size, int capacity) {
+        if (size < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Invalid size or capacity: " + size + ", " + capacity);
+        }
+        if ((long) size * size * capacity > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many squares for one store: " + capacity + " boards of size " + size);
+        }
+
+        this.size = size;
+        this.cellsPerBoard = size * size;
+        this.wordsPerBoard = (cellsPerBoard + 63) >>> 6;
+        this.capacity = capacity;
+        this.cells = new int[cellsPerBoard * capacity];
+        this.occupied = new long[wordsPerBoard * capacity];
+        this.freeSquares = new int[capacity];
+        this.statuses = new byte[capacity];
+        this.generations = new int[capacity];
+        this.releasedBoards = new int[capacity];
+        this.lineSums = new LineSums(size);
+        Arrays.fill(statuses, FREE);
+    }
+
+    /**
+     * Allocates a board with an empty grid.
+     *
+     * @return the index of the board
+     * @throws IllegalStateException If the store is full
+     */
+    public int allocate() {
+        int board;
+        if (releasedCount > 0) {
+            board = releasedBoards[--releasedCount];
+        } else if (highWater < capacity) {
+            board = highWater++;
+        } else {
+            throw new IllegalStateException("The store is full (" + capacity + " boards)");
+        }
+
+        clear(board);
+        return board;
+    }
+
+    /**
+     * Releases a board so that its space can be reused by another board. Views of the board stop working, even once its
+     * index is allocated again.
+     *
+     * @param board The index of the board
+     * @throws IllegalArgumentException If the board is not allocated
+     */
+    public void release(int board) {
+        check(board);
+        statuses[board] = FREE;
+        generations[board]++;
+        releasedBoards[releasedCount++] = board;
+    }
+
+    /**
+     * Makes a move on a board. Moves outside of the grid, on occupied squares or after the game has ended are rejected.
+     *
+     * @param board  The index of the board
+     * @param x      The x-coordinate of the move
+     * @param y      The y-coordinate of the move
+     * @param number The number to place on the square
+     * @return the outcome of the move
+     * @throws IllegalArgumentException If the board is not allocated
+     */
+    public MoveResult play(int board, int x, int y, int number) {
+        check(board);
+        if (statuses[board] != Status.IN_PROGRESS.ordinal()) {
+            return MoveResult.GAME_OVER;
+        }
+        if (x < 0 || y < 0 || x >= size || y >= size) {
+            return MoveResult.OUT_OF_RANGE;
+        }
+
+        int square = x * size + y;
+        int word = board * wordsPerBoard + (square >>> 6);
+        long bit = 1L << square; // Shifts only use the low 6 bits of square
+        if ((occupied[word] & bit) != 0) {
+            return MoveResult.OCCUPIED;
+        }
+
+        occupied[word] |= bit;
+        cells[board * cellsPerBoard + square] = number;
+        if (--freeSquares[board] == 0) {
+            statuses[board] = (byte) evaluate(board).ordinal();
+        }
+        return MoveResult.ACCEPTED;
+    }
+
+    /**
+     * Determines the outcome of a filled board with the same rule as the model.
+     *
+     * @param board The index of the board
+     * @return VICTORY if the board is a magic square, NO_VICTORY otherwise
+     */
+    private Status evaluate(int board) {
+        lineSums.clear();
+        for (int i = 0, index = board * cellsPerBoard; i < size; i++) {
+            for (int j = 0; j < size; j++, index++) {
+                lineSums.add(i, j, cells[index]);
+            }
+        }
+        return lineSums.evaluate();
+    }
+
+    /**
+     * Resets a board, freeing every square.
+     *
+     * @param board The index of the board
+     * @throws IllegalArgumentException If the board is not allocated
+     */
+    public void reset(int board) {
+        check(board);
+        clear(board);
+    }
+
+    /**
+     * Frees every square of a board and starts a new game on it.
+     *
+     * @param board The index of the board
+     */
+    private void clear(int board) {
+        Arrays.fill(occupied, board * wordsPerBoard, (board + 1) * wordsPerBoard, 0);
+        freeSquares[board] = cellsPerBoard;
+        statuses[board] = (byte) Status.IN_PROGRESS.ordinal();
+    }
+
+    /**
+     * Returns whether a square of a board is occupied.
+     *
+     * @param board The index of the board
+     * @param x     The x-coordinate of the square
+     * @param y     The y-coordinate of the square
+     * @return true if a number has been placed on the square, false otherwise
+     * @throws IllegalArgumentException  If the board is not allocated
+     * @throws IndexOutOfBoundsException If the coordinates are outside of the grid
+     */
+    public boolean isOccupied(int board, int x, int y) {
+        check(board);
+        int square = square(x, y);
+        return (occupied[board * wordsPerBoard + (square >>> 6)] & (1L << square)) != 0;
+    }
+
+    /**
+     * Returns the number placed on a square of a board. This is only meaningful if the square is occupied.
+     *
+     * @param board The index of the board
+     * @param x     The x-coordinate of the square
+     * @param y     The y-coordinate of the square
+     * @return the number placed on the square
+     * @throws IllegalArgumentException  If the board is not allocated
+     * @throws IndexOutOfBoundsException If the coordinates are outside of the grid
+     */
+    public int getNumber(int board, int x, int y) {
+        check(board);
+        return cells[board * cellsPerBoard + square(x, y)];
+    }
+
+    /**
+     * Returns the status of a board.
+     *
+     * @param board The index of the board
+     * @return the status of the board's game
+     * @throws IllegalArgumentException If the board is not allocated
+     */
+    public Status getStatus(int board) {
+        check(board);
+        return STATUSES[statuses[board]];
+    }
+
+    /**
+     * Returns a view of a board with the API of a model. Views only hold the index and the generation of the board, so
+     * they can be created and discarded freely. Once the board is released, every method of the view but getSize
+     * throws an IllegalStateException, so that a stale view never changes a board allocated again at the same index.
+     *
+     * @param board The index of the board
+     * @return the view of the board
+     * @throws IllegalArgumentException If the board is not allocated
+     */
+    public MagicSquareBoard board(int board) {
+        check(board);
+        return new Handle(board, generations[board]);
+    }
+
+    /**
+     * Returns the size of the boards.
+     *
+     * @return the size of the boards
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of boards in this store.
+     *
+     * @return the maximum number of boards in this store
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of allocated boards.
+     *
+     * @return the number of allocated boards
+     */
+    public int getBoardCount() {
+        return highWater - releasedCount;
+    }
+
+    /**
+     * Returns the number of bytes used by the arrays of this store for each board it can hold.
+     *
+     * @return the number of bytes per board
+     */
+    public long getBytesPerBoard() {
+        // Squares and occupancy words, the number of free squares, the status, the generation and the slot on the list
+        // of released boards
+        return 4L * cellsPerBoard + 8L * wordsPerBoard + 4 + 1 + 4 + 4;
+    }
+
+    /**
+     * Returns the index of a square within a board.
+     *
+     * @throws IndexOutOfBoundsException If the coordinates are outside of the grid
+     */
+    private int square(int x, int y) {
+        if (x < 0 || y < 0 || x >= size || y >= size) {
+            throw new IndexOutOfBoundsException("(" + x + ", " + y + ") is outside of the grid");
+        }
+        return x * size + y;
+    }
+
+    /**
+     * Checks that a board is allocated.
+     *
+     * @throws IllegalArgumentException If the board is not allocated
+     */
+    private void check(int board) {
+        if (board < 0 || board >= highWater || statuses[board] == FREE) {
+            throw new IllegalArgumentException("Board " + board + " is not allocated");
+        }
+    }
+
+    /**
+     * A view of one board of the store.
+     */
+    private class Handle implements MagicSquareBoard {
+        /**
+         * The index of the board.
+         */
+        private final int board;
+
+        /**
+         * The generation of the board when this view was created.
+         */
+        private final int generation;
+
+        /**
+         * Constructs a view of a board.
+         *
+         * @param board      The index of the board
+         * @param generation The current generation of the board
+         */
+        Handle(int board, int generation) {
+            this.board = board;
+            this.generation = generation;
+        }
+
+        /**
+         * Returns the index of the board, checking that it has not been released since this view was created.
+         *
+         * @return the index of the board
+         * @throws IllegalStateException If the board was released
+         */
+        private int board() {
+            if (generations[board] != generation) {
+                throw new IllegalStateException("Board " + board + " was released");
+            }
+            return board;
+        }
+
+        @Override
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public void play(int x, int y, int number) {
+            BoardStore.this.play(board(), x, y, number);
+        }
+
+        @Override
+        public boolean isOccupied(int x, int y) {
+            return BoardStore.this.isOccupied(board(), x, y);
+        }
+
+        @Override
+        public int getNumber(int x, int y) {
+            return BoardStore.this.getNumber(board(), x, y);
+        }
+
+        @Override
+        public Status getStatus() {
+            return BoardStore.this.getStatus(board());
+        }
+
+        @Override
+        public void reset() {
+            BoardStore.this.reset(board());
+        }
+    }
+}
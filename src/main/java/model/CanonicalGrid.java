@@ -0,0 +1,272 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * This class represents the canonical form of a filled grid under its 8 symmetries (the 4 rotations, each with or
+ * without a reflection). Every grid is mapped to the symmetric grid whose row-major squares come first in lexicographic
+ * order, so grids that are rotations or reflections of each other have equal canonical forms. Since a symmetry maps
+ * rows to columns (or rows) and diagonals to diagonals, symmetric grids always share the same status, which makes the
+ * canonical form a suitable key for caching verdicts. Canonical grids are immutable and their hash code is computed
+ * once.
+ *
+ * @author Samuel Gamelin
+ */
+public final class CanonicalGrid {
+    /**
+     * The number of symmetries of a square.
+     */
+    private static final int SYMMETRIES = 8;
+
+    /**
+     * The size of the grid.
+     */
+    private final int size;
+
+    /**
+     * The squares of the canonical grid, in row-major order.
+     */
+    private final int[] cells;
+
+    /**
+     * The hash code of the canonical grid.
+     */
+    private final int hash;
+
+    /**
+     * Constructs a canonical grid from its squares, which are not copied.
+     *
+     * @param size  The size of the grid
+     * @param cells The squares of the canonical grid, in row-major order
+     */
+    private CanonicalGrid(int size, int[] cells) {
+        this.size = size;
+        this.cells = cells;
+        this.hash = hash(cells);
+    }
+
+    /**
+     * Returns the canonical form of a grid given as an array of rows.
+     *
+     * @param grid The grid, which must be square
+     * @return the canonical form of the grid
+     * @throws IllegalArgumentException If the grid is empty or not square
+     */
+    public static CanonicalGrid of(int[][] grid) {
+        int size = grid.length;
+        if (size == 0) {
+            throw new IllegalArgumentException("The grid is empty");
+        }
+
+        int[] cells = new int[size * size];
+        for (int i = 0; i < size; i++) {
+            if (grid[i].length != size) {
+                throw new IllegalArgumentException("Row " + i + " has " + grid[i].length + " squares instead of " + size);
+            }
+            System.arraycopy(grid[i], 0, cells, i * size, size);
+        }
+        return of(cells, size);
+    }
+
+    /**
+     * Returns the canonical form of a grid stored as a flat, row-major array. The array is not modified.
+     *
+     * @param cells The squares of the grid
+     * @param size  The size of the grid
+     * @return the canonical form of the grid
+     * @throws IllegalArgumentException If the number of squares does not match the size
+     */
+    public static CanonicalGrid of(int[] cells, int size) {
+        if (size < 1 || cells.length != (long) size * size) {
+            throw new IllegalArgumentException("Expected " + size + " x " + size + " squares, got " + cells.length);
+        }
+
+        // Find the smallest symmetry by comparing the symmetries in place, which usually stops after a few squares
+        int best = 0;
+        for (int symmetry = 1; symmetry < SYMMETRIES; symmetry++) {
+            if (compare(cells, size, symmetry, best) < 0) {
+                best = symmetry;
+            }
+        }
+
+        int[] canonical = new int[cells.length];
+        int base = base(best, size);
+        int rowStep = rowStep(best, size);
+        int columnStep = columnStep(best, size);
+        for (int i = 0, index = 0; i < size; i++) {
+            for (int j = 0, source = base + i * rowStep; j < size; j++, source += columnStep) {
+                canonical[index++] = cells[source];
+            }
+        }
+        return new CanonicalGrid(size, canonical);
+    }
+
+    /**
+     * Compares two symmetries of a grid in lexicographic order of their row-major squares.
+     *
+     * @param cells  The squares of the grid
+     * @param size   The size of the grid
+     * @param first  The first symmetry
+     * @param second The second symmetry
+     * @return a negative number, zero or a positive number if the first symmetry comes before, is equal to or comes
+     * after the second one
+     */
+    private static int compare(int[] cells, int size, int first, int second) {
+        int firstBase = base(first, size);
+        int firstRowStep = rowStep(first, size);
+        int firstColumnStep = columnStep(first, size);
+        int secondBase = base(second, size);
+        int secondRowStep = rowStep(second, size);
+        int secondColumnStep = columnStep(second, size);
+
+        for (int i = 0; i < size; i++) {
+            int firstSource = firstBase + i * firstRowStep;
+            int secondSource = secondBase + i * secondRowStep;
+            for (int j = 0; j < size; j++, firstSource += firstColumnStep, secondSource += secondColumnStep) {
+                if (cells[firstSource] != cells[secondSource]) {
+                    return Integer.compare(cells[firstSource], cells[secondSource]);
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the index in the original grid of the square at (0, 0) of a symmetry of the grid. Each symmetry maps the
+     * square at (i, j) of the transformed grid to the square at index base + i * rowStep + j * columnStep of the
+     * original grid. Symmetries 0 to 3 are the rotations by 0, 90, 180 and 270 degrees, and symmetries 4 to 7 are the
+     * reflections across the vertical axis, the horizontal axis, the main diagonal and the anti-diagonal.
+     *
+     * @param symmetry The symmetry, from 0 to 7
+     * @param size     The size of the grid
+     * @return the index of the first square of the symmetry
+     */
+    private static int base(int symmetry, int size) {
+        switch (symmetry) {
+            case 0:
+            case 6:
+                return 0;
+            case 1:
+            case 4:
+                return size - 1;
+            case 2:
+            case 7:
+                return size * size - 1;
+            default:
+                return (size - 1) * size;
+        }
+    }
+
+    /**
+     * Returns how far apart, in the original grid, two vertically adjacent squares of a symmetry of the grid are (see
+     * {@link #base(int, int)}).
+     *
+     * @param symmetry The symmetry, from 0 to 7
+     * @param size     The size of the grid
+     * @return the difference between the indices of the squares at (i + 1, j) and (i, j) of the symmetry
+     */
+    private static int rowStep(int symmetry, int size) {
+        switch (symmetry) {
+            case 0:
+            case 4:
+                return size;
+            case 1:
+            case 7:
+                return -1;
+            case 2:
+            case 5:
+                return -size;
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * Returns how far apart, in the original grid, two horizontally adjacent squares of a symmetry of the grid are (see
+     * {@link #base(int, int)}).
+     *
+     * @param symmetry The symmetry, from 0 to 7
+     * @param size     The size of the grid
+     * @return the difference between the indices of the squares at (i, j + 1) and (i, j) of the symmetry
+     */
+    private static int columnStep(int symmetry, int size) {
+        switch (symmetry) {
+            case 0:
+            case 5:
+                return 1;
+            case 1:
+            case 6:
+                return size;
+            case 2:
+            case 4:
+                return -1;
+            default:
+                return -size;
+        }
+    }
+
+    /**
+     * Hashes the squares of a grid, mixing each square so that similar grids are spread over the whole range of int.
+     *
+     * @param cells The squares of the grid
+     * @return the hash of the squares
+     */
+    private static int hash(int[] cells) {
+        long hash = cells.length;
+        for (int cell : cells) {
+            hash = (hash + cell) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 29;
+        }
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Returns the size of the grid.
+     *
+     * @return the size of the grid
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of the square at the provided coordinates of the canonical grid.
+     *
+     * @param x The x-coordinate of the square
+     * @param y The y-coordinate of the square
+     * @return the number of the square
+     * @throws IndexOutOfBoundsException If the coordinates are outside of the grid
+     */
+    public int getNumber(int x, int y) {
+        if (x < 0 || y < 0 || x >= size || y >= size) {
+            throw new IndexOutOfBoundsException("(" + x + ", " + y + ") is outside of the grid");
+        }
+        return cells[x * size + y];
+    }
+
+    /**
+     * Verifies the canonical grid, which has the same status as every grid it is the canonical form of.
+     *
+     * @return VICTORY if the grid is a magic square, NO_VICTORY otherwise
+     */
+    Status verify() {
+        return MagicSquareVerifier.verify(cells, size);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CanonicalGrid)) {
+            return false;
+        }
+        CanonicalGrid grid = (CanonicalGrid) other;
+        return hash == grid.hash && size == grid.size && Arrays.equals(cells, grid.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
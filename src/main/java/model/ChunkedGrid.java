@@ -0,0 +1,225 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class stores the numbers and the occupancy of the squares of a grid in fixed-size chunks that can be shared
+ * between grids. Taking a snapshot of a grid takes constant time: the snapshot shares every chunk with the grid, and a
+ * chunk is only copied the first time either of them writes to it (copy-on-write). Squares are addressed by their index
+ * in the flat, row-major grid.
+ * <p>
+ * Occupancy is stamped rather than stored as flags: a square is occupied if its stamp equals the current epoch of the
+ * grid. Clearing the grid only moves on to the next epoch, which frees every square at once in constant time and
+ * without allocating, while the chunks are kept for the next game.
+ *
+ * @author Samuel Gamelin
+ */
+final class ChunkedGrid {
+    /**
+     * The base-2 logarithm of the largest number of squares in a chunk.
+     */
+    private static final int MAX_CHUNK_BITS = 12;
+
+    /**
+     * A source of unique owner stamps. Every grid has its own stamp, and a chunk may only be written to in place by the
+     * grid whose stamp it carries.
+     */
+    private static final AtomicInteger OWNERS = new AtomicInteger();
+
+    /**
+     * The base-2 logarithm of the number of squares in a chunk.
+     */
+    private final int chunkBits;
+
+    /**
+     * The number of chunks of the grid.
+     */
+    private final int chunkCount;
+
+    /**
+     * The numbers of each chunk. A null chunk has never been written to.
+     */
+    private int[][] numberChunks;
+
+    /**
+     * The occupancy stamps of each chunk, one stamp per square. A square is occupied if its stamp equals the epoch of
+     * this grid. A null chunk has never been written to.
+     */
+    private int[][] stampChunks;
+
+    /**
+     * The stamp of the grid that owns each chunk.
+     */
+    private int[] chunkOwners;
+
+    /**
+     * Whether the arrays of chunks above are shared with another grid, and must be copied before being modified.
+     */
+    private boolean shared;
+
+    /**
+     * The owner stamp of this grid.
+     */
+    private int owner;
+
+    /**
+     * The current epoch of this grid, which is never 0 so that the stamps of new chunks mark free squares.
+     */
+    private int epoch;
+
+    /**
+     * Constructs an empty grid with the provided number of squares.
+     *
+     * @param squares The number of squares of the grid
+     */
+    ChunkedGrid(int squares) {
+        int bits = 0;
+        while (bits < MAX_CHUNK_BITS && (1 << bits) < squares) {
+            bits++;
+        }
+
+        this.chunkBits = bits;
+        this.chunkCount = ((squares - 1) >>> bits) + 1;
+        this.owner = OWNERS.incrementAndGet();
+        drop();
+    }
+
+    /**
+     * Constructs a grid sharing every chunk of another grid.
+     *
+     * @param other The grid to share the chunks of
+     */
+    private ChunkedGrid(ChunkedGrid other) {
+        this.chunkBits = other.chunkBits;
+        this.chunkCount = other.chunkCount;
+        this.numberChunks = other.numberChunks;
+        this.stampChunks = other.stampChunks;
+        this.chunkOwners = other.chunkOwners;
+        this.shared = true;
+        this.owner = OWNERS.incrementAndGet();
+        this.epoch = other.epoch;
+    }
+
+    /**
+     * Returns the number placed on a square, which is only meaningful if the square is occupied.
+     *
+     * @param index The index of the square
+     * @return the number placed on the square
+     */
+    int getNumber(int index) {
+        int[] chunk = numberChunks[index >>> chunkBits];
+        return chunk == null ? 0 : chunk[index & ((1 << chunkBits) - 1)];
+    }
+
+    /**
+     * Returns whether a square is occupied.
+     *
+     * @param index The index of the square
+     * @return true if the square is occupied, false otherwise
+     */
+    boolean isOccupied(int index) {
+        int[] chunk = stampChunks[index >>> chunkBits];
+        return chunk != null && chunk[index & ((1 << chunkBits) - 1)] == epoch;
+    }
+
+    /**
+     * Places a number on a square and marks it as occupied.
+     *
+     * @param index  The index of the square
+     * @param number The number to place
+     */
+    void set(int index, int number) {
+        int chunk = writableChunk(index >>> chunkBits);
+        int offset = index & ((1 << chunkBits) - 1);
+        numberChunks[chunk][offset] = number;
+        stampChunks[chunk][offset] = epoch;
+    }
+
+    /**
+     * Marks a square as free. The number placed on it is left as is.
+     *
+     * @param index The index of the square
+     */
+    void free(int index) {
+        int chunk = writableChunk(index >>> chunkBits);
+        stampChunks[chunk][index & ((1 << chunkBits) - 1)] = 0;
+    }
+
+    /**
+     * Frees every square in constant time by moving on to the next epoch. Stamps of the previous epochs no longer match,
+     * and chunks shared with snapshots are left untouched. Only when the epochs run out are the chunks dropped.
+     */
+    void clear() {
+        if (epoch == Integer.MAX_VALUE) {
+            drop();
+        } else {
+            epoch++;
+        }
+    }
+
+    /**
+     * Drops every chunk, which frees every square, and starts over from the first epoch.
+     */
+    private void drop() {
+        this.numberChunks = new int[chunkCount][];
+        this.stampChunks = new int[chunkCount][];
+        this.chunkOwners = new int[chunkCount];
+        this.shared = false;
+        this.epoch = 1;
+    }
+
+    /**
+     * Returns a grid holding the current numbers and occupancy of this grid, in constant time. Later changes to either
+     * grid do not affect the other.
+     *
+     * @return the snapshot of this grid
+     */
+    ChunkedGrid snapshot() {
+        ChunkedGrid snapshot = new ChunkedGrid(this);
+
+        // From now on, this grid must copy the chunk arrays and every chunk before writing to them
+        this.shared = true;
+        this.owner = OWNERS.incrementAndGet();
+
+        return snapshot;
+    }
+
+    /**
+     * Returns a grid sharing every chunk of this grid, in constant time and without modifying this grid, so it may be
+     * called from several threads at once. Unlike {@link #snapshot()}, this grid keeps ownership of its chunks, so it
+     * must never be written to again, as is the case of the grids of snapshots.
+     *
+     * @return the copy of this grid
+     */
+    ChunkedGrid copyOfFrozen() {
+        return new ChunkedGrid(this);
+    }
+
+    /**
+     * Makes sure that a chunk, and the arrays holding the chunks, can be written to without affecting another grid.
+     *
+     * @param chunk The index of the chunk
+     * @return the index of the chunk
+     */
+    private int writableChunk(int chunk) {
+        if (chunkOwners[chunk] == owner) {
+            return chunk;
+        }
+
+        if (shared) {
+            this.numberChunks = numberChunks.clone();
+            this.stampChunks = stampChunks.clone();
+            this.chunkOwners = chunkOwners.clone();
+            this.shared = false;
+        }
+
+        int chunkSize = 1 << chunkBits;
+        int[] numbers = numberChunks[chunk];
+        int[] stamps = stampChunks[chunk];
+        numberChunks[chunk] = numbers == null ? new int[chunkSize] : numbers.clone();
+        stampChunks[chunk] = stamps == null ? new int[chunkSize] : stamps.clone();
+        chunkOwners[chunk] = owner;
+
+        return chunk;
+    }
+}
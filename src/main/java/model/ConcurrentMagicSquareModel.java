@@ -0,0 +1,153 @@
+package model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * This class represents a Magic Square model that can be shared by several threads making moves at the same time.
+ * Squares are claimed with a compare-and-set on their occupancy, so exactly one of several threads racing for the same
+ * square wins and the others are told that their move was rejected. The thread filling the last square determines the
+ * status of the game, using the same rule as MagicSquareModel.
+ *
+ * @author Samuel Gamelin
+ */
+public class ConcurrentMagicSquareModel {
+    /**
+     * The size (order) of this model's grid.
+     */
+    private final int size;
+
+    /**
+     * A flat, row-major array of the numbers placed on the grid. The square at (x, y) is stored at index x * size + y.
+     * A number is only written by the thread that claimed its square, and is published to the thread evaluating the
+     * game through the free square counter.
+     */
+    private final int[] numberGrid;
+
+    /**
+     * The occupancy of each square (1 when occupied, 0 otherwise), using the same indexing as the number grid.
+     */
+    private final AtomicIntegerArray occupiedGrid;
+
+    /**
+     * A counter representing the number of free squares left.
+     */
+    private final AtomicInteger numFreeSquares;
+
+    /**
+     * Represents the current status of the game.
+     */
+    private volatile Status status;
+
+    /**
+     * A list containing all listeners of this model.
+     */
+    private final List<MagicSquareListener> magicSquareListenerList;
+
+    /**
+     * Constructs a concurrent MagicSquare model with a grid of the provided size.
+     *
+     * @param size The size (order) of the grid, which must be between 1 and 46340 (so that the grid can be indexed)
+     * @throws IllegalArgumentException If the size is out of range
+     */
+    public ConcurrentMagicSquareModel(int size) {
+        if (size < 1 || size > 46340) {
+            throw new IllegalArgumentException("Invalid grid size: " + size);
+        }
+
+        this.size = size;
+        this.numberGrid = new int[size * size];
+        this.occupiedGrid = new AtomicIntegerArray(size * size);
+        this.numFreeSquares = new AtomicInteger(size * size);
+        this.status = Status.IN_PROGRESS;
+        this.magicSquareListenerList = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Adds a listener to this model. Listeners are notified on the thread that made the move, so they may be called
+     * from several threads at once.
+     *
+     * @param magicSquareListener The listener to add
+     */
+    public void addMagicSquareListener(MagicSquareListener magicSquareListener) {
+        this.magicSquareListenerList.add(magicSquareListener);
+    }
+
+    /**
+     * Makes a move on this model's grid, and notifies all listeners if the move was accepted. The event of the move
+     * that filled the last square carries the final status of the game.
+     *
+     * @param x      The x-coordinate of the move that is to be made
+     * @param y      The y-coordinate of the move that is to be made
+     * @param number The number that is to be placed on the square outlined by the provided x and y coordinates
+     * @return ACCEPTED if the move was made, or the reason for which it was rejected
+     */
+    public MoveResult play(int x, int y, int number) {
+        if (x < 0 || y < 0 || x >= size || y >= size) {
+            return MoveResult.OUT_OF_RANGE;
+        }
+
+        int index = x * size + y;
+
+        if (!occupiedGrid.compareAndSet(index, 0, 1)) {
+            return MoveResult.OCCUPIED;
+        }
+
+        this.numberGrid[index] = number;
+
+        Status newStatus = Status.IN_PROGRESS;
+        if (numFreeSquares.decrementAndGet() == 0) { // Only the thread filling the last square evaluates the game
+            newStatus = MagicSquareVerifier.verify(numberGrid, size);
+            this.status = newStatus;
+        }
+
+        MagicSquareEvent event = new MagicSquareEvent(x, y, number, newStatus, size);
+
+        for (MagicSquareListener magicSquareListener : magicSquareListenerList) {
+            magicSquareListener.handleMagicSquareEvent(event);
+        }
+
+        return MoveResult.ACCEPTED;
+    }
+
+    /**
+     * Resets this model to default configurations. A reset is not atomic with respect to moves being made at the same
+     * time, so it should only be called once the moves in flight have completed.
+     */
+    public void reset() {
+        this.status = Status.IN_PROGRESS;
+        this.numFreeSquares.set(size * size);
+        for (int i = 0; i < size * size; i++) {
+            this.occupiedGrid.set(i, 0);
+        }
+    }
+
+    /**
+     * Returns the size (order) of this model's grid.
+     *
+     * @return the size of this model's grid
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of free squares left on this model's grid.
+     *
+     * @return the number of free squares left
+     */
+    public int getNumFreeSquares() {
+        return this.numFreeSquares.get();
+    }
+
+    /**
+     * Returns this model's status.
+     *
+     * @return this model's status
+     */
+    public Status getStatus() {
+        return this.status;
+    }
+}
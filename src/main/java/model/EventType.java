@@ -0,0 +1,24 @@
+package model;
+
+/**
+ * This enumeration represents the kinds of changes to a Magic Square grid that a MagicSquareEvent can describe.
+ *
+ * @author Samuel Gamelin
+ */
+public enum EventType {
+    /**
+     * A number was placed on a square, either by a move or by redoing an undone move.
+     */
+    MOVE,
+
+    /**
+     * A move was undone, freeing its square again.
+     */
+    UNDO,
+
+    /**
+     * Numbers were placed on many squares at once. The event holds the last square that was filled, and its number is
+     * the number of squares that were filled.
+     */
+    BULK
+}
@@ -0,0 +1,259 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * This class keeps track of the sums of every row, column and both diagonals of a grid, and holds the rule that
+ * determines whether a filled grid is a magic square. It is shared by the model and the headless verifier so that both
+ * always agree on the outcome of a game. Sums of int numbers cannot overflow: a line holds at most 46340 squares, so
+ * its sum stays well within the range of a long.
+ *
+ * @author Samuel Gamelin
+ */
+final class LineSums {
+    /**
+     * The size (order) of the grid whose lines are being summed.
+     */
+    private final int size;
+
+    /**
+     * The sums of each row, indexed by x-coordinate.
+     */
+    private final long[] rowSums;
+
+    /**
+     * The sums of each column, indexed by y-coordinate.
+     */
+    private final long[] columnSums;
+
+    /**
+     * The sums of the two diagonals. Index 0 holds the negative-sloped diagonal (where x == y) and index 1 holds the
+     * positive-sloped diagonal (where x + y == size - 1).
+     */
+    private final long[] diagonalSums;
+
+    /**
+     * The number of filled squares in each row, indexed by x-coordinate. Only maintained by place and remove.
+     */
+    private final int[] rowFills;
+
+    /**
+     * The number of filled squares in each column, indexed by y-coordinate. Only maintained by place and remove.
+     */
+    private final int[] columnFills;
+
+    /**
+     * The number of filled squares in each diagonal, indexed as the diagonal sums. Only maintained by place and remove.
+     */
+    private final int[] diagonalFills;
+
+    /**
+     * The number of filled lines seen since the last scan for conflicts.
+     */
+    private int filledLines;
+
+    /**
+     * The sum of the first filled line seen since the last scan for conflicts, which every other filled line must share.
+     */
+    private long filledLineSum;
+
+    /**
+     * Constructs a set of line sums, all starting at zero, for a grid of the provided size.
+     *
+     * @param size The size of the grid
+     */
+    LineSums(int size) {
+        this.size = size;
+        this.rowSums = new long[size];
+        this.columnSums = new long[size];
+        this.diagonalSums = new long[2];
+        this.rowFills = new int[size];
+        this.columnFills = new int[size];
+        this.diagonalFills = new int[2];
+    }
+
+    /**
+     * Constructs a copy of another set of line sums.
+     *
+     * @param other The line sums to copy
+     */
+    LineSums(LineSums other) {
+        this.size = other.size;
+        this.rowSums = other.rowSums.clone();
+        this.columnSums = other.columnSums.clone();
+        this.diagonalSums = other.diagonalSums.clone();
+        this.rowFills = other.rowFills.clone();
+        this.columnFills = other.columnFills.clone();
+        this.diagonalFills = other.diagonalFills.clone();
+        this.filledLines = other.filledLines;
+        this.filledLineSum = other.filledLineSum;
+    }
+
+    /**
+     * Adds a number placed at (x, y) to the sums of every line that goes through that square.
+     *
+     * @param x      The x-coordinate of the square
+     * @param y      The y-coordinate of the square
+     * @param number The number placed on the square
+     */
+    void add(int x, int y, long number) {
+        this.rowSums[x] += number;
+        this.columnSums[y] += number;
+        if (x == y) {
+            this.diagonalSums[0] += number;
+        }
+        if (x + y == size - 1) {
+            this.diagonalSums[1] += number;
+        }
+    }
+
+    /**
+     * Adds a number placed at (x, y) to the sums of every line that goes through that square, checking for overflow.
+     *
+     * @param x      The x-coordinate of the square
+     * @param y      The y-coordinate of the square
+     * @param number The number placed on the square
+     * @throws ArithmeticException If a sum overflows, in which case the sums are left partially updated
+     */
+    void addExact(int x, int y, long number) {
+        this.rowSums[x] = Math.addExact(this.rowSums[x], number);
+        this.columnSums[y] = Math.addExact(this.columnSums[y], number);
+        if (x == y) {
+            this.diagonalSums[0] = Math.addExact(this.diagonalSums[0], number);
+        }
+        if (x + y == size - 1) {
+            this.diagonalSums[1] = Math.addExact(this.diagonalSums[1], number);
+        }
+    }
+
+    /**
+     * Adds a number placed on a free square at (x, y) to the sums of every line that goes through that square, and
+     * counts the square as filled in each of those lines.
+     *
+     * @param x      The x-coordinate of the square
+     * @param y      The y-coordinate of the square
+     * @param number The number placed on the square
+     */
+    void place(int x, int y, long number) {
+        add(x, y, number);
+        this.rowFills[x]++;
+        this.columnFills[y]++;
+        if (x == y) {
+            this.diagonalFills[0]++;
+        }
+        if (x + y == size - 1) {
+            this.diagonalFills[1]++;
+        }
+    }
+
+    /**
+     * Removes a number from the square at (x, y), undoing a previous call to place.
+     *
+     * @param x      The x-coordinate of the square
+     * @param y      The y-coordinate of the square
+     * @param number The number that was placed on the square
+     */
+    void remove(int x, int y, long number) {
+        add(x, y, -number);
+        this.rowFills[x]--;
+        this.columnFills[y]--;
+        if (x == y) {
+            this.diagonalFills[0]--;
+        }
+        if (x + y == size - 1) {
+            this.diagonalFills[1]--;
+        }
+    }
+
+    /**
+     * Determines whether a line that was just filled by placing a number at (x, y) disagrees with the lines filled
+     * before it. This only looks at the lines going through (x, y), so it must be called after every call to place
+     * since the last call to scanForConflicts, which it relies on.
+     *
+     * @param x The x-coordinate of the square that was just filled
+     * @param y The y-coordinate of the square that was just filled
+     * @return true if two filled lines have different sums, in which case the grid cannot become a magic square
+     */
+    boolean conflictsAt(int x, int y) {
+        boolean conflict = fillLine(this.rowSums[x], this.rowFills[x]);
+        conflict |= fillLine(this.columnSums[y], this.columnFills[y]);
+        if (x == y) {
+            conflict |= fillLine(this.diagonalSums[0], this.diagonalFills[0]);
+        }
+        if (x + y == size - 1) {
+            conflict |= fillLine(this.diagonalSums[1], this.diagonalFills[1]);
+        }
+        return conflict;
+    }
+
+    /**
+     * Determines whether any two filled lines have different sums by going over every line. This takes linear time in
+     * the size of the grid and is needed whenever squares are freed, after which conflictsAt can be used again.
+     *
+     * @return true if two filled lines have different sums, in which case the grid cannot become a magic square
+     */
+    boolean scanForConflicts() {
+        this.filledLines = 0;
+        boolean conflict = false;
+        for (int i = 0; i < size; i++) {
+            conflict |= fillLine(this.rowSums[i], this.rowFills[i]);
+            conflict |= fillLine(this.columnSums[i], this.columnFills[i]);
+        }
+        conflict |= fillLine(this.diagonalSums[0], this.diagonalFills[0]);
+        conflict |= fillLine(this.diagonalSums[1], this.diagonalFills[1]);
+        return conflict;
+    }
+
+    /**
+     * Records a line if it is filled, comparing its sum against the first filled line.
+     *
+     * @param sum   The sum of the line
+     * @param fills The number of filled squares in the line
+     * @return true if the line is filled and its sum differs from the first filled line's sum
+     */
+    private boolean fillLine(long sum, int fills) {
+        if (fills != size) {
+            return false;
+        }
+        if (this.filledLines++ == 0) {
+            this.filledLineSum = sum;
+            return false;
+        }
+        return sum != this.filledLineSum;
+    }
+
+    /**
+     * Sets every sum and fill counter back to zero.
+     */
+    void clear() {
+        Arrays.fill(this.rowSums, 0);
+        Arrays.fill(this.columnSums, 0);
+        Arrays.fill(this.diagonalSums, 0);
+        Arrays.fill(this.rowFills, 0);
+        Arrays.fill(this.columnFills, 0);
+        Arrays.fill(this.diagonalFills, 0);
+        this.filledLines = 0;
+    }
+
+    /**
+     * Determines the outcome of a filled grid from its line sums. The grid is a victory when every row, column and both
+     * diagonals share the same sum.
+     *
+     * @return VICTORY if all sums are equal, NO_VICTORY otherwise
+     */
+    Status evaluate() {
+        long target = this.diagonalSums[0];
+
+        if (this.diagonalSums[1] != target) {
+            return Status.NO_VICTORY;
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (this.rowSums[i] != target || this.columnSums[i] != target) {
+                return Status.NO_VICTORY;
+            }
+        }
+
+        return Status.VICTORY;
+    }
+}
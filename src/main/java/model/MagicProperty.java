@@ -0,0 +1,35 @@
+package model;
+
+/**
+ * This enumeration represents the properties that a filled Magic Square grid may have. A MagicSquareModel can be asked
+ * to require any combination of them for a game to be won.
+ *
+ * @author Samuel Gamelin
+ */
+public enum MagicProperty {
+    /**
+     * Every row and every column has the same sum.
+     */
+    SEMI_MAGIC,
+
+    /**
+     * Every row, every column and both diagonals have the same sum. This is the rule of the game.
+     */
+    MAGIC,
+
+    /**
+     * Every row, every column and every diagonal, including the broken diagonals that wrap around the edges of the
+     * grid, has the same sum. A pandiagonal grid is also magic.
+     */
+    PANDIAGONAL,
+
+    /**
+     * The numbers of the grid are exactly the numbers from 1 to the number of squares, each appearing once.
+     */
+    NORMAL,
+
+    /**
+     * Every pair of squares placed symmetrically about the center of the grid has the same sum.
+     */
+    ASSOCIATIVE
+}
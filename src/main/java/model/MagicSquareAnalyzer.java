@@ -0,0 +1,128 @@
+package model;
+
+import java.util.EnumSet;
+
+/**
+ * This class determines which MagicProperty values hold for a filled grid. Every property is checked during a single
+ * pass over the grid, which accumulates the sums of the rows, the columns and all the broken diagonals (of which the two
+ * main diagonals are a part) along with the numbers seen and the sums of symmetric pairs of squares.
+ *
+ * @author Samuel Gamelin
+ */
+public final class MagicSquareAnalyzer {
+    private MagicSquareAnalyzer() {
+    }
+
+    /**
+     * Determines the properties of a grid given as an array of rows.
+     *
+     * @param grid The grid to analyze, which must be square
+     * @return the properties that hold for the grid
+     * @throws IllegalArgumentException If the grid is empty or not square
+     */
+    public static EnumSet<MagicProperty> analyze(int[][] grid) {
+        int size = grid.length;
+        if (size == 0) {
+            throw new IllegalArgumentException("The grid is empty");
+        }
+
+        int[] cells = new int[size * size];
+        for (int i = 0; i < size; i++) {
+            if (grid[i].length != size) {
+                throw new IllegalArgumentException("Row " + i + " has " + grid[i].length + " squares instead of " + size);
+            }
+            System.arraycopy(grid[i], 0, cells, i * size, size);
+        }
+        return analyze(cells, size);
+    }
+
+    /**
+     * Determines the properties of a grid stored as a flat, row-major array, where the square at (x, y) is at index
+     * x * size + y.
+     *
+     * @param cells The squares of the grid
+     * @param size  The size of the grid
+     * @return the properties that hold for the grid
+     * @throws IllegalArgumentException If the number of squares does not match the size
+     */
+    public static EnumSet<MagicProperty> analyze(int[] cells, int size) {
+        if (size < 1 || cells.length != (long) size * size) {
+            throw new IllegalArgumentException("Expected " + size + " x " + size + " squares, got " + cells.length);
+        }
+
+        long[] rowSums = new long[size];
+        long[] columnSums = new long[size];
+        // Diagonals going down to the right are indexed by (y - x) mod size, so index 0 is the main diagonal, and
+        // diagonals going down to the left by (x + y) mod size, so index size - 1 is the anti-diagonal
+        long[] downRightSums = new long[size];
+        long[] downLeftSums = new long[size];
+        boolean[] seen = new boolean[cells.length];
+        boolean normal = true;
+        boolean associative = true;
+        long pairSum = (long) cells[0] + cells[cells.length - 1];
+
+        for (int i = 0, index = 0; i < size; i++) {
+            int downRight = size - i; // (y - x) mod size for y = 0, without a modulo per square
+            int downLeft = i;
+            for (int j = 0; j < size; j++, index++) {
+                int number = cells[index];
+                rowSums[i] += number;
+                columnSums[j] += number;
+
+                if (downRight == size) {
+                    downRight = 0;
+                }
+                downRightSums[downRight++] += number;
+                if (downLeft == size) {
+                    downLeft = 0;
+                }
+                downLeftSums[downLeft++] += number;
+
+                if (number < 1 || number > cells.length || seen[number - 1]) {
+                    normal = false;
+                } else {
+                    seen[number - 1] = true;
+                }
+
+                if ((long) number + cells[cells.length - 1 - index] != pairSum) {
+                    associative = false;
+                }
+            }
+        }
+
+        EnumSet<MagicProperty> properties = EnumSet.noneOf(MagicProperty.class);
+        long target = rowSums[0];
+
+        if (allEqual(rowSums, target) && allEqual(columnSums, target)) {
+            properties.add(MagicProperty.SEMI_MAGIC);
+
+            if (downRightSums[0] == target && downLeftSums[size - 1] == target) {
+                properties.add(MagicProperty.MAGIC);
+
+                if (allEqual(downRightSums, target) && allEqual(downLeftSums, target)) {
+                    properties.add(MagicProperty.PANDIAGONAL);
+                }
+            }
+        }
+        if (normal) {
+            properties.add(MagicProperty.NORMAL);
+        }
+        if (associative) {
+            properties.add(MagicProperty.ASSOCIATIVE);
+        }
+
+        return properties;
+    }
+
+    /**
+     * Returns whether every sum equals the target.
+     */
+    private static boolean allEqual(long[] sums, long target) {
+        for (long sum : sums) {
+            if (sum != target) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,14 @@
+package model;
+
+import java.util.List;
+
+/**
+ * This interface represents the behaviour of a listener of the MagicSquare game that receives events in batches. When a
+ * model dispatches its events asynchronously, each batch holds the events drained from the model's buffer in one go, in
+ * the order in which the moves were made. When events are dispatched synchronously, each batch holds a single event.
+ *
+ * @author Samuel Gamelin
+ */
+public interface MagicSquareBatchListener {
+    void handleMagicSquareEvents(List<MagicSquareEvent> events);
+}
@@ -0,0 +1,60 @@
+package model;
+
+/**
+ * This interface represents the behaviour shared by every kind of Magic Square board: moves can be made on its grid, its
+ * squares can be read, and it knows the status of its game. It is implemented by MagicSquareModel and by the handles of
+ * a BoardStore.
+ *
+ * @author Samuel Gamelin
+ */
+public interface MagicSquareBoard {
+    /**
+     * Returns the size (order) of this board's grid.
+     *
+     * @return the size of this board's grid
+     */
+    int getSize();
+
+    /**
+     * Makes a move on this board's grid. Moves outside of the grid, on occupied squares or after the game has ended are
+     * ignored.
+     *
+     * @param x      The x-coordinate of the move that is to be made
+     * @param y      The y-coordinate of the move that is to be made
+     * @param number The number that is to be placed on the square outlined by the provided x and y coordinates
+     */
+    void play(int x, int y, int number);
+
+    /**
+     * Returns whether the square at the provided coordinates is occupied.
+     *
+     * @param x The x-coordinate of the square
+     * @param y The y-coordinate of the square
+     * @return true if a number has been placed on the square, false otherwise
+     * @throws IndexOutOfBoundsException If the coordinates are outside of the grid
+     */
+    boolean isOccupied(int x, int y);
+
+    /**
+     * Returns the number placed on the square at the provided coordinates. This is only meaningful if the square is
+     * occupied.
+     *
+     * @param x The x-coordinate of the square
+     * @param y The y-coordinate of the square
+     * @return the number placed on the square
+     * @throws IndexOutOfBoundsException If the coordinates are outside of the grid
+     */
+    int getNumber(int x, int y);
+
+    /**
+     * Returns the status of this board's game.
+     *
+     * @return the status of this board's game
+     */
+    Status getStatus();
+
+    /**
+     * Resets this board, freeing every square.
+     */
+    void reset();
+}
@@ -1,6 +1,6 @@
 package model;
 
-import static model.MagicSquareModel.SIZE;
+import static model.MagicSquareModel.DEFAULT_SIZE;
 
 /**
  * This class represents an Event in the game of Magic Square, encapsulating information about a move
@@ -31,8 +31,28 @@ public class MagicSquareEvent {
     private Status status;
 
     /**
-     * Constructs a MagicSquareEvent. Should the coordinates be invalid (less than 0 or greater than or equal to
-     * the model's size, they are set to -1.
+     * The kind of change this event describes.
+     */
+    private EventType type;
+
+    /**
+     * The x-coordinates of the squares filled by a BULK event, in the order in which they were filled, or null.
+     */
+    private int[] filledXs;
+
+    /**
+     * The y-coordinates of the squares filled by a BULK event, in the order in which they were filled, or null.
+     */
+    private int[] filledYs;
+
+    /**
+     * The numbers placed on the squares filled by a BULK event, in the order in which they were filled, or null.
+     */
+    private int[] filledNumbers;
+
+    /**
+     * Constructs a MagicSquareEvent for a model of the default size. Should the coordinates be invalid (less than 0 or
+     * greater than or equal to the default size), they are set to -1.
      *
      * @param x      The x-coordinate associated with this event
      * @param y      The y-coordinate associated with this event
@@ -40,10 +60,71 @@ public class MagicSquareEvent {
      * @param status The status associated with this event
      */
     public MagicSquareEvent(int x, int y, int number, Status status) {
-        this.x = (x < 0 || x >= SIZE) ? -1 : x;
-        this.y = (x < 0 || x >= SIZE) ? -1 : y;
+        this(x, y, number, status, DEFAULT_SIZE);
+    }
+
+    /**
+     * Constructs a MagicSquareEvent. Should the coordinates be invalid (less than 0 or greater than or equal to
+     * the size of the model that the event originates from), they are set to -1.
+     *
+     * @param x      The x-coordinate associated with this event
+     * @param y      The y-coordinate associated with this event
+     * @param number The number value associated with this event
+     * @param status The status associated with this event
+     * @param size   The size of the grid of the model that this event originates from
+     */
+    public MagicSquareEvent(int x, int y, int number, Status status, int size) {
+        this(x, y, number, status, size, EventType.MOVE);
+    }
+
+    /**
+     * Constructs a MagicSquareEvent of the provided type. Should the coordinates be invalid (less than 0 or greater
+     * than or equal to the size of the model that the event originates from), they are set to -1.
+     *
+     * @param x      The x-coordinate associated with this event
+     * @param y      The y-coordinate associated with this event
+     * @param number The number value associated with this event
+     * @param status The status associated with this event
+     * @param size   The size of the grid of the model that this event originates from
+     * @param type   The kind of change this event describes
+     */
+    public MagicSquareEvent(int x, int y, int number, Status status, int size, EventType type) {
+        boolean invalid = x < 0 || x >= size || y < 0 || y >= size;
+        this.x = invalid ? -1 : x;
+        this.y = invalid ? -1 : y;
         this.number = number;
         this.status = status;
+        this.type = type;
+    }
+
+    /**
+     * Constructs a MagicSquareEvent of type BULK, describing numbers placed on many squares at once. The event holds
+     * the last square that was filled, and its number is the number of squares that were filled.
+     *
+     * @param status        The status associated with this event
+     * @param size          The size of the grid of the model that this event originates from
+     * @param filledIndices The indices (x * size + y) of the filled squares, in the order in which they were filled
+     * @param filledNumbers The numbers placed on the filled squares, in the same order
+     * @throws IllegalArgumentException If no square was filled, or the arrays have different lengths
+     */
+    public MagicSquareEvent(Status status, int size, int[] filledIndices, int[] filledNumbers) {
+        if (filledIndices.length == 0 || filledIndices.length != filledNumbers.length) {
+            throw new IllegalArgumentException("Expected as many filled squares as numbers, and at least one");
+        }
+
+        int last = filledIndices[filledIndices.length - 1];
+        this.x = last / size;
+        this.y = last % size;
+        this.number = filledIndices.length;
+        this.status = status;
+        this.type = EventType.BULK;
+        this.filledXs = new int[filledIndices.length];
+        this.filledYs = new int[filledIndices.length];
+        this.filledNumbers = filledNumbers.clone();
+        for (int k = 0; k < filledIndices.length; k++) {
+            this.filledXs[k] = filledIndices[k] / size;
+            this.filledYs[k] = filledIndices[k] % size;
+        }
     }
 
     /**
@@ -81,4 +162,69 @@ public class MagicSquareEvent {
     public Status getStatus() {
         return status;
     }
+
+    /**
+     * Returns the kind of change associated with this event.
+     *
+     * @return the kind of change associated with this event
+     */
+    public EventType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of squares filled by this event, which is only positive for BULK events.
+     *
+     * @return the number of filled squares, or 0 if this event is not of type BULK
+     */
+    public int getFilledCount() {
+        return filledXs == null ? 0 : filledXs.length;
+    }
+
+    /**
+     * Returns the x-coordinate of a square filled by this BULK event.
+     *
+     * @param k The position of the square in the order in which squares were filled
+     * @return the x-coordinate of the square
+     * @throws IndexOutOfBoundsException If k is not less than the number of filled squares
+     */
+    public int getFilledX(int k) {
+        checkFilled(k);
+        return filledXs[k];
+    }
+
+    /**
+     * Returns the y-coordinate of a square filled by this BULK event.
+     *
+     * @param k The position of the square in the order in which squares were filled
+     * @return the y-coordinate of the square
+     * @throws IndexOutOfBoundsException If k is not less than the number of filled squares
+     */
+    public int getFilledY(int k) {
+        checkFilled(k);
+        return filledYs[k];
+    }
+
+    /**
+     * Returns the number placed on a square filled by this BULK event.
+     *
+     * @param k The position of the square in the order in which squares were filled
+     * @return the number placed on the square
+     * @throws IndexOutOfBoundsException If k is not less than the number of filled squares
+     */
+    public int getFilledNumber(int k) {
+        checkFilled(k);
+        return filledNumbers[k];
+    }
+
+    /**
+     * Checks that a position is within the squares filled by this event.
+     *
+     * @throws IndexOutOfBoundsException If k is not less than the number of filled squares
+     */
+    private void checkFilled(int k) {
+        if (k < 0 || k >= getFilledCount()) {
+            throw new IndexOutOfBoundsException("Square " + k + " of " + getFilledCount() + " filled squares");
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package model;
+
+/**
+ * This interface represents a recorder of what happens inside a MagicSquareModel, such as the moves that are made or
+ * rejected and the time spent playing, evaluating grids, notifying listeners and resetting. A model without metrics
+ * does not measure anything, so metrics cost nothing unless they are set. Implementations are called on the thread
+ * using the model and must be thread-safe if they are shared between models.
+ *
+ * @author Samuel Gamelin
+ */
+public interface MagicSquareMetrics {
+    /**
+     * Records a move that was made, either on its own or as part of a bulk input.
+     */
+    void movePlayed();
+
+    /**
+     * Records the time taken by a call to play that made a move, from checking the move to notifying the listeners
+     * (which includes the evaluation of the grid, if it was filled). Moves made by a bulk input are not timed.
+     *
+     * @param nanos The time taken by the move, in nanoseconds
+     */
+    void playTimed(long nanos);
+
+    /**
+     * Records a move that was not made.
+     *
+     * @param reason The reason the move was rejected
+     */
+    void moveRejected(MoveResult reason);
+
+    /**
+     * Records the evaluation of a filled grid.
+     *
+     * @param status The outcome of the evaluation
+     * @param nanos  The time taken by the evaluation, in nanoseconds
+     */
+    void statusEvaluated(Status status, long nanos);
+
+    /**
+     * Records the notification of listeners of a change to the grid. When events are dispatched asynchronously, this
+     * is the time taken to hand the event over to the dispatcher.
+     *
+     * @param nanos The time taken to notify the listeners, in nanoseconds
+     */
+    void listenersNotified(long nanos);
+
+    /**
+     * Records a reset of the model.
+     *
+     * @param nanos The time taken by the reset, in nanoseconds
+     */
+    void gameReset(long nanos);
+}
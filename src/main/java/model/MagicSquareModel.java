@@ -1,30 +1,45 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * This class represents a Magic Square model.
  *
  * @author Samuel Gamelin
  */
-public class MagicSquareModel {
+public class MagicSquareModel implements MagicSquareBoard {
     /**
-     * A constant representing the size of the Magic Square grid.
+     * A constant representing the default size of the Magic Square grid.
      */
-    public static final int SIZE = 3;
+    public static final int DEFAULT_SIZE = 3;
 
     /**
-     * A 2D array of strings representing which squares are occupied.
+     * The size (order) of this model's grid.
      */
-    private int[][] numberGrid;
+    private final int size;
 
     /**
-     * A 2D array of boolean representing which squares have been occupied.
+     * The numbers placed on the grid and which squares have been occupied, stored in chunks that are shared with
+     * snapshots. The square at (x, y) is stored at index x * size + y.
      */
-    private boolean[][] occupiedGrid;
+    private ChunkedGrid grid;
+
+    /**
+     * The moves made on the grid since the last reset, which can be undone and redone.
+     */
+    private MoveHistory moveHistory;
+
+    /**
+     * The running sums of every row, column and diagonal of the grid.
+     */
+    private LineSums lineSums;
 
     /**
      * A counter representing the number of free squares left.
@@ -37,19 +52,77 @@ public class MagicSquareModel {
     private Status status;
 
     /**
-     * A list containing all listeners of this model.
+     * Whether the game ends as soon as two filled lines have different sums, rather than once every square is filled.
+     */
+    private boolean eagerEvaluation;
+
+    /**
+     * The properties that a filled grid must have for the game to be won.
+     */
+    private EnumSet<MagicProperty> requiredProperties;
+
+    /**
+     * Whether the required properties include equal sums for every row, column and both diagonals, in which case two
+     * filled lines with different sums doom the game.
+     */
+    private boolean linesMustAgree;
+
+    /**
+     * A list containing all listeners of this model. Listeners may be notified from a dispatch thread, so the list is
+     * safe to iterate while listeners are being added.
      */
     private List<MagicSquareListener> magicSquareListenerList;
 
     /**
-     * Constructs a MagicSquare model.
+     * A list containing all listeners of this model that receive events in batches.
+     */
+    private List<MagicSquareBatchListener> magicSquareBatchListenerList;
+
+    /**
+     * A list containing all listeners of this model that receive packed events.
+     */
+    private List<PackedMagicSquareListener> packedMagicSquareListenerList;
+
+    /**
+     * The dispatcher handing events to listeners on an executor, or null if listeners are notified synchronously on the
+     * thread making the move.
+     */
+    private AsyncEventDispatcher asyncEventDispatcher;
+
+    /**
+     * The recorder of this model's metrics, or null if no metrics are recorded.
+     */
+    private MagicSquareMetrics metrics;
+
+    /**
+     * Constructs a MagicSquare model of the default size.
      */
     public MagicSquareModel() {
-        this.numberGrid = new int[SIZE][SIZE];
-        this.occupiedGrid = new boolean[SIZE][SIZE];
-        this.numFreeSquares = SIZE * SIZE;
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Constructs a MagicSquare model with a grid of the provided size.
+     *
+     * @param size The size (order) of the grid, which must be between 1 and 46340 (so that the grid can be indexed)
+     * @throws IllegalArgumentException If the size is out of range
+     */
+    public MagicSquareModel(int size) {
+        if (size < 1 || size > 46340) {
+            throw new IllegalArgumentException("Invalid grid size: " + size);
+        }
+
+        this.size = size;
+        this.grid = new ChunkedGrid(size * size);
+        this.moveHistory = new MoveHistory();
+        this.lineSums = new LineSums(size);
+        this.numFreeSquares = size * size;
         this.status = Status.IN_PROGRESS;
-        this.magicSquareListenerList = new ArrayList<>();
+        this.requiredProperties = EnumSet.of(MagicProperty.MAGIC);
+        this.linesMustAgree = true;
+        this.magicSquareListenerList = new CopyOnWriteArrayList<>();
+        this.magicSquareBatchListenerList = new CopyOnWriteArrayList<>();
+        this.packedMagicSquareListenerList = new CopyOnWriteArrayList<>();
     }
 
     /**
@@ -61,46 +134,523 @@ public class MagicSquareModel {
         this.magicSquareListenerList.add(magicSquareListener);
     }
 
+    /**
+     * Adds a listener receiving events in batches to this model.
+     *
+     * @param magicSquareBatchListener The listener to add
+     */
+    public void addMagicSquareBatchListener(MagicSquareBatchListener magicSquareBatchListener) {
+        this.magicSquareBatchListenerList.add(magicSquareBatchListener);
+    }
+
+    /**
+     * Adds a listener receiving packed events to this model. Packed listeners are notified on the thread making the
+     * move, before any other listener, even when the other listeners are notified asynchronously.
+     *
+     * @param packedMagicSquareListener The listener to add
+     * @throws IllegalStateException If this model's grid is too large for its coordinates to be packed
+     */
+    public void addPackedMagicSquareListener(PackedMagicSquareListener packedMagicSquareListener) {
+        if (size > PackedMagicSquareEvent.MAX_SIZE) {
+            throw new IllegalStateException("The grid is too large for packed events");
+        }
+
+        this.packedMagicSquareListenerList.add(packedMagicSquareListener);
+    }
+
+    /**
+     * Makes this model notify its listeners asynchronously. Events are placed in a bounded buffer and handed to
+     * listeners on the provided executor in batches, so a slow listener no longer holds up the thread making moves.
+     * Listeners still receive the events of this model one batch at a time and in the order in which the moves were
+     * made, even if the executor is shared with other models. The BLOCK policy requires listeners to be notified on
+     * another thread than the one making moves whenever the buffer is full (see AsyncEventDispatcher).
+     * <p>
+     * Events still waiting from a previous call are handed to listeners on the calling thread before this method
+     * returns, so that listeners keep receiving events in order. Passing a null executor makes the model notify its
+     * listeners synchronously again.
+     *
+     * @param executor  The executor on which listeners should be notified, or null to notify them synchronously
+     * @param capacity  The maximum number of events waiting to be handed to listeners
+     * @param batchSize The maximum number of events handed to batch listeners at once
+     * @param policy    What to do with a new event when the buffer is full
+     * @throws IllegalArgumentException If the capacity or batch size is not positive
+     * @throws IllegalStateException    If called from a listener notified asynchronously
+     */
+    public void setAsyncDispatch(Executor executor, int capacity, int batchSize, BackPressurePolicy policy) {
+        AsyncEventDispatcher dispatcher = executor == null ? null : new AsyncEventDispatcher(executor, capacity,
+                batchSize, policy, this.magicSquareListenerList, this.magicSquareBatchListenerList);
+        if (this.asyncEventDispatcher != null) {
+            this.asyncEventDispatcher.close();
+        }
+        this.asyncEventDispatcher = dispatcher;
+    }
+
+    /**
+     * Returns whether this model notifies its listeners asynchronously.
+     *
+     * @return true if listeners are notified on an executor set with setAsyncDispatch, false otherwise
+     */
+    public boolean isAsyncDispatch() {
+        return this.asyncEventDispatcher != null;
+    }
+
+    /**
+     * Returns the number of events that were dropped or coalesced because listeners could not keep up with this model.
+     * This is always 0 when listeners are notified synchronously.
+     *
+     * @return the number of events that listeners did not receive
+     */
+    public long getDiscardedEventCount() {
+        return this.asyncEventDispatcher == null ? 0 : this.asyncEventDispatcher.getDiscardedEvents();
+    }
+
+    /**
+     * Sets the recorder of this model's metrics. Nothing is measured while no recorder is set.
+     *
+     * @param metrics The recorder of the metrics, or null to stop recording them
+     */
+    public void setMetrics(MagicSquareMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets whether this model evaluates eagerly. An eagerly evaluating model ends the game with a status of NO_VICTORY
+     * as soon as two filled rows, columns or diagonals have different sums, since the grid can then no longer become a
+     * magic square (games that do not require MAGIC or PANDIAGONAL are never ended early). Listeners are notified of
+     * the new status through the event of the move that ended the game.
+     *
+     * @param eagerEvaluation true to end doomed games early, false to only evaluate once every square is filled
+     */
+    public void setEagerEvaluation(boolean eagerEvaluation) {
+        this.eagerEvaluation = eagerEvaluation;
+        endIfDoomed();
+    }
+
+    /**
+     * Sets the properties that a filled grid must have for the game to be won, which are MAGIC by default. Grids are
+     * only analyzed for other properties when they are required, so the default rule keeps evaluating from the sums of
+     * the lines accumulated during the game. The new rule applies from the next evaluation of the grid.
+     *
+     * @param requiredProperties The properties that a filled grid must have
+     * @throws IllegalArgumentException If no property is required
+     */
+    public void setRequiredProperties(Set<MagicProperty> requiredProperties) {
+        if (requiredProperties.isEmpty()) {
+            throw new IllegalArgumentException("At least one property must be required");
+        }
+
+        this.requiredProperties = EnumSet.copyOf(requiredProperties);
+        this.linesMustAgree = requiredProperties.contains(MagicProperty.MAGIC)
+                || requiredProperties.contains(MagicProperty.PANDIAGONAL);
+        endIfDoomed();
+    }
+
+    /**
+     * Returns the properties that a filled grid must have for the game to be won.
+     *
+     * @return a copy of the required properties
+     */
+    public Set<MagicProperty> getRequiredProperties() {
+        return EnumSet.copyOf(this.requiredProperties);
+    }
+
+    /**
+     * Returns the properties of this model's grid, which can only be determined once every square has been filled.
+     *
+     * @return the properties that hold for the grid, or an empty set if the grid is not filled yet
+     */
+    public Set<MagicProperty> getProperties() {
+        if (numFreeSquares > 0) {
+            return EnumSet.noneOf(MagicProperty.class);
+        }
+        return MagicSquareAnalyzer.analyze(cells(), size);
+    }
+
+    /**
+     * Returns whether this model evaluates eagerly.
+     *
+     * @return true if doomed games end as soon as two filled lines have different sums
+     */
+    public boolean isEagerEvaluation() {
+        return this.eagerEvaluation;
+    }
+
     /**
      * Makes a move on this model's grid. Notifies all listeners of the updated status after the move has been made if
-     * the coordinates of the move are valid (i.e. within the grid's size and not on an occupied square), otherwise the
-     * method returns immediately without making any changes to this model.
+     * the coordinates of the move are valid (i.e. within the grid's size and not on an occupied square) and the game is
+     * still in progress, otherwise the method returns immediately without making any changes to this model.
      *
      * @param x      The x-coordinate of the move that is to be made
      * @param y      The y-coordinate of the move that is to be made
      * @param number The number that is to be placed on the square outlined by the provided x and y coordinates
+     * @throws RejectedExecutionException If events are dispatched asynchronously and the executor does not accept the
+     *                                    drain. The move has already been made, and its event stays buffered until the
+     *                                    drain is submitted again with the next event
      */
+    @Override
     public void play(int x, int y, int number) {
-        if (x < 0 || y < 0 || x >= SIZE || y >= SIZE || occupiedGrid[x][y]) {
+        long start = metrics == null ? 0 : System.nanoTime();
+
+        if (status != Status.IN_PROGRESS) {
+            reject(MoveResult.GAME_OVER);
+            return;
+        }
+
+        if (x < 0 || y < 0 || x >= size || y >= size) {
+            reject(MoveResult.OUT_OF_RANGE);
+            return;
+        }
+
+        int index = x * size + y;
+
+        if (grid.isOccupied(index)) {
+            reject(MoveResult.OCCUPIED);
             return;
         }
 
-        this.numberGrid[x][y] = number;
-        this.occupiedGrid[x][y] = true;
+        this.moveHistory.record(index, number);
+        place(index, number);
+
+        if (metrics != null) {
+            metrics.movePlayed();
+            metrics.playTimed(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Places numbers on every free square of this model's grid at once, as if each of them had been played in row-major
+     * order, and notifies all listeners with a single event of type BULK, which holds every square that was filled.
+     * Squares that are already occupied keep their numbers. Each placed number can be undone on its own. If the model
+     * evaluates eagerly and the grid can no longer become a magic square, no more numbers are placed once that is
+     * known.
+     *
+     * @param numbers The numbers of the grid, indexed by x-coordinate then y-coordinate
+     * @return the number of squares that were filled
+     * @throws IllegalArgumentException If the numbers do not form a grid of this model's size
+     */
+    public int playAll(int[][] numbers) {
+        if (numbers.length != size) {
+            throw new IllegalArgumentException("The grid's size does not match the model's size");
+        }
+        for (int[] row : numbers) {
+            if (row.length != size) {
+                throw new IllegalArgumentException("The grid's size does not match the model's size");
+            }
+        }
+
+        if (status != Status.IN_PROGRESS) {
+            reject(MoveResult.GAME_OVER);
+            return 0;
+        }
+
+        int placed = 0;
+        int lastIndex = -1;
+        int[] filledIndices = needsEvents() ? new int[numFreeSquares] : null; // Only events list the filled squares
+
+        fill:
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int index = i * size + j;
+                if (grid.isOccupied(index)) {
+                    continue;
+                }
+
+                if (metrics != null) {
+                    metrics.movePlayed();
+                }
+
+                this.moveHistory.record(index, numbers[i][j]);
+                this.grid.set(index, numbers[i][j]);
+                this.numFreeSquares--;
+                this.lineSums.place(i, j, numbers[i][j]);
+                if (filledIndices != null) {
+                    filledIndices[placed] = index;
+                }
+                placed++;
+                lastIndex = index;
+
+                if (eagerEvaluation && numFreeSquares > 0 && lineSums.conflictsAt(i, j) && linesMustAgree) {
+                    this.status = Status.NO_VICTORY;
+                    break fill;
+                }
+            }
+        }
+
+        if (placed == 0) {
+            return 0;
+        }
+
+        if (numFreeSquares == 0) {
+            updateStatus();
+        }
+
+        if (filledIndices != null && placed < filledIndices.length) {
+            filledIndices = Arrays.copyOf(filledIndices, placed);
+        }
+        notifyListeners(lastIndex / size, lastIndex % size, placed, EventType.BULK, filledIndices);
+        return placed;
+    }
+
+    /**
+     * Records a rejected move if metrics are being recorded.
+     *
+     * @param reason The reason the move was rejected
+     */
+    private void reject(MoveResult reason) {
+        if (metrics != null) {
+            metrics.moveRejected(reason);
+        }
+    }
+
+    /**
+     * Undoes the last move made on this model's grid (since the last reset), freeing its square again. Notifies all
+     * listeners with an event of type UNDO holding the square and the number that was removed.
+     *
+     * @return true if a move was undone, false if there was no move to undo
+     */
+    public boolean undo() {
+        if (!moveHistory.canUndo()) {
+            return false;
+        }
+
+        long move = moveHistory.undo();
+        int index = MoveHistory.indexOf(move);
+        int number = MoveHistory.numberOf(move);
+        int x = index / size;
+        int y = index % size;
+
+        this.grid.free(index);
+        this.numFreeSquares++;
+        this.lineSums.remove(x, y, number);
+        this.status = Status.IN_PROGRESS; // A grid with a free square is in progress, unless it is known to be doomed
+        endIfDoomed();
+
+        notifyListeners(x, y, number, EventType.UNDO, null);
+        return true;
+    }
+
+    /**
+     * Redoes the last move undone on this model's grid, as long as no other move has been made since and the game is
+     * still in progress. Notifies all listeners as if the move was made again.
+     *
+     * @return true if a move was redone, false if there was no move to redo
+     */
+    public boolean redo() {
+        if (status != Status.IN_PROGRESS || !moveHistory.canRedo()) {
+            return false;
+        }
+
+        long move = moveHistory.redo();
+        place(MoveHistory.indexOf(move), MoveHistory.numberOf(move));
+        return true;
+    }
+
+    /**
+     * Takes a snapshot of this model's grid and status. This takes constant time for the grid itself, which is shared
+     * with the snapshot until either of them changes (only the chunks that change are copied).
+     *
+     * @return the snapshot of this model
+     */
+    public MagicSquareSnapshot snapshot() {
+        return new MagicSquareSnapshot(size, grid.snapshot(), new LineSums(lineSums), numFreeSquares, status);
+    }
+
+    /**
+     * Restores this model's grid and status to those of a snapshot. The undo history is cleared, and listeners are not
+     * notified (as with a reset).
+     *
+     * @param snapshot The snapshot to restore, which must have been taken from a model of the same size
+     * @throws IllegalArgumentException If the snapshot was taken from a model of a different size
+     */
+    public void restore(MagicSquareSnapshot snapshot) {
+        if (snapshot.getSize() != size) {
+            throw new IllegalArgumentException("The snapshot's size does not match the model's size");
+        }
+
+        this.grid = snapshot.getGrid().copyOfFrozen();
+        this.lineSums = new LineSums(snapshot.getLineSums());
+        this.numFreeSquares = snapshot.getNumFreeSquares();
+        this.status = snapshot.getStatus();
+        this.moveHistory.clear();
+        endIfDoomed();
+    }
+
+    /**
+     * Ends the game if this model evaluates eagerly and two filled lines already disagree, going over every line. The
+     * line sums need such a scan before they can detect conflicts move by move again.
+     */
+    private void endIfDoomed() {
+        if (eagerEvaluation && lineSums.scanForConflicts() && linesMustAgree && status == Status.IN_PROGRESS) {
+            this.status = Status.NO_VICTORY;
+        }
+    }
+
+    /**
+     * Places a number on a free square, updates the status of the game and notifies all listeners of the move.
+     *
+     * @param index  The index of the square
+     * @param number The number to place
+     */
+    private void place(int index, int number) {
+        int x = index / size;
+        int y = index % size;
+
+        this.grid.set(index, number);
         this.numFreeSquares--;
 
+        // Keep the line sums up to date so that the final verdict does not require another pass over the grid
+        this.lineSums.place(x, y, number);
+
         if (numFreeSquares == 0) { // Update the status when all squares have been filled
             updateStatus();
+        } else if (eagerEvaluation && lineSums.conflictsAt(x, y) && linesMustAgree) { // End the game if it is doomed
+            this.status = Status.NO_VICTORY;
+        }
+
+        notifyListeners(x, y, number, EventType.MOVE, null);
+    }
+
+    /**
+     * Notifies all listeners of a change to a square, timing the notification if metrics are being recorded.
+     *
+     * @param x             The x-coordinate of the square
+     * @param y             The y-coordinate of the square
+     * @param number        The number of the square
+     * @param type          The kind of change
+     * @param filledIndices The indices of the squares filled by a change of type BULK, or null
+     */
+    private void notifyListeners(int x, int y, int number, EventType type, int[] filledIndices) {
+        if (metrics == null) {
+            dispatch(x, y, number, type, filledIndices);
+            return;
+        }
+
+        long start = System.nanoTime();
+        dispatch(x, y, number, type, filledIndices);
+        metrics.listenersNotified(System.nanoTime() - start);
+    }
+
+    /**
+     * Hands a change to a square to all listeners. No MagicSquareEvent is created unless a listener needs one, so a
+     * model with only packed listeners (or none at all) does not allocate anything per move.
+     *
+     * @param x             The x-coordinate of the square
+     * @param y             The y-coordinate of the square
+     * @param number        The number of the square
+     * @param type          The kind of change
+     * @param filledIndices The indices of the squares filled by a change of type BULK, which are only needed if a
+     *                      MagicSquareEvent is created, or null
+     */
+    private void dispatch(int x, int y, int number, EventType type, int[] filledIndices) {
+        if (!packedMagicSquareListenerList.isEmpty()) {
+            long packedEvent = PackedMagicSquareEvent.pack(x, y, number, status, type);
+            for (PackedMagicSquareListener packedMagicSquareListener : packedMagicSquareListenerList) {
+                packedMagicSquareListener.handleMagicSquareEvent(packedEvent);
+            }
+        }
+
+        if (!needsEvents()) {
+            return;
+        }
+
+        MagicSquareEvent event;
+        if (filledIndices == null) {
+            event = new MagicSquareEvent(x, y, number, status, size, type);
+        } else { // Read the filled numbers now, since listeners may be notified after the grid has changed again
+            int[] filledNumbers = new int[filledIndices.length];
+            for (int k = 0; k < filledIndices.length; k++) {
+                filledNumbers[k] = grid.getNumber(filledIndices[k]);
+            }
+            event = new MagicSquareEvent(status, size, filledIndices, filledNumbers);
         }
 
-        MagicSquareEvent event = new MagicSquareEvent(x, y, number, status);
+        if (asyncEventDispatcher != null) {
+            asyncEventDispatcher.dispatch(event);
+            return;
+        }
 
         for (MagicSquareListener magicSquareListener : magicSquareListenerList) {
             magicSquareListener.handleMagicSquareEvent(event);
         }
+
+        if (!magicSquareBatchListenerList.isEmpty()) {
+            List<MagicSquareEvent> batch = Collections.singletonList(event);
+            for (MagicSquareBatchListener magicSquareBatchListener : magicSquareBatchListenerList) {
+                magicSquareBatchListener.handleMagicSquareEvents(batch);
+            }
+        }
+    }
+
+    /**
+     * Returns whether changes must be handed to listeners as MagicSquareEvents, rather than only as packed events.
+     *
+     * @return true if events are dispatched asynchronously or a listener receives MagicSquareEvents
+     */
+    private boolean needsEvents() {
+        return asyncEventDispatcher != null || !magicSquareListenerList.isEmpty()
+                || !magicSquareBatchListenerList.isEmpty();
     }
 
     /**
-     * Resets this model to default configurations.
+     * Resets this model to default configurations. The undo history is cleared. This does not allocate, and the grid
+     * is freed in constant time, so a model can be reused for many games.
      */
+    @Override
     public void reset() {
+        long start = metrics == null ? 0 : System.nanoTime();
+
         /*
          * There is no need to reset the grid of integers as a winner will only
-         * be determined when all values have been overwritten by new values from the user.
+         * be determined when all values have been overwritten by new values from the user,
+         * and clearing the grid only moves its occupancy on to the next epoch.
+         * The line sums, however, are accumulated as moves are made and must start over.
          */
+        this.lineSums.clear();
         this.status = Status.IN_PROGRESS;
-        this.numFreeSquares = SIZE * SIZE;
-        this.occupiedGrid = new boolean[SIZE][SIZE];
+        this.numFreeSquares = size * size;
+        this.grid.clear();
+        this.moveHistory.clear();
+
+        if (metrics != null) {
+            metrics.gameReset(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the size (order) of this model's grid.
+     *
+     * @return the size of this model's grid
+     */
+    @Override
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether the square at the provided coordinates is occupied.
+     *
+     * @param x The x-coordinate of the square
+     * @param y The y-coordinate of the square
+     * @return true if a number has been placed on the square, false otherwise
+     * @throws IndexOutOfBoundsException If the coordinates are outside of the grid
+     */
+    @Override
+    public boolean isOccupied(int x, int y) {
+        return this.grid.isOccupied(index(x, y));
+    }
+
+    /**
+     * Returns the number placed on the square at the provided coordinates. This is only meaningful if the square is
+     * occupied.
+     *
+     * @param x The x-coordinate of the square
+     * @param y The y-coordinate of the square
+     * @return the number placed on the square
+     * @throws IndexOutOfBoundsException If the coordinates are outside of the grid
+     */
+    @Override
+    public int getNumber(int x, int y) {
+        return this.grid.getNumber(index(x, y));
     }
 
     /**
@@ -108,52 +658,65 @@ public class MagicSquareModel {
      *
      * @return this model's status
      */
+    @Override
     public Status getStatus() {
         return this.status;
     }
 
     /**
-     * Updates the status of this model based on the underlying grid representing the game's state. Intended to be used
-     * only when the game has been completed (all squares filled in).
+     * Returns the index in the flat grid of the square at the provided coordinates.
+     *
+     * @param x The x-coordinate of the square
+     * @param y The y-coordinate of the square
+     * @return the index of the square
+     * @throws IndexOutOfBoundsException If the coordinates are outside of the grid
      */
-    private void updateStatus() {
-        Set<Integer> allSums = new HashSet<>(); // This set will keep track of all individual sums across all rows, columns, and diagonals
-
-        List<Integer> integerListRow = new ArrayList<>();       // This list will be used to add numbers along rows
-        List<Integer> integerListColumn = new ArrayList<>();    // This list will be used to add characters along columns
-        List<Integer> integerListDiagonal = new ArrayList<>();  // This list will be used to add characters along the two diagonals
-
-        for (int i = 0; i < SIZE; i++) {        // Here, characters in each set of rows and column are added to the corresponding lists
-            for (int j = 0; j < SIZE; j++) {
-                integerListRow.add(this.numberGrid[i][j]);
-                integerListColumn.add(this.numberGrid[j][i]);
-            }
-
-            allSums.add(integerListRow.stream().mapToInt(Integer::intValue).sum());     // This adds the sum of the numbers in the row to the set
-            allSums.add(integerListColumn.stream().mapToInt(Integer::intValue).sum());  // This adds the sum of the numbers in the column to the set
-
-            integerListRow.clear();     // Clear both lists so they can be used for the next for loop iteration
-            integerListColumn.clear();
+    private int index(int x, int y) {
+        if (x < 0 || y < 0 || x >= size || y >= size) {
+            throw new IndexOutOfBoundsException("(" + x + ", " + y + ") is outside of the grid");
         }
+        return x * size + y;
+    }
 
-        // The same idea applies here to the two following checks for diagonals
-        for (int i = 0; i < SIZE; i++) {
-            integerListDiagonal.add(this.numberGrid[i][i]);  // This puts all numbers along the negative-sloped diagonal in the list
+    /**
+     * Updates the status of this model based on the line sums accumulated while the game was being played. Intended to
+     * be used only when the game has been completed (all squares filled in).
+     */
+    private void updateStatus() {
+        if (metrics == null) {
+            this.status = evaluate();
+            return;
         }
 
-        allSums.add(integerListDiagonal.stream().mapToInt(Integer::intValue).sum()); // This adds the sum of the numbers in the negative-sloped diagonal to the list
-        integerListDiagonal.clear();    // Clear the list so it can be used for the last remaining diagonal
+        long start = System.nanoTime();
+        this.status = evaluate();
+        metrics.statusEvaluated(status, System.nanoTime() - start);
+    }
 
-        for (int i = 0; i < SIZE; i++) {
-            integerListDiagonal.add(this.numberGrid[SIZE - 1 - i][i]);  // This puts all numbers along the positive-sloped diagonal in the list
+    /**
+     * Determines the outcome of the filled grid. The default rule only needs the line sums, while other rules analyze
+     * the whole grid.
+     *
+     * @return VICTORY if the grid has every required property, NO_VICTORY otherwise
+     */
+    private Status evaluate() {
+        if (requiredProperties.size() == 1 && requiredProperties.contains(MagicProperty.MAGIC)) {
+            return this.lineSums.evaluate();
         }
+        return MagicSquareAnalyzer.analyze(cells(), size).containsAll(requiredProperties) ? Status.VICTORY
+                : Status.NO_VICTORY;
+    }
 
-        allSums.add(integerListDiagonal.stream().mapToInt(Integer::intValue).sum()); // This adds the sum of the numbers in the positive-sloped diagonal to the set
-
-        if (allSums.size() == 1) {  // If all sums that were added to the set are the same (1 element in the set), then it is a victory
-            this.status = Status.VICTORY;
-        } else {    // Otherwise it is not a victory
-            this.status = Status.NO_VICTORY;
+    /**
+     * Copies the numbers of the grid into a flat, row-major array.
+     *
+     * @return the numbers of the grid
+     */
+    private int[] cells() {
+        int[] cells = new int[size * size];
+        for (int index = 0; index < cells.length; index++) {
+            cells[index] = grid.getNumber(index);
         }
+        return cells;
     }
 }
@@ -0,0 +1,111 @@
+package model;
+
+/**
+ * This class represents an immutable snapshot of the grid and status of a MagicSquareModel, taken with
+ * {@link MagicSquareModel#snapshot()} and restored with {@link MagicSquareModel#restore(MagicSquareSnapshot)}. Snapshots
+ * share the unchanged parts of the grid with their model and with each other, so taking many snapshots of a large
+ * grid does not copy the grid each time.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareSnapshot {
+    /**
+     * The size of the grid.
+     */
+    private final int size;
+
+    /**
+     * The numbers and occupancy of the grid. This grid is never written to, so that it can be shared.
+     */
+    private final ChunkedGrid grid;
+
+    /**
+     * The line sums of the grid.
+     */
+    private final LineSums lineSums;
+
+    /**
+     * The number of free squares.
+     */
+    private final int numFreeSquares;
+
+    /**
+     * The status of the game.
+     */
+    private final Status status;
+
+    MagicSquareSnapshot(int size, ChunkedGrid grid, LineSums lineSums, int numFreeSquares, Status status) {
+        this.size = size;
+        this.grid = grid;
+        this.lineSums = lineSums;
+        this.numFreeSquares = numFreeSquares;
+        this.status = status;
+    }
+
+    /**
+     * Returns the size of the grid.
+     *
+     * @return the size of the grid
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the status of the game when the snapshot was taken.
+     *
+     * @return the status of the game
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the number of free squares when the snapshot was taken.
+     *
+     * @return the number of free squares
+     */
+    public int getNumFreeSquares() {
+        return numFreeSquares;
+    }
+
+    /**
+     * Returns whether the square at the provided coordinates was occupied.
+     *
+     * @param x The x-coordinate of the square
+     * @param y The y-coordinate of the square
+     * @return true if a number had been placed on the square, false otherwise
+     * @throws IndexOutOfBoundsException If the coordinates are outside of the grid
+     */
+    public boolean isOccupied(int x, int y) {
+        return grid.isOccupied(index(x, y));
+    }
+
+    /**
+     * Returns the number placed on the square at the provided coordinates. This is only meaningful if the square was
+     * occupied.
+     *
+     * @param x The x-coordinate of the square
+     * @param y The y-coordinate of the square
+     * @return the number placed on the square
+     * @throws IndexOutOfBoundsException If the coordinates are outside of the grid
+     */
+    public int getNumber(int x, int y) {
+        return grid.getNumber(index(x, y));
+    }
+
+    ChunkedGrid getGrid() {
+        return grid;
+    }
+
+    LineSums getLineSums() {
+        return lineSums;
+    }
+
+    private int index(int x, int y) {
+        if (x < 0 || y < 0 || x >= size || y >= size) {
+            throw new IndexOutOfBoundsException("(" + x + ", " + y + ") is outside of the grid");
+        }
+        return x * size + y;
+    }
+}
@@ -0,0 +1,516 @@
+package model;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * This class verifies whole, already-filled grids without going through a MagicSquareModel, so that no events are
+ * created and no listeners are notified. It applies the same rule as the model, so a grid that wins through the game
+ * also wins here. Batches of grids, as well as single large grids, can be verified in parallel on a fork-join pool.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareVerifier {
+    /**
+     * The number of grids below which a batch is verified on the current thread instead of being split further.
+     */
+    private static final int BATCH_THRESHOLD = 256;
+
+    /**
+     * The number of squares below which a single grid is verified on the current thread, as splitting a smaller grid
+     * costs more than it saves.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 18;
+
+    /**
+     * The number of tiles of rows per thread of the pool that a large grid is split into, so that threads finishing
+     * early can take work from the others.
+     */
+    private static final int TILES_PER_THREAD = 4;
+
+    /**
+     * The pool used to verify batches of grids.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a verifier that verifies batches on the common fork-join pool (which uses all available cores).
+     */
+    public MagicSquareVerifier() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a verifier that verifies batches on the provided pool.
+     *
+     * @param pool The pool on which batches should be verified
+     */
+    public MagicSquareVerifier(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Verifies a single grid, given as an array of rows.
+     *
+     * @param grid The grid to verify, which must be square
+     * @return VICTORY if the grid is a magic square, NO_VICTORY otherwise
+     * @throws IllegalArgumentException If the grid is empty or not square
+     */
+    public static Status verify(int[][] grid) {
+        int size = grid.length;
+        if (size == 0) {
+            throw new IllegalArgumentException("The grid is empty");
+        }
+
+        LineSums lineSums = new LineSums(size);
+        for (int i = 0; i < size; i++) {
+            int[] row = grid[i];
+            checkRow(i, row.length, size);
+            for (int j = 0; j < size; j++) {
+                lineSums.add(i, j, row[j]);
+            }
+        }
+
+        return lineSums.evaluate();
+    }
+
+    /**
+     * Verifies a single grid of long numbers, given as an array of rows. The sums are accumulated as longs with overflow
+     * checks, and only if a sum overflows is the grid verified again with arbitrary-precision sums, so the verdict is
+     * always exact.
+     *
+     * @param grid The grid to verify, which must be square
+     * @return VICTORY if the grid is a magic square, NO_VICTORY otherwise
+     * @throws IllegalArgumentException If the grid is empty or not square
+     */
+    public static Status verify(long[][] grid) {
+        int size = grid.length;
+        if (size == 0) {
+            throw new IllegalArgumentException("The grid is empty");
+        }
+
+        // Check every row first, as the sums may overflow before the last row is reached
+        for (int i = 0; i < size; i++) {
+            checkRow(i, grid[i].length, size);
+        }
+
+        try {
+            LineSums lineSums = new LineSums(size);
+            for (int i = 0; i < size; i++) {
+                long[] row = grid[i];
+                for (int j = 0; j < size; j++) {
+                    lineSums.addExact(i, j, row[j]);
+                }
+            }
+            return lineSums.evaluate();
+        } catch (ArithmeticException e) {
+            return verifyExact(grid);
+        }
+    }
+
+    /**
+     * Verifies a single grid of arbitrary-precision numbers, given as an array of rows.
+     *
+     * @param grid The grid to verify, which must be square
+     * @return VICTORY if the grid is a magic square, NO_VICTORY otherwise
+     * @throws IllegalArgumentException If the grid is empty or not square
+     */
+    public static Status verify(BigInteger[][] grid) {
+        if (grid.length == 0) {
+            throw new IllegalArgumentException("The grid is empty");
+        }
+
+        // Check every row first, as a number too large for a long may be found before the last row is reached
+        for (int i = 0; i < grid.length; i++) {
+            checkRow(i, grid[i].length, grid.length);
+        }
+
+        long[][] values = new long[grid.length][grid.length];
+        for (int i = 0; i < grid.length; i++) {
+            for (int j = 0; j < grid.length; j++) {
+                if (grid[i][j].bitLength() > 63) {
+                    return verifyBig(grid);
+                }
+                values[i][j] = grid[i][j].longValue();
+            }
+        }
+
+        return verify(values);
+    }
+
+    /**
+     * Verifies a single grid stored as a flat, row-major array, where the square at (x, y) is at index x * size + y.
+     *
+     * @param cells The squares of the grid
+     * @param size  The size of the grid
+     * @return VICTORY if the grid is a magic square, NO_VICTORY otherwise
+     * @throws IllegalArgumentException If the number of squares does not match the size
+     */
+    public static Status verify(int[] cells, int size) {
+        if (size < 1 || cells.length != (long) size * size) {
+            throw new IllegalArgumentException("Expected " + size + " x " + size + " squares, got " + cells.length);
+        }
+
+        LineSums lineSums = new LineSums(size);
+        for (int i = 0, index = 0; i < size; i++) {
+            for (int j = 0; j < size; j++, index++) {
+                lineSums.add(i, j, cells[index]);
+            }
+        }
+
+        return lineSums.evaluate();
+    }
+
+    /**
+     * Verifies a single large grid, given as an array of rows, splitting its rows into tiles that are summed in parallel
+     * on this verifier's pool. Grids with fewer than PARALLEL_THRESHOLD squares are summed on the current thread.
+     *
+     * @param grid The grid to verify, which must be square
+     * @return VICTORY if the grid is a magic square, NO_VICTORY otherwise
+     * @throws IllegalArgumentException If the grid is empty or not square
+     */
+    public Status verifyLarge(int[][] grid) {
+        int size = grid.length;
+        if (size == 0) {
+            throw new IllegalArgumentException("The grid is empty");
+        }
+        for (int i = 0; i < size; i++) {
+            checkRow(i, grid[i].length, size);
+        }
+
+        return sumLines(grid, null, size);
+    }
+
+    /**
+     * Verifies a single large grid stored as a flat, row-major array, splitting its rows into tiles that are summed in
+     * parallel on this verifier's pool. Grids with fewer than PARALLEL_THRESHOLD squares are summed on the current
+     * thread.
+     *
+     * @param cells The squares of the grid
+     * @param size  The size of the grid
+     * @return VICTORY if the grid is a magic square, NO_VICTORY otherwise
+     * @throws IllegalArgumentException If the number of squares does not match the size
+     */
+    public Status verifyLarge(int[] cells, int size) {
+        if (size < 1 || cells.length != (long) size * size) {
+            throw new IllegalArgumentException("Expected " + size + " x " + size + " squares, got " + cells.length);
+        }
+
+        return sumLines(null, cells, size);
+    }
+
+    /**
+     * Sums the lines of a grid, given either as an array of rows or as a flat array, and determines its outcome. Small
+     * grids are summed as a single tile on the current thread, while large grids are split into a few tiles for every
+     * thread of the pool.
+     */
+    private Status sumLines(int[][] grid, int[] cells, int size) {
+        if ((long) size * size < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+            return new LineSumTask(grid, cells, size, 0, size, size).compute().evaluate();
+        }
+
+        int tileRows = Math.max(1, size / (pool.getParallelism() * TILES_PER_THREAD));
+        return pool.invoke(new LineSumTask(grid, cells, size, 0, size, tileRows)).evaluate();
+    }
+
+    /**
+     * Verifies a grid of long numbers with arbitrary-precision sums.
+     */
+    private static Status verifyExact(long[][] grid) {
+        BigInteger[][] values = new BigInteger[grid.length][grid.length];
+        for (int i = 0; i < grid.length; i++) {
+            for (int j = 0; j < grid.length; j++) {
+                values[i][j] = BigInteger.valueOf(grid[i][j]);
+            }
+        }
+        return verifyBig(values);
+    }
+
+    /**
+     * Verifies a grid of arbitrary-precision numbers with arbitrary-precision sums, applying the same rule as LineSums:
+     * every row, column and both diagonals must share the same sum.
+     */
+    private static Status verifyBig(BigInteger[][] grid) {
+        int size = grid.length;
+        BigInteger negativeDiagonal = BigInteger.ZERO;
+        BigInteger positiveDiagonal = BigInteger.ZERO;
+
+        for (int i = 0; i < size; i++) {
+            negativeDiagonal = negativeDiagonal.add(grid[i][i]);
+            positiveDiagonal = positiveDiagonal.add(grid[size - 1 - i][i]);
+        }
+        if (!negativeDiagonal.equals(positiveDiagonal)) {
+            return Status.NO_VICTORY;
+        }
+
+        for (int i = 0; i < size; i++) {
+            BigInteger rowSum = BigInteger.ZERO;
+            BigInteger columnSum = BigInteger.ZERO;
+            for (int j = 0; j < size; j++) {
+                rowSum = rowSum.add(grid[i][j]);
+                columnSum = columnSum.add(grid[j][i]);
+            }
+            if (!rowSum.equals(negativeDiagonal) || !columnSum.equals(negativeDiagonal)) {
+                return Status.NO_VICTORY;
+            }
+        }
+
+        return Status.VICTORY;
+    }
+
+    /**
+     * Checks that a row of a grid has as many squares as the grid has rows.
+     *
+     * @param row    The index of the row
+     * @param length The number of squares of the row
+     * @param size   The number of rows of the grid
+     * @throws IllegalArgumentException If the row has the wrong number of squares
+     */
+    private static void checkRow(int row, int length, int size) {
+        if (length != size) {
+            throw new IllegalArgumentException("The grid is not square (row " + row + " has " + length
+                    + " squares, expected " + size + ")");
+        }
+    }
+
+    /**
+     * Verifies a stream of grids. The grids are verified lazily as the returned stream is consumed, and in parallel if
+     * the provided stream is parallel.
+     *
+     * @param grids The grids to verify
+     * @return A stream of the statuses of the grids, in the same order as the grids
+     */
+    public static Stream<Status> verify(Stream<int[][]> grids) {
+        return grids.map(MagicSquareVerifier::verify);
+    }
+
+    /**
+     * Verifies a batch of grids in parallel on this verifier's pool.
+     *
+     * @param grids The grids to verify
+     * @return An array containing the status of each grid, at the same index as the grid in the provided list
+     */
+    public Status[] verifyAll(List<int[][]> grids) {
+        Status[] statuses = new Status[grids.size()];
+        this.pool.invoke(new VerifyTask(grids, statuses, 0, grids.size()));
+        return statuses;
+    }
+
+    /**
+     * The sums of the lines of a tile of consecutive rows of a grid. The rows of a tile are complete, so only their
+     * common sum needs to be kept, while the column and diagonal sums are partial until every tile has been merged.
+     */
+    private static class PartialSums {
+        /**
+         * The sums of the squares of the tile in each column, indexed by y-coordinate.
+         */
+        private final long[] columnSums;
+
+        /**
+         * The sum of the squares of the tile on the negative-sloped diagonal (where x == y).
+         */
+        private long negativeDiagonal;
+
+        /**
+         * The sum of the squares of the tile on the positive-sloped diagonal (where x + y == size - 1).
+         */
+        private long positiveDiagonal;
+
+        /**
+         * The sum of the first row of the tile, which every other row must share.
+         */
+        private long rowSum;
+
+        /**
+         * Whether every row of the tile has the same sum.
+         */
+        private boolean rowsAgree = true;
+
+        /**
+         * Constructs the sums of an empty tile of a grid of the provided size.
+         *
+         * @param size The size of the grid
+         */
+        PartialSums(int size) {
+            this.columnSums = new long[size];
+        }
+
+        /**
+         * Adds the sums of the tile that follows this one to the sums of this tile.
+         */
+        PartialSums merge(PartialSums next) {
+            this.rowsAgree &= next.rowsAgree && next.rowSum == rowSum;
+            long[] nextColumnSums = next.columnSums;
+            for (int j = 0; j < columnSums.length; j++) {
+                columnSums[j] += nextColumnSums[j];
+            }
+            this.negativeDiagonal += next.negativeDiagonal;
+            this.positiveDiagonal += next.positiveDiagonal;
+            return this;
+        }
+
+        /**
+         * Determines the outcome of the grid once the sums of all of its tiles have been merged, applying the same rule
+         * as LineSums.
+         */
+        Status evaluate() {
+            if (!rowsAgree || negativeDiagonal != rowSum || positiveDiagonal != rowSum) {
+                return Status.NO_VICTORY;
+            }
+            for (long columnSum : columnSums) {
+                if (columnSum != rowSum) {
+                    return Status.NO_VICTORY;
+                }
+            }
+            return Status.VICTORY;
+        }
+    }
+
+    /**
+     * A task summing the lines of a range of rows of a grid, given either as an array of rows or as a flat array,
+     * splitting itself in half until the range is no larger than a tile.
+     */
+    private static class LineSumTask extends RecursiveTask<PartialSums> {
+        /**
+         * The rows of the grid, or null if the grid is given as a flat array.
+         */
+        private final int[][] grid;
+
+        /**
+         * The squares of the grid in row-major order, or null if the grid is given as an array of rows.
+         */
+        private final int[] cells;
+
+        /**
+         * The size of the grid.
+         */
+        private final int size;
+
+        /**
+         * The first row summed by this task.
+         */
+        private final int from;
+
+        /**
+         * The row after the last one summed by this task.
+         */
+        private final int to;
+
+        /**
+         * The largest number of rows summed without splitting the task.
+         */
+        private final int tileRows;
+
+        /**
+         * Constructs a task summing a range of rows of a grid.
+         *
+         * @param grid     The rows of the grid, or null if the grid is given as a flat array
+         * @param cells    The squares of the grid in row-major order, or null if the grid is given as an array of rows
+         * @param size     The size of the grid
+         * @param from     The first row to sum
+         * @param to       The row after the last one to sum
+         * @param tileRows The largest number of rows summed without splitting the task
+         */
+        LineSumTask(int[][] grid, int[] cells, int size, int from, int to, int tileRows) {
+            this.grid = grid;
+            this.cells = cells;
+            this.size = size;
+            this.from = from;
+            this.to = to;
+            this.tileRows = tileRows;
+        }
+
+        @Override
+        protected PartialSums compute() {
+            if (to - from > tileRows) {
+                int middle = (from + to) >>> 1;
+                LineSumTask next = new LineSumTask(grid, cells, size, middle, to, tileRows);
+                next.fork();
+                PartialSums sums = new LineSumTask(grid, cells, size, from, middle, tileRows).compute();
+                return sums.merge(next.join());
+            }
+
+            PartialSums sums = new PartialSums(size);
+            long[] columnSums = sums.columnSums;
+
+            for (int i = from; i < to; i++) {
+                int[] row = grid != null ? grid[i] : cells;
+                int offset = grid != null ? 0 : i * size;
+
+                // A plain loop over consecutive squares, which the compiler can unroll and vectorize
+                long rowSum = 0;
+                for (int j = 0; j < size; j++) {
+                    int number = row[offset + j];
+                    rowSum += number;
+                    columnSums[j] += number;
+                }
+
+                sums.negativeDiagonal += row[offset + i];
+                sums.positiveDiagonal += row[offset + size - 1 - i];
+                if (i == from) {
+                    sums.rowSum = rowSum;
+                } else if (rowSum != sums.rowSum) {
+                    sums.rowsAgree = false;
+                }
+            }
+
+            return sums;
+        }
+    }
+
+    /**
+     * A task verifying a range of grids, splitting itself in half until the range is small enough.
+     */
+    private static class VerifyTask extends RecursiveAction {
+        /**
+         * The grids of the batch being verified.
+         */
+        private final List<int[][]> grids;
+
+        /**
+         * The statuses of the grids, filled in by the tasks.
+         */
+        private final Status[] statuses;
+
+        /**
+         * The index of the first grid verified by this task.
+         */
+        private final int from;
+
+        /**
+         * The index after the last grid verified by this task.
+         */
+        private final int to;
+
+        /**
+         * Constructs a task verifying a range of grids.
+         *
+         * @param grids    The grids of the batch
+         * @param statuses The array receiving the status of each grid
+         * @param from     The index of the first grid to verify
+         * @param to       The index after the last grid to verify
+         */
+        VerifyTask(List<int[][]> grids, Status[] statuses, int from, int to) {
+            this.grids = grids;
+            this.statuses = statuses;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    statuses[i] = verify(grids.get(i));
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new VerifyTask(grids, statuses, from, middle), new VerifyTask(grids, statuses, middle, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * This class records the moves made on a model so that they can be undone and redone. Each move is stored as a single
+ * long holding the index of its square and its number. Moves that have been undone are kept after the current position
+ * until a new move is made, at which point they can no longer be redone.
+ *
+ * @author Samuel Gamelin
+ */
+final class MoveHistory {
+    /**
+     * The moves, where the ones before the position have been made and the ones from the position to the limit have
+     * been undone.
+     */
+    private long[] moves = new long[16];
+
+    /**
+     * The number of moves that have been made and not undone.
+     */
+    private int position;
+
+    /**
+     * The number of moves recorded, including the ones that have been undone.
+     */
+    private int limit;
+
+    /**
+     * Records a new move, discarding every move that could have been redone.
+     *
+     * @param index  The index of the square of the move
+     * @param number The number of the move
+     */
+    void record(int index, int number) {
+        if (position == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+
+        moves[position++] = ((long) index << 32) | (number & 0xFFFFFFFFL);
+        limit = position;
+    }
+
+    /**
+     * Returns whether a move can be undone.
+     *
+     * @return true if a move has been made and not undone, false otherwise
+     */
+    boolean canUndo() {
+        return position > 0;
+    }
+
+    /**
+     * Returns whether a move can be redone.
+     *
+     * @return true if a move has been undone and no new move has been made since, false otherwise
+     */
+    boolean canRedo() {
+        return position < limit;
+    }
+
+    /**
+     * Moves back by one move.
+     *
+     * @return the move that is undone
+     */
+    long undo() {
+        return moves[--position];
+    }
+
+    /**
+     * Moves forward by one move.
+     *
+     * @return the move that is redone
+     */
+    long redo() {
+        return moves[position++];
+    }
+
+    /**
+     * Forgets every move.
+     */
+    void clear() {
+        position = 0;
+        limit = 0;
+    }
+
+    /**
+     * Returns the index of the square of a recorded move.
+     *
+     * @param move The move, as returned by {@link #undo()} or {@link #redo()}
+     * @return the index of the square of the move
+     */
+    static int indexOf(long move) {
+        return (int) (move >>> 32);
+    }
+
+    /**
+     * Returns the number of a recorded move.
+     *
+     * @param move The move, as returned by {@link #undo()} or {@link #redo()}
+     * @return the number of the move
+     */
+    static int numberOf(long move) {
+        return (int) move;
+    }
+}
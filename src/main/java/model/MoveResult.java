@@ -0,0 +1,29 @@
+package model;
+
+/**
+ * This enumeration represents the outcome of an attempt to make a move on a model.
+ *
+ * @author Samuel Gamelin
+ */
+public enum MoveResult {
+    /**
+     * The move was made.
+     */
+    ACCEPTED,
+
+    /**
+     * The move was rejected because its coordinates are outside of the grid.
+     */
+    OUT_OF_RANGE,
+
+    /**
+     * The move was rejected because the square was already occupied, possibly by a move made at the same time from
+     * another thread.
+     */
+    OCCUPIED,
+
+    /**
+     * The move was rejected because the game has already ended.
+     */
+    GAME_OVER
+}
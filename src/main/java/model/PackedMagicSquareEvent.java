@@ -0,0 +1,127 @@
+package model;
+
+/**
+ * This class encodes the information of a MagicSquareEvent (the position of the move, the number that was added and
+ * the resulting status of the game) into a single long, so that moves can be reported to a
+ * {@link PackedMagicSquareListener} without allocating an object per move.
+ * <p>
+ * From the most significant bit down, a packed event holds the x-coordinate (14 bits), the y-coordinate (14 bits), the
+ * ordinal of the event type (2 bits), the ordinal of the status (2 bits) and the number (32 bits).
+ * Coordinates must therefore be less than {@link #MAX_SIZE}.
+ *
+ * @author Samuel Gamelin
+ */
+public final class PackedMagicSquareEvent {
+    /**
+     * The largest grid size whose coordinates fit in a packed event.
+     */
+    public static final int MAX_SIZE = 1 << 14;
+
+    private static final int X_SHIFT = 50;
+    private static final int Y_SHIFT = 36;
+    private static final int TYPE_SHIFT = 34;
+    private static final int STATUS_SHIFT = 32;
+    private static final long COORDINATE_MASK = MAX_SIZE - 1;
+
+    /**
+     * The statuses, indexed by ordinal, cached to avoid copying the array on every decoding.
+     */
+    private static final Status[] STATUSES = Status.values();
+
+    /**
+     * The event types, indexed by ordinal.
+     */
+    private static final EventType[] TYPES = EventType.values();
+
+    private PackedMagicSquareEvent() {
+    }
+
+    /**
+     * Encodes a move into a packed event.
+     *
+     * @param x      The x-coordinate of the move, between 0 and MAX_SIZE - 1
+     * @param y      The y-coordinate of the move, between 0 and MAX_SIZE - 1
+     * @param number The number that was added
+     * @param status The status of the game after the move
+     * @return the packed event
+     */
+    public static long pack(int x, int y, int number, Status status) {
+        return pack(x, y, number, status, EventType.MOVE);
+    }
+
+    /**
+     * Encodes a change of the provided type into a packed event.
+     *
+     * @param x      The x-coordinate of the square that changed, between 0 and MAX_SIZE - 1
+     * @param y      The y-coordinate of the square that changed, between 0 and MAX_SIZE - 1
+     * @param number The number of the square
+     * @param status The status of the game after the change
+     * @param type   The kind of change
+     * @return the packed event
+     */
+    public static long pack(int x, int y, int number, Status status, EventType type) {
+        return ((long) x << X_SHIFT) | ((long) y << Y_SHIFT) | ((long) type.ordinal() << TYPE_SHIFT)
+                | ((long) status.ordinal() << STATUS_SHIFT) | (number & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the x-coordinate of a packed event.
+     *
+     * @param event The packed event
+     * @return the x-coordinate of the move
+     */
+    public static int getX(long event) {
+        return (int) ((event >>> X_SHIFT) & COORDINATE_MASK);
+    }
+
+    /**
+     * Returns the y-coordinate of a packed event.
+     *
+     * @param event The packed event
+     * @return the y-coordinate of the move
+     */
+    public static int getY(long event) {
+        return (int) ((event >>> Y_SHIFT) & COORDINATE_MASK);
+    }
+
+    /**
+     * Returns the number of a packed event.
+     *
+     * @param event The packed event
+     * @return the number that was added
+     */
+    public static int getNumber(long event) {
+        return (int) event;
+    }
+
+    /**
+     * Returns the status of a packed event.
+     *
+     * @param event The packed event
+     * @return the status of the game after the move
+     */
+    public static Status getStatus(long event) {
+        return STATUSES[(int) ((event >>> STATUS_SHIFT) & 0x3)];
+    }
+
+    /**
+     * Returns the type of a packed event.
+     *
+     * @param event The packed event
+     * @return the kind of change
+     */
+    public static EventType getType(long event) {
+        return TYPES[(int) ((event >>> TYPE_SHIFT) & 0x3)];
+    }
+
+    /**
+     * Decodes a packed event into a MagicSquareEvent.
+     *
+     * @param event The packed event
+     * @return the corresponding MagicSquareEvent
+     */
+    public static MagicSquareEvent toEvent(long event) {
+        return new MagicSquareEvent(getX(event), getY(event), getNumber(event), getStatus(event), MAX_SIZE,
+                getType(event));
+    }
+}
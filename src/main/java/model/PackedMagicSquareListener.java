@@ -0,0 +1,12 @@
+package model;
+
+/**
+ * This interface represents the behaviour of a listener of the MagicSquare game that receives each move encoded as a
+ * single long (see {@link PackedMagicSquareEvent}) rather than as a MagicSquareEvent, so that no object is allocated per
+ * move. Packed listeners are always notified on the thread making the move.
+ *
+ * @author Samuel Gamelin
+ */
+public interface PackedMagicSquareListener {
+    void handleMagicSquareEvent(long event);
+}
@@ -0,0 +1,178 @@
+package model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class verifies filled grids while remembering the verdicts of the most recently verified ones, keyed by their
+ * canonical form so that a rotation or reflection of a grid that was already verified is not verified again. The cache
+ * holds a bounded number of grids and evicts the least recently used one when it is full. It counts its hits, misses
+ * and evictions, so that its capacity can be chosen from the workload. A cache can be shared between threads.
+ *
+ * @author Samuel Gamelin
+ */
+public class VerdictCache {
+    /**
+     * The maximum number of grids whose verdicts are remembered.
+     */
+    private final int capacity;
+
+    /**
+     * The remembered verdicts, from the least to the most recently used.
+     */
+    private final LinkedHashMap<CanonicalGrid, Status> verdicts;
+
+    /**
+     * The number of grids whose verdict was remembered.
+     */
+    private long hits;
+
+    /**
+     * The number of grids that had to be verified.
+     */
+    private long misses;
+
+    /**
+     * The number of verdicts forgotten to make room for others.
+     */
+    private long evictions;
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param capacity The maximum number of grids whose verdicts are remembered
+     * @throws IllegalArgumentException If the capacity is not positive
+     */
+    public VerdictCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.verdicts = new LinkedHashMap<CanonicalGrid, Status>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CanonicalGrid, Status> eldest) {
+                if (size() > VerdictCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Verifies a grid given as an array of rows, reusing the verdict of a symmetric grid if it is remembered.
+     *
+     * @param grid The grid to verify, which must be square
+     * @return VICTORY if the grid is a magic square, NO_VICTORY otherwise
+     * @throws IllegalArgumentException If the grid is empty or not square
+     */
+    public Status verify(int[][] grid) {
+        return verify(CanonicalGrid.of(grid));
+    }
+
+    /**
+     * Verifies a grid stored as a flat, row-major array, reusing the verdict of a symmetric grid if it is remembered.
+     *
+     * @param cells The squares of the grid
+     * @param size  The size of the grid
+     * @return VICTORY if the grid is a magic square, NO_VICTORY otherwise
+     * @throws IllegalArgumentException If the number of squares does not match the size
+     */
+    public Status verify(int[] cells, int size) {
+        return verify(CanonicalGrid.of(cells, size));
+    }
+
+    /**
+     * Verifies a grid in canonical form, reusing its verdict if it is remembered.
+     *
+     * @param grid The canonical form of the grid
+     * @return VICTORY if the grid is a magic square, NO_VICTORY otherwise
+     */
+    public Status verify(CanonicalGrid grid) {
+        synchronized (this) {
+            Status status = verdicts.get(grid);
+            if (status != null) {
+                hits++;
+                return status;
+            }
+            misses++;
+        }
+
+        // Verify outside of the lock, as another thread verifying the same grid at the same time is harmless
+        Status status = grid.verify();
+        synchronized (this) {
+            verdicts.put(grid, status);
+        }
+        return status;
+    }
+
+    /**
+     * Forgets every verdict, without resetting the statistics.
+     */
+    public synchronized void clear() {
+        verdicts.clear();
+    }
+
+    /**
+     * Returns the maximum number of grids whose verdicts are remembered.
+     *
+     * @return the maximum number of grids whose verdicts are remembered
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of grids whose verdicts are remembered.
+     *
+     * @return the number of grids whose verdicts are remembered
+     */
+    public synchronized int size() {
+        return verdicts.size();
+    }
+
+    /**
+     * Returns the number of grids whose verdict was remembered.
+     *
+     * @return the number of grids whose verdict was remembered
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of grids that had to be verified.
+     *
+     * @return the number of grids that had to be verified
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of verdicts forgotten to make room for others.
+     *
+     * @return the number of verdicts forgotten to make room for others
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Returns the fraction of grids whose verdict was remembered, or 0 if no grid was verified.
+     *
+     * @return the fraction of grids whose verdict was remembered, or 0 if no grid was verified
+     */
+    public synchronized double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d/%d verdicts, %d hits, %d misses (%.1f%% hit rate), %d evictions", verdicts.size(),
+                capacity, hits, misses, 100 * getHitRate(), evictions);
+    }
+}
@@ -0,0 +1,261 @@
+package persistence;
+
+import model.EventType;
+import model.MagicSquareEvent;
+import model.MagicSquareModel;
+import model.Status;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class represents an append-only log of the moves made on one or more boards of the same size, written to a file
+ * through a memory-mapped buffer. Every record has a fixed width, which lets {@link MagicSquareEventLogReader} read the
+ * log in place and replay it to restore the boards.
+ * <p>
+ * The file starts with a header of {@link #HEADER_BYTES} bytes (a magic number, the format version and the size of the
+ * boards), followed by records of {@link #RECORD_BYTES} bytes, each made of five integers: the board identifier, the x
+ * and y coordinates, the number placed and a status code. The status code is the ordinal of the status after the move
+ * plus one, {@link #UNDO} for a move that was undone, or {@link #RESET} for a reset of the board. A status code of 0
+ * marks the end of the log, since the file is grown ahead of the records in zero-filled chunks.
+ * <p>
+ * Moves reach the log through the listener added by {@link #attach(int, MagicSquareModel)}, but models do not notify
+ * listeners of resets, so those must be recorded with {@link #appendReset(int)}.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareEventLog implements Closeable {
+    static final int MAGIC = 0x4D53514C; // "MSQL"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 20;
+    static final int RESET = -1;
+    static final int UNDO = -2;
+
+    /**
+     * The number of records by which the file is grown when the mapped region is full.
+     */
+    static final int RECORDS_PER_CHUNK = 64 * 1024;
+
+    /**
+     * The channel to the log file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The size of the boards whose moves are recorded.
+     */
+    private final int size;
+
+    /**
+     * The region of the file currently being written to.
+     */
+    private MappedByteBuffer region;
+
+    /**
+     * The position in the file at which the mapped region starts.
+     */
+    private long regionStart;
+
+    /**
+     * The position in the file at which the next record will be written.
+     */
+    private long end;
+
+    /**
+     * Opens a log for boards of the provided size, creating the file if it does not exist, or continuing an existing
+     * log after its last record.
+     *
+     * @param path The path of the log file
+     * @param size The size of the boards whose moves are recorded
+     * @throws IOException If the file cannot be opened, or is not a log for boards of the provided size
+     */
+    public MagicSquareEventLog(Path path, int size) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.size = size;
+
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(0).flip();
+                channel.write(header, 0);
+                this.end = HEADER_BYTES;
+            } else {
+                int existingSize = MagicSquareEventLogReader.readHeader(channel);
+                if (existingSize != size) {
+                    throw new IOException("The log is for boards of size " + existingSize + ", not " + size);
+                }
+                this.end = findEnd();
+            }
+            map(this.end);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Records every move made on a model from now on under the provided board identifier. Numbers placed in bulk are
+     * recorded as one move per filled square, taken from the event, so the log is correct even when listeners are
+     * notified asynchronously.
+     *
+     * @param board The identifier of the board in the log
+     * @param model The model whose moves should be recorded
+     * @throws IllegalArgumentException If the model's size is not the size of this log
+     */
+    public void attach(int board, MagicSquareModel model) {
+        if (model.getSize() != size) {
+            throw new IllegalArgumentException("The model's size does not match the log's size");
+        }
+
+        model.addMagicSquareListener(e -> append(board, e));
+    }
+
+    /**
+     * Records a move, a move being undone, or numbers placed in bulk as one move per filled square. All the moves of a
+     * bulk event but the last are recorded as leaving the game in progress.
+     *
+     * @param board The identifier of the board on which the move was made
+     * @param event The event describing the move
+     * @throws IllegalStateException If the log is closed
+     */
+    public void append(int board, MagicSquareEvent event) {
+        if (event.getType() == EventType.BULK) {
+            int last = event.getFilledCount() - 1;
+            for (int k = 0; k <= last; k++) {
+                Status status = k < last ? Status.IN_PROGRESS : event.getStatus();
+                append(board, event.getFilledX(k), event.getFilledY(k), event.getFilledNumber(k), status.ordinal() + 1);
+            }
+            return;
+        }
+
+        int statusCode = event.getType() == EventType.UNDO ? UNDO : event.getStatus().ordinal() + 1;
+        append(board, event.getX(), event.getY(), event.getNumber(), statusCode);
+    }
+
+    /**
+     * Records a reset of a board.
+     *
+     * @param board The identifier of the board that was reset
+     * @throws IllegalStateException If the log is closed
+     */
+    public void appendReset(int board) {
+        append(board, -1, -1, 0, RESET);
+    }
+
+    /**
+     * Writes dirty pages of the log to the storage device. Regions that were mapped before the current one were
+     * already written when they were replaced.
+     */
+    public synchronized void force() {
+        region.force();
+    }
+
+    /**
+     * Returns the number of records in this log.
+     *
+     * @return the number of records
+     */
+    public synchronized long getRecordCount() {
+        return (end - HEADER_BYTES) / RECORD_BYTES;
+    }
+
+    /**
+     * Writes the log to the storage device, trims the space reserved for future records and closes the file.
+     *
+     * @throws IOException If the log cannot be written or closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            region.force();
+            region = null;
+            channel.truncate(end);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes a record at the end of the log, mapping a new region of the file if the current one is full.
+     */
+    private synchronized void append(int board, int x, int y, int number, int statusCode) {
+        if (region == null) {
+            throw new IllegalStateException("The log is closed");
+        }
+
+        try {
+            if (end + RECORD_BYTES > regionStart + region.capacity()) {
+                map(end);
+            }
+
+            int offset = (int) (end - regionStart);
+            region.putInt(offset, board);
+            region.putInt(offset + 4, x);
+            region.putInt(offset + 8, y);
+            region.putInt(offset + 12, number);
+            region.putInt(offset + 16, statusCode);
+            end += RECORD_BYTES;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Maps the chunk of the file starting at the provided position, growing the file as needed. The region mapped until
+     * now is written to the storage device first, as force only writes the current region.
+     *
+     * @param start The position of the first byte of the region
+     * @throws IOException If the region cannot be mapped
+     */
+    private void map(long start) throws IOException {
+        if (region != null) {
+            region.force();
+        }
+        this.regionStart = start;
+        this.region = channel.map(FileChannel.MapMode.READ_WRITE, start, (long) RECORDS_PER_CHUNK * RECORD_BYTES);
+    }
+
+    /**
+     * Finds the position after the last record of an existing log. The records are followed by zero-filled space only,
+     * so the position is found by a binary search on the status code of the records.
+     *
+     * @return the position of the end of the log
+     * @throws IOException If the log cannot be read
+     */
+    private long findEnd() throws IOException {
+        long low = 0;
+        long high = (channel.size() - HEADER_BYTES) / RECORD_BYTES; // The first record that may be empty
+        ByteBuffer statusCode = ByteBuffer.allocate(4);
+
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            statusCode.clear();
+            channel.read(statusCode, HEADER_BYTES + middle * RECORD_BYTES + 16);
+            if (statusCode.getInt(0) != 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return HEADER_BYTES + low * RECORD_BYTES;
+    }
+
+    /**
+     * Returns the status whose code is stored in the record of a move.
+     *
+     * @param statusCode The status code of the record of a move
+     * @return the status of the record
+     */
+    static Status statusOf(int statusCode) {
+        return Status.values()[statusCode - 1];
+    }
+}
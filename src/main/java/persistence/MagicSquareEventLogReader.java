@@ -0,0 +1,270 @@
+package persistence;
+
+import model.MagicSquareModel;
+import model.Status;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class reads a log written by {@link MagicSquareEventLog}. The records are read in place from memory-mapped
+ * regions of the file, without being copied or turned into objects, and can be replayed to restore the boards whose
+ * moves were recorded.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareEventLogReader implements Closeable {
+    /**
+     * The maximum number of records in a single mapped region (a region can be at most 2 GB).
+     */
+    private static final int RECORDS_PER_REGION = (Integer.MAX_VALUE - MagicSquareEventLog.RECORD_BYTES)
+            / MagicSquareEventLog.RECORD_BYTES;
+
+    /**
+     * This interface represents the behaviour of a visitor of the records of a log.
+     */
+    public interface RecordVisitor {
+        /**
+         * Visits the record of a move.
+         *
+         * @param board  The identifier of the board on which the move was made
+         * @param x      The x-coordinate of the move
+         * @param y      The y-coordinate of the move
+         * @param number The number placed by the move
+         * @param status The status of the board after the move
+         */
+        void move(int board, int x, int y, int number, Status status);
+
+        /**
+         * Visits the record of a move being undone.
+         *
+         * @param board  The identifier of the board on which the move was undone
+         * @param x      The x-coordinate of the move
+         * @param y      The y-coordinate of the move
+         * @param number The number removed from the square
+         */
+        void undo(int board, int x, int y, int number);
+
+        /**
+         * Visits the record of a reset.
+         *
+         * @param board The identifier of the board that was reset
+         */
+        void reset(int board);
+    }
+
+    /**
+     * The channel to the log file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The size of the boards whose moves are recorded.
+     */
+    private final int size;
+
+    /**
+     * The mapped regions of the file holding the records, each holding RECORDS_PER_REGION records except the last one.
+     */
+    private final MappedByteBuffer[] regions;
+
+    /**
+     * The number of records in the log.
+     */
+    private final long recordCount;
+
+    /**
+     * Opens a log for reading.
+     *
+     * @param path The path of the log file
+     * @throws IOException If the file cannot be opened or is not a log
+     */
+    public MagicSquareEventLogReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            this.size = readHeader(channel);
+
+            long capacity = (channel.size() - MagicSquareEventLog.HEADER_BYTES) / MagicSquareEventLog.RECORD_BYTES;
+            int regionCount = (int) ((capacity + RECORDS_PER_REGION - 1) / RECORDS_PER_REGION);
+            this.regions = new MappedByteBuffer[regionCount];
+
+            for (int i = 0; i < regionCount; i++) {
+                long first = (long) i * RECORDS_PER_REGION;
+                long records = Math.min(RECORDS_PER_REGION, capacity - first);
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        MagicSquareEventLog.HEADER_BYTES + first * MagicSquareEventLog.RECORD_BYTES,
+                        records * MagicSquareEventLog.RECORD_BYTES);
+            }
+
+            this.recordCount = countRecords(capacity);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the size of the boards whose moves are recorded.
+     *
+     * @return the size of the boards
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of records in the log.
+     *
+     * @return the number of records
+     */
+    public long getRecordCount() {
+        return this.recordCount;
+    }
+
+    /**
+     * Visits every record of the log, in the order in which they were written.
+     *
+     * @param visitor The visitor of the records
+     */
+    public void forEach(RecordVisitor visitor) {
+        for (long record = 0; record < recordCount; record++) {
+            ByteBuffer region = regions[(int) (record / RECORDS_PER_REGION)];
+            int offset = (int) (record % RECORDS_PER_REGION) * MagicSquareEventLog.RECORD_BYTES;
+            int board = region.getInt(offset);
+            int statusCode = region.getInt(offset + 16);
+
+            if (statusCode == MagicSquareEventLog.RESET) {
+                visitor.reset(board);
+            } else if (statusCode == MagicSquareEventLog.UNDO) {
+                visitor.undo(board, region.getInt(offset + 4), region.getInt(offset + 8), region.getInt(offset + 12));
+            } else {
+                visitor.move(board, region.getInt(offset + 4), region.getInt(offset + 8), region.getInt(offset + 12),
+                        MagicSquareEventLog.statusOf(statusCode));
+            }
+        }
+    }
+
+    /**
+     * Replays the records of one board onto a model.
+     *
+     * @param board The identifier of the board to replay
+     * @param model The model to replay the moves on, which should be in its initial state
+     * @throws IllegalArgumentException If the model's size is not the size of the log
+     */
+    public void replay(int board, MagicSquareModel model) {
+        if (model.getSize() != size) {
+            throw new IllegalArgumentException("The model's size does not match the log's size");
+        }
+
+        forEach(new RecordVisitor() {
+            @Override
+            public void move(int recordBoard, int x, int y, int number, Status status) {
+                if (recordBoard == board) {
+                    model.play(x, y, number);
+                }
+            }
+
+            @Override
+            public void undo(int recordBoard, int x, int y, int number) {
+                if (recordBoard == board) {
+                    model.undo();
+                }
+            }
+
+            @Override
+            public void reset(int recordBoard) {
+                if (recordBoard == board) {
+                    model.reset();
+                }
+            }
+        });
+    }
+
+    /**
+     * Restores every board of the log in a single pass over the records.
+     *
+     * @return A new model for each board identifier of the log, in the state of the board after its last record
+     */
+    public Map<Integer, MagicSquareModel> restoreAll() {
+        Map<Integer, MagicSquareModel> models = new HashMap<>();
+
+        forEach(new RecordVisitor() {
+            @Override
+            public void move(int board, int x, int y, int number, Status status) {
+                models.computeIfAbsent(board, b -> new MagicSquareModel(size)).play(x, y, number);
+            }
+
+            @Override
+            public void undo(int board, int x, int y, int number) {
+                models.computeIfAbsent(board, b -> new MagicSquareModel(size)).undo();
+            }
+
+            @Override
+            public void reset(int board) {
+                models.computeIfAbsent(board, b -> new MagicSquareModel(size)).reset();
+            }
+        });
+
+        return models;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads and checks the header of a log.
+     *
+     * @param channel The channel to the log file
+     * @return The size of the boards whose moves are recorded
+     * @throws IOException If the file cannot be read or is not a log
+     */
+    static int readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(MagicSquareEventLog.HEADER_BYTES);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // Keep reading until the header is complete or the end of the file is reached
+        }
+
+        if (header.hasRemaining() || header.getInt(0) != MagicSquareEventLog.MAGIC) {
+            throw new IOException("Not a magic square event log");
+        }
+        if (header.getInt(4) != MagicSquareEventLog.VERSION) {
+            throw new IOException("Unsupported log version: " + header.getInt(4));
+        }
+
+        return header.getInt(8);
+    }
+
+    /**
+     * Counts the records of the log, which are followed by zero-filled space if the log was not closed.
+     *
+     * @param capacity The number of records that fit in the file
+     * @return the number of records
+     */
+    private long countRecords(long capacity) {
+        long low = 0;
+        long high = capacity;
+
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            ByteBuffer region = regions[(int) (middle / RECORDS_PER_REGION)];
+            int offset = (int) (middle % RECORDS_PER_REGION) * MagicSquareEventLog.RECORD_BYTES;
+            if (region.getInt(offset + 16) != 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+}
@@ -0,0 +1,452 @@
+package persistence;
+
+import model.Status;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * This class verifies grids stored in files, reading them one part at a time so that grids far larger than the heap can
+ * be verified. Only the sum of each column and of both diagonals is kept, which takes linear space in the size of the
+ * grid, and the verification stops at the first row whose sum differs from the sum of the first row. Verdicts follow
+ * the same rule as the model: a grid is a magic square when every row, column and both diagonals share the same sum.
+ * <p>
+ * A grid file starts with a header of 8 bytes (the magic number MAGIC followed by the size of the grid), followed by the
+ * numbers of the grid in row-major order. All values are big-endian ints. Files can be read through a buffer or mapped
+ * into memory.
+ *
+ * @author Samuel Gamelin
+ */
+public class StreamingMagicSquareVerifier {
+    /**
+     * The magic number at the start of a grid file, "MSQG" in ASCII.
+     */
+    public static final int MAGIC = 0x4D535147;
+
+    /**
+     * The number of bytes of the header of a grid file.
+     */
+    public static final int HEADER_BYTES = 8;
+
+    /**
+     * The default number of bytes read from a file at a time when it is not mapped into memory.
+     */
+    public static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+
+    /**
+     * The number of bytes of a file mapped into memory at a time.
+     */
+    private static final long WINDOW_BYTES = 1L << 28;
+
+    /**
+     * The number of numbers copied out of a buffer at a time to be summed.
+     */
+    private static final int CHUNK = 4096;
+
+    /**
+     * This class represents the outcome of verifying a grid file.
+     */
+    public static class Result {
+        /**
+         * The verdict of the verification.
+         */
+        private final Status status;
+
+        /**
+         * The number of squares read before the verdict was known.
+         */
+        private final long cellsRead;
+
+        /**
+         * The time taken by the verification, in nanoseconds.
+         */
+        private final long nanos;
+
+        /**
+         * Constructs the outcome of a verification.
+         *
+         * @param status    The verdict of the verification
+         * @param cellsRead The number of squares read before the verdict was known
+         * @param nanos     The time taken by the verification, in nanoseconds
+         */
+        Result(Status status, long cellsRead, long nanos) {
+            this.status = status;
+            this.cellsRead = cellsRead;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the verdict of the verification.
+         *
+         * @return VICTORY if the grid is a magic square, NO_VICTORY otherwise
+         */
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Returns the number of squares read before the verdict was known.
+         *
+         * @return the number of squares read before the verdict was known
+         */
+        public long getCellsRead() {
+            return cellsRead;
+        }
+
+        /**
+         * Returns the time taken by the verification, in nanoseconds.
+         *
+         * @return the time taken by the verification, in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the number of squares read per second.
+         *
+         * @return the number of squares read per second
+         */
+        public double getCellsPerSecond() {
+            return nanos == 0 ? 0 : cellsRead * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s after %d cells in %.3f s (%.0f cells/sec)", status.name(), cellsRead, nanos / 1e9,
+                    getCellsPerSecond());
+        }
+    }
+
+    /**
+     * Whether files are mapped into memory rather than read through a buffer.
+     */
+    private final boolean memoryMapped;
+
+    /**
+     * The number of bytes read from a file at a time when it is not mapped into memory.
+     */
+    private final int bufferBytes;
+
+    /**
+     * The size of the grid being verified.
+     */
+    private int size;
+
+    /**
+     * The sums of each column of the grid being verified.
+     */
+    private long[] columnSums;
+
+    /**
+     * The sums of both diagonals of the grid being verified, indexed as in the model.
+     */
+    private long[] diagonalSums;
+
+    /**
+     * The sum that every line must have, which is the sum of the first row.
+     */
+    private long target;
+
+    /**
+     * The sum of the part of the current row read so far.
+     */
+    private long rowSum;
+
+    /**
+     * The current row of the grid being verified.
+     */
+    private int row;
+
+    /**
+     * The column of the next number of the current row.
+     */
+    private int column;
+
+    /**
+     * The number of squares read so far.
+     */
+    private long cellsRead;
+
+    /**
+     * Constructs a verifier reading files through a buffer.
+     */
+    public StreamingMagicSquareVerifier() {
+        this(false);
+    }
+
+    /**
+     * Constructs a verifier.
+     *
+     * @param memoryMapped true to map files into memory, false to read them through a buffer
+     */
+    public StreamingMagicSquareVerifier(boolean memoryMapped) {
+        this(memoryMapped, DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * Constructs a verifier reading files through a buffer of the provided size when they are not mapped into memory.
+     *
+     * @param memoryMapped true to map files into memory, false to read them through a buffer
+     * @param bufferBytes  The number of bytes read at a time, which must be a positive multiple of 4
+     * @throws IllegalArgumentException If the buffer size is invalid
+     */
+    public StreamingMagicSquareVerifier(boolean memoryMapped, int bufferBytes) {
+        if (bufferBytes < 4 || bufferBytes % 4 != 0) {
+            throw new IllegalArgumentException("Invalid buffer size: " + bufferBytes);
+        }
+        this.memoryMapped = memoryMapped;
+        this.bufferBytes = bufferBytes;
+    }
+
+    /**
+     * Verifies the grid stored in a file. A verifier verifies one file at a time.
+     *
+     * @param path The path of the grid file
+     * @return the outcome of the verification
+     * @throws IOException If the file cannot be read or is not a grid file
+     */
+    public synchronized Result verify(Path path) throws IOException {
+        long start = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    throw new EOFException("The file is too short to be a grid file");
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("The file is not a grid file");
+            }
+            int gridSize = header.getInt();
+            if (gridSize < 1 || channel.size() != HEADER_BYTES + 4L * gridSize * gridSize) {
+                throw new IOException("The length of the file does not match the size of its grid");
+            }
+
+            begin(gridSize);
+            boolean consistent = memoryMapped ? readMapped(channel) : readBuffered(channel);
+            Status status = consistent ? evaluate() : Status.NO_VICTORY;
+            return new Result(status, cellsRead, System.nanoTime() - start);
+        } finally {
+            this.columnSums = null; // Let the sums of a giant grid be collected
+        }
+    }
+
+    /**
+     * Prepares to verify a grid.
+     *
+     * @param gridSize The size of the grid
+     */
+    private void begin(int gridSize) {
+        this.size = gridSize;
+        this.columnSums = new long[gridSize];
+        this.diagonalSums = new long[2];
+        this.target = 0;
+        this.rowSum = 0;
+        this.row = 0;
+        this.column = 0;
+        this.cellsRead = 0;
+    }
+
+    /**
+     * Reads the numbers of a grid file through a buffer.
+     *
+     * @param channel The channel to the file, positioned after the header
+     * @return false if a row was found whose sum differs from the sum of the first row, true otherwise
+     * @throws IOException If the file cannot be read or ends too early
+     */
+    private boolean readBuffered(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bufferBytes);
+        int[] chunk = new int[CHUNK];
+
+        long cells = (long) size * size;
+
+        while (cellsRead < cells) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("The file ended before the end of its grid");
+            }
+
+            buffer.flip();
+            IntBuffer numbers = buffer.asIntBuffer();
+            if (!process(numbers, chunk)) {
+                return false;
+            }
+            buffer.position(buffer.position() + 4 * numbers.position()); // Keep the bytes of an incomplete number
+            buffer.compact();
+        }
+        return true;
+    }
+
+    /**
+     * Reads the numbers of a grid file by mapping it into memory, one window at a time.
+     *
+     * @param channel The channel to the file
+     * @return false if a row was found whose sum differs from the sum of the first row, true otherwise
+     * @throws IOException If the file cannot be mapped
+     */
+    private boolean readMapped(FileChannel channel) throws IOException {
+        int[] chunk = new int[CHUNK];
+        long length = channel.size();
+
+        // Windows start at the header and are multiples of 4 bytes long, so no number spans two windows
+        for (long offset = HEADER_BYTES; offset < length; offset += WINDOW_BYTES) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                    Math.min(WINDOW_BYTES, length - offset));
+            if (!process(window.asIntBuffer(), chunk)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the numbers of a buffer to the sums of their lines, checking the sum of every row completed along the way.
+     *
+     * @param numbers The numbers to add, which are consumed
+     * @param chunk   The array into which the numbers are copied before being summed
+     * @return false if a row was completed whose sum differs from the sum of the first row, true otherwise
+     */
+    private boolean process(IntBuffer numbers, int[] chunk) {
+        while (numbers.hasRemaining()) {
+            int count = Math.min(Math.min(numbers.remaining(), chunk.length), size - column);
+            numbers.get(chunk, 0, count);
+
+            // A plain loop over an array, which the compiler can unroll and vectorize
+            long sum = 0;
+            long[] sums = this.columnSums;
+            int first = this.column;
+            for (int k = 0; k < count; k++) {
+                int number = chunk[k];
+                sum += number;
+                sums[first + k] += number;
+            }
+
+            // Each row has at most one square on each diagonal
+            if (row >= first && row < first + count) {
+                diagonalSums[0] += chunk[row - first];
+            }
+            int antiDiagonalColumn = size - 1 - row;
+            if (antiDiagonalColumn >= first && antiDiagonalColumn < first + count) {
+                diagonalSums[1] += chunk[antiDiagonalColumn - first];
+            }
+
+            this.rowSum += sum;
+            this.column += count;
+            this.cellsRead += count;
+
+            if (column == size) {
+                if (row == 0) {
+                    this.target = rowSum;
+                } else if (rowSum != target) {
+                    return false;
+                }
+                this.row++;
+                this.column = 0;
+                this.rowSum = 0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines the outcome of a grid whose rows all share the same sum.
+     *
+     * @return VICTORY if every column and both diagonals share the sum of the rows, NO_VICTORY otherwise
+     */
+    private Status evaluate() {
+        if (diagonalSums[0] != target || diagonalSums[1] != target) {
+            return Status.NO_VICTORY;
+        }
+        for (long columnSum : columnSums) {
+            if (columnSum != target) {
+                return Status.NO_VICTORY;
+            }
+        }
+        return Status.VICTORY;
+    }
+
+    /**
+     * Writes a grid to a grid file.
+     *
+     * @param path The path of the grid file, which is replaced if it exists
+     * @param grid The grid to write, indexed by row then column
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(Path path, int[][] grid) throws IOException {
+        write(path, grid.length, (i, j) -> grid[i][j]);
+    }
+
+    /**
+     * Writes a grid whose numbers are computed one at a time to a grid file, so that grids too large for the heap can be
+     * written.
+     *
+     * @param path    The path of the grid file, which is replaced if it exists
+     * @param size    The size of the grid
+     * @param numbers The function computing the number of each square from its row and column
+     * @throws IOException              If the file cannot be written
+     * @throws IllegalArgumentException If the size is not positive
+     */
+    public static void write(Path path, int size, IntBinaryOperator numbers) throws IOException {
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid grid size: " + size);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(DEFAULT_BUFFER_BYTES);
+            buffer.putInt(MAGIC).putInt(size);
+
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    if (!buffer.hasRemaining()) {
+                        drain(channel, buffer);
+                    }
+                    buffer.putInt(numbers.applyAsInt(i, j));
+                }
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    /**
+     * Writes the contents of a buffer to a channel and clears it.
+     *
+     * @param channel The channel to write to
+     * @param buffer  The buffer to write
+     * @throws IOException If the channel cannot be written
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * This is the entry point of the streaming verifier, which verifies a grid file and prints the outcome.
+     *
+     * @param args The command-line arguments, where the first argument is the path of the grid file and the second
+     *             (optional) argument is "mmap" to map the file into memory
+     * @throws IOException If the file cannot be read or is not a grid file
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: StreamingMagicSquareVerifier <grid file> [mmap]");
+            return;
+        }
+
+        boolean memoryMapped = args.length > 1 && args[1].equalsIgnoreCase("mmap");
+        System.out.println(new StreamingMagicSquareVerifier(memoryMapped).verify(Paths.get(args[0])));
+    }
+}
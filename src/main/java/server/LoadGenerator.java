@@ -0,0 +1,244 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class generates load on a MagicSquareServer to measure its throughput and latency. Each client opens its own
+ * connection and plays complete games, one move per request, with random numbers. Once every client is done, the
+ * number of moves per second and the latency percentiles of the moves are reported.
+ *
+ * @author Samuel Gamelin
+ */
+public class LoadGenerator {
+    /**
+     * The port of the server.
+     */
+    private final int port;
+
+    /**
+     * The number of clients playing at the same time.
+     */
+    private final int clients;
+
+    /**
+     * The number of games played by each client.
+     */
+    private final int gamesPerClient;
+
+    /**
+     * The size of the games' grids.
+     */
+    private final int size;
+
+    /**
+     * Constructs a load generator.
+     *
+     * @param port           The port of the server
+     * @param clients        The number of clients playing at the same time
+     * @param gamesPerClient The number of games played by each client
+     * @param size           The size of the games' grids
+     */
+    public LoadGenerator(int port, int clients, int gamesPerClient, int size) {
+        this.port = port;
+        this.clients = clients;
+        this.gamesPerClient = gamesPerClient;
+        this.size = size;
+    }
+
+    /**
+     * Runs every client until they are done.
+     *
+     * @return the report of the run
+     * @throws Exception If a client fails
+     */
+    public Report run() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(clients);
+        List<Future<long[]>> results = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            long seed = i;
+            results.add(executorService.submit(() -> playGames(seed)));
+        }
+
+        long[][] latencies = new long[clients][];
+        int moves = 0;
+        for (int i = 0; i < clients; i++) {
+            latencies[i] = results.get(i).get();
+            moves += latencies[i].length;
+        }
+        long elapsed = System.nanoTime() - start;
+        executorService.shutdown();
+
+        long[] allLatencies = new long[moves];
+        int position = 0;
+        for (long[] clientLatencies : latencies) {
+            System.arraycopy(clientLatencies, 0, allLatencies, position, clientLatencies.length);
+            position += clientLatencies.length;
+        }
+        Arrays.sort(allLatencies);
+
+        return new Report(moves, elapsed, allLatencies);
+    }
+
+    /**
+     * Plays every game of a client on its own connection.
+     *
+     * @param seed The seed of the client's random numbers
+     * @return the latency of every move, in nanoseconds
+     * @throws IOException If the connection fails or the server replies with an error
+     */
+    private long[] playGames(long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] latencies = new long[gamesPerClient * size * size];
+        int move = 0;
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                     StandardCharsets.US_ASCII));
+             Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            socket.setTcpNoDelay(true);
+
+            for (int game = 0; game < gamesPerClient; game++) {
+                String id = request(writer, reader, "NEW " + size).substring(3);
+
+                for (int x = 0; x < size; x++) {
+                    for (int y = 0; y < size; y++) {
+                        long start = System.nanoTime();
+                        request(writer, reader, "PLAY " + id + " " + x + " " + y + " " + random.nextInt(1, 10));
+                        latencies[move++] = System.nanoTime() - start;
+                    }
+                }
+
+                request(writer, reader, "CLOSE " + id);
+            }
+
+            request(writer, reader, null);
+        }
+
+        return latencies;
+    }
+
+    /**
+     * Sends a command and waits for its reply.
+     *
+     * @param command The command, or null to quit
+     * @return the reply
+     * @throws IOException If the connection fails or the server replies with an error
+     */
+    private static String request(Writer writer, BufferedReader reader, String command) throws IOException {
+        writer.write(command == null ? "QUIT\n" : command + "\n");
+        writer.flush();
+        if (command == null) {
+            return null;
+        }
+
+        String reply = reader.readLine();
+        if (reply == null || reply.startsWith("ERROR")) {
+            throw new IOException("Unexpected reply to " + command + ": " + reply);
+        }
+        return reply;
+    }
+
+    /**
+     * This class represents the outcome of a run of the load generator.
+     */
+    public static class Report {
+        /**
+         * The number of moves made.
+         */
+        private final int moves;
+
+        /**
+         * The time taken by the run, in nanoseconds.
+         */
+        private final long elapsedNanos;
+
+        /**
+         * The latency of every move, in nanoseconds, from the shortest to the longest.
+         */
+        private final long[] sortedLatencies;
+
+        /**
+         * Constructs the report of a run.
+         *
+         * @param moves           The number of moves made
+         * @param elapsedNanos    The time taken by the run, in nanoseconds
+         * @param sortedLatencies The latency of every move, in nanoseconds, sorted in ascending order
+         */
+        Report(int moves, long elapsedNanos, long[] sortedLatencies) {
+            this.moves = moves;
+            this.elapsedNanos = elapsedNanos;
+            this.sortedLatencies = sortedLatencies;
+        }
+
+        /**
+         * Returns the number of moves made.
+         *
+         * @return the number of moves made
+         */
+        public int getMoves() {
+            return moves;
+        }
+
+        /**
+         * Returns the number of moves made per second.
+         *
+         * @return the throughput of the run, in moves per second
+         */
+        public double getMovesPerSecond() {
+            return moves / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * Returns a percentile of the latency of the moves.
+         *
+         * @param percentile The percentile, between 0 and 100
+         * @return the latency at the percentile, in nanoseconds
+         */
+        public long getLatencyPercentile(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d moves in %.2f s: %.0f moves/s, p50 %.1f us, p99 %.1f us, max %.1f us", moves,
+                    elapsedNanos / 1e9, getMovesPerSecond(), getLatencyPercentile(50) / 1e3,
+                    getLatencyPercentile(99) / 1e3, getLatencyPercentile(100) / 1e3);
+        }
+    }
+
+    /**
+     * This is the entry point of the load generator.
+     *
+     * @param args The command-line arguments: the port of the server, the number of clients, the number of games per
+     *             client and the size of the grids (all optional)
+     * @throws Exception If a client fails
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : MagicSquareServer.DEFAULT_PORT;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int size = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        System.out.println(new LoadGenerator(port, clients, games, size).run());
+    }
+}
@@ -0,0 +1,291 @@
+package server;
+
+import model.ConcurrentMagicSquareModel;
+import model.MagicSquareModel;
+import model.MoveResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class represents a server hosting Magic Square games for clients on the same machine. Clients connect over TCP to
+ * the loopback interface and send one command per line, receiving one reply line per command:
+ * <ul>
+ * <li>{@code NEW [size]} creates a game and replies {@code OK <id>}. Sizes above {@link #MAX_SIZE} are refused, so
+ * that a client cannot make the server allocate a huge grid.</li>
+ * <li>{@code PLAY <id> <x> <y> <number>} makes a move and replies {@code OK <status>}, or {@code REJECTED <reason>} if
+ * the move was not made</li>
+ * <li>{@code RESET <id>} resets a game and replies {@code OK}</li>
+ * <li>{@code STATUS <id>} replies {@code OK <status>}</li>
+ * <li>{@code CLOSE <id>} ends a game and replies {@code OK}</li>
+ * <li>{@code QUIT} closes the connection</li>
+ * </ul>
+ * Statuses and reasons are the names of the Status and MoveResult constants. A malformed command, or one naming an
+ * unknown game, gets the reply {@code ERROR <message>}. Games can be played from any connection, and games left unused
+ * for too long are evicted.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareServer implements Closeable {
+    /**
+     * The default port of the server.
+     */
+    public static final int DEFAULT_PORT = 7341;
+
+    /**
+     * The largest size of the games hosted by the server, whose grids take a few megabytes each.
+     */
+    public static final int MAX_SIZE = 1024;
+
+    /**
+     * The sessions hosted by this server.
+     */
+    private final SessionManager sessionManager;
+
+    /**
+     * The socket accepting connections.
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * The threads serving connections, one per connection.
+     */
+    private final ExecutorService connectionExecutor;
+
+    /**
+     * The thread evicting idle sessions.
+     */
+    private final ScheduledExecutorService evictionExecutor;
+
+    /**
+     * Starts a server on the loopback interface.
+     *
+     * @param port        The port to listen on, or 0 to pick any free port
+     * @param idleMinutes The number of minutes after which an unused game is evicted, which must be positive
+     * @throws IOException              If the server cannot listen on the port
+     * @throws IllegalArgumentException If the number of minutes is not positive
+     */
+    public MagicSquareServer(int port, long idleMinutes) throws IOException {
+        if (idleMinutes < 1) {
+            throw new IllegalArgumentException("The number of idle minutes must be positive: " + idleMinutes);
+        }
+
+        this.sessionManager = new SessionManager();
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        this.connectionExecutor = Executors.newCachedThreadPool(daemonThreads("magic-square-connection"));
+        this.evictionExecutor = Executors.newSingleThreadScheduledExecutor(daemonThreads("magic-square-eviction"));
+
+        this.sessionManager.scheduleEviction(evictionExecutor, idleMinutes, TimeUnit.MINUTES);
+        Thread acceptor = daemonThreads("magic-square-acceptor").newThread(this::acceptConnections);
+        acceptor.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the port of the server
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the sessions hosted by this server.
+     *
+     * @return the session manager of this server
+     */
+    public SessionManager getSessionManager() {
+        return sessionManager;
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones.
+     *
+     * @throws IOException If the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connectionExecutor.shutdownNow();
+        evictionExecutor.shutdownNow();
+    }
+
+    /**
+     * Accepts connections until the server is closed.
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connectionExecutor.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                return; // The server socket was closed
+            } catch (IOException e) {
+                e.printStackTrace(System.out);
+            }
+        }
+    }
+
+    /**
+     * Reads commands from a connection and writes their replies until the client quits or disconnects.
+     *
+     * @param socket The connection
+     */
+    private void serve(Socket socket) {
+        try (Socket connection = socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(),
+                     StandardCharsets.US_ASCII));
+             Writer writer = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(),
+                     StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String reply = execute(line);
+                if (reply == null) {
+                    return;
+                }
+
+                writer.write(reply);
+                writer.write('\n');
+                if (!reader.ready()) { // Replies to pipelined commands are flushed together
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            // The client disconnected
+        }
+    }
+
+    /**
+     * Executes a command.
+     *
+     * @param line The command
+     * @return the reply to the command, or null if the connection should be closed
+     */
+    String execute(String line) {
+        String[] arguments = line.trim().split("\\s+");
+
+        try {
+            switch (arguments[0].toUpperCase()) {
+                case "NEW":
+                    expectArguments(arguments, 1, 2);
+                    int size = arguments.length > 1 ? Integer.parseInt(arguments[1]) : MagicSquareModel.DEFAULT_SIZE;
+                    if (size > MAX_SIZE) {
+                        return "ERROR The size cannot exceed " + MAX_SIZE;
+                    }
+                    return "OK " + sessionManager.create(size).getId();
+                case "PLAY":
+                    expectArguments(arguments, 5, 5);
+                    ConcurrentMagicSquareModel model = model(arguments[1]);
+                    MoveResult result = model.play(Integer.parseInt(arguments[2]), Integer.parseInt(arguments[3]),
+                            Integer.parseInt(arguments[4]));
+                    return result == MoveResult.ACCEPTED ? "OK " + model.getStatus().name() : "REJECTED " + result.name();
+                case "RESET":
+                    expectArguments(arguments, 2, 2);
+                    model(arguments[1]).reset();
+                    return "OK";
+                case "STATUS":
+                    expectArguments(arguments, 2, 2);
+                    return "OK " + model(arguments[1]).getStatus().name();
+                case "CLOSE":
+                    expectArguments(arguments, 2, 2);
+                    if (!sessionManager.remove(Long.parseLong(arguments[1]))) {
+                        return "ERROR Unknown game " + arguments[1];
+                    }
+                    return "OK";
+                case "QUIT":
+                    return null;
+                default:
+                    return "ERROR Unknown command " + arguments[0];
+            }
+        } catch (NumberFormatException e) {
+            return "ERROR Invalid number in " + line.trim();
+        } catch (IllegalArgumentException e) {
+            return "ERROR " + e.getMessage();
+        }
+    }
+
+    /**
+     * Returns the model of the session whose identifier is given.
+     *
+     * @param id The identifier of the session
+     * @return the model of the session
+     * @throws IllegalArgumentException If there is no such session
+     */
+    private ConcurrentMagicSquareModel model(String id) {
+        Session session = sessionManager.get(Long.parseLong(id));
+        if (session == null) {
+            throw new IllegalArgumentException("Unknown game " + id);
+        }
+        return session.getModel();
+    }
+
+    /**
+     * Checks the number of words of a command (including the command itself).
+     *
+     * @throws IllegalArgumentException If the number of words is out of range
+     */
+    private static void expectArguments(String[] arguments, int min, int max) {
+        if (arguments.length < min || arguments.length > max) {
+            throw new IllegalArgumentException("Wrong number of arguments for " + arguments[0].toUpperCase());
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * This is the entry point of the Magic Square server.
+     *
+     * @param args The command-line arguments, where the first (optional) argument is the port to listen on and the
+     *             second (optional) argument is the number of minutes after which an unused game is evicted
+     * @throws IOException If the server cannot be started
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        long idleMinutes = args.length > 1 ? Long.parseLong(args[1]) : 30;
+        if (idleMinutes < 1) {
+            System.out.println("The number of minutes after which unused games are evicted must be positive");
+            return;
+        }
+
+        MagicSquareServer server = new MagicSquareServer(port, idleMinutes);
+        System.out.println("Magic Square server listening on localhost:" + server.getPort());
+
+        // The server threads are daemons, so keep the main thread alive until the process is stopped
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                e.printStackTrace(System.out);
+            }
+        }));
+        while (true) {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package server;
+
+import model.ConcurrentMagicSquareModel;
+
+/**
+ * This class represents a game hosted by a SessionManager: a model along with the last time it was used, which is used
+ * to evict idle sessions.
+ *
+ * @author Samuel Gamelin
+ */
+public class Session {
+    /**
+     * The identifier of this session.
+     */
+    private final long id;
+
+    /**
+     * The model of this session's game.
+     */
+    private final ConcurrentMagicSquareModel model;
+
+    /**
+     * The time (from System.nanoTime()) at which this session was last used.
+     */
+    private volatile long lastAccess;
+
+    /**
+     * Constructs a session that has just been used.
+     *
+     * @param id    The identifier of the session
+     * @param model The model of the session's game
+     * @param now   The current time, from System.nanoTime()
+     */
+    Session(long id, ConcurrentMagicSquareModel model, long now) {
+        this.id = id;
+        this.model = model;
+        this.lastAccess = now;
+    }
+
+    /**
+     * Returns the identifier of this session.
+     *
+     * @return the identifier of this session
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the model of this session's game.
+     *
+     * @return the model of this session
+     */
+    public ConcurrentMagicSquareModel getModel() {
+        return model;
+    }
+
+    /**
+     * Returns the time at which this session was last used.
+     *
+     * @return the time (from System.nanoTime()) of the last use of this session
+     */
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Marks this session as used.
+     *
+     * @param now The current time, from System.nanoTime()
+     */
+    void touch(long now) {
+        this.lastAccess = now;
+    }
+}
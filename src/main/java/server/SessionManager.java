@@ -0,0 +1,175 @@
+package server;
+
+import model.ConcurrentMagicSquareModel;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class holds the games of many players at once, each in its own session identified by a number. Sessions are
+ * spread over several independent maps (shards) so that threads working on different sessions rarely contend, and
+ * sessions that have not been used for a while can be evicted.
+ *
+ * @author Samuel Gamelin
+ */
+public class SessionManager {
+    /**
+     * The default number of shards, which must be a power of 2.
+     */
+    public static final int DEFAULT_SHARDS = 64;
+
+    /**
+     * The maps holding the sessions, each session being in the shard selected by its identifier.
+     */
+    private final ConcurrentHashMap<Long, Session>[] shards;
+
+    /**
+     * The source of session identifiers.
+     */
+    private final AtomicLong nextId = new AtomicLong();
+
+    /**
+     * Constructs a session manager with the default number of shards.
+     */
+    public SessionManager() {
+        this(DEFAULT_SHARDS);
+    }
+
+    /**
+     * Constructs a session manager with the provided number of shards.
+     *
+     * @param shardCount The number of shards, which must be a power of 2
+     * @throws IllegalArgumentException If the number of shards is not a power of 2
+     */
+    public SessionManager(int shardCount) {
+        if (shardCount < 1 || Integer.bitCount(shardCount) != 1) {
+            throw new IllegalArgumentException("The number of shards must be a power of 2: " + shardCount);
+        }
+
+        @SuppressWarnings("unchecked")
+        ConcurrentHashMap<Long, Session>[] shards =
+                (ConcurrentHashMap<Long, Session>[]) new ConcurrentHashMap<?, ?>[shardCount];
+        this.shards = shards;
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Creates a session with a new game.
+     *
+     * @param size The size of the game's grid
+     * @return the new session
+     * @throws IllegalArgumentException If the size is invalid
+     */
+    public Session create(int size) {
+        long id = nextId.incrementAndGet();
+        Session session = new Session(id, new ConcurrentMagicSquareModel(size), System.nanoTime());
+        shardOf(id).put(id, session);
+        return session;
+    }
+
+    /**
+     * Returns a session and marks it as used. The session is marked atomically with respect to evictions, so a session
+     * returned by this method is never evicted before it has been idle for the whole idle time again.
+     *
+     * @param id The identifier of the session
+     * @return the session, or null if there is no session with this identifier (or it was evicted)
+     */
+    public Session get(long id) {
+        long now = System.nanoTime();
+        return shardOf(id).computeIfPresent(id, (key, session) -> {
+            session.touch(now);
+            return session;
+        });
+    }
+
+    /**
+     * Removes a session.
+     *
+     * @param id The identifier of the session
+     * @return true if the session existed, false otherwise
+     */
+    public boolean remove(long id) {
+        return shardOf(id).remove(id) != null;
+    }
+
+    /**
+     * Returns the number of sessions.
+     *
+     * @return the number of sessions
+     */
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<Long, Session> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Removes every session that has not been used for at least the provided time. The time of a session's last use is
+     * checked again while the session is being removed, so that a session used while the shards are being scanned is
+     * kept.
+     *
+     * @param idleTime The time after which an unused session is removed
+     * @param unit     The unit of the time
+     * @return the number of sessions removed
+     */
+    public int evictIdle(long idleTime, TimeUnit unit) {
+        long now = System.nanoTime();
+        long idleNanos = unit.toNanos(idleTime);
+        int evicted = 0;
+
+        for (ConcurrentHashMap<Long, Session> shard : shards) {
+            for (Map.Entry<Long, Session> entry : shard.entrySet()) {
+                Session candidate = entry.getValue();
+                if (now - candidate.getLastAccess() < idleNanos) {
+                    continue;
+                }
+
+                boolean[] removed = {false};
+                shard.computeIfPresent(entry.getKey(), (id, session) -> {
+                    removed[0] = session == candidate && now - session.getLastAccess() >= idleNanos;
+                    return removed[0] ? null : session;
+                });
+                if (removed[0]) {
+                    evicted++;
+                }
+            }
+        }
+
+        return evicted;
+    }
+
+    /**
+     * Schedules the periodic eviction of idle sessions.
+     *
+     * @param scheduler The scheduler on which evictions should run
+     * @param idleTime  The time after which an unused session is removed, which is also the time between evictions
+     * @param unit      The unit of the time
+     * @return the scheduled eviction, which can be cancelled
+     * @throws IllegalArgumentException If the time is not positive
+     */
+    public ScheduledFuture<?> scheduleEviction(ScheduledExecutorService scheduler, long idleTime, TimeUnit unit) {
+        if (idleTime < 1) {
+            throw new IllegalArgumentException("The idle time must be positive: " + idleTime);
+        }
+        return scheduler.scheduleWithFixedDelay(() -> evictIdle(idleTime, unit), idleTime, idleTime, unit);
+    }
+
+    /**
+     * Returns the shard holding the session with the provided identifier.
+     *
+     * @param id The identifier of the session
+     * @return the shard of the session
+     */
+    private ConcurrentHashMap<Long, Session> shardOf(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L; // Spread consecutive identifiers over the shards
+        return shards[(int) (hash >>> 32) & (shards.length - 1)];
+    }
+}
@@ -0,0 +1,279 @@
+package simulation;
+
+import model.MagicSquareModel;
+import model.Status;
+
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+/**
+ * This class estimates the probability that a grid filled with random numbers is a magic square. Trials are split into
+ * chunks of CHUNK_TRIALS that run in parallel on the common fork-join pool. Each chunk draws its numbers from its own
+ * SplittableRandom, seeded from the simulation's seed and the index of the chunk, so the outcome of a simulation only
+ * depends on its seed (not on the number of threads), and plays all of its trials on one model that is reset between
+ * trials. Models evaluate eagerly, so a trial ends as soon as two filled lines disagree.
+ *
+ * @author Samuel Gamelin
+ */
+public class MonteCarloSimulation {
+    /**
+     * The number of trials of each chunk.
+     */
+    public static final int CHUNK_TRIALS = 1 << 16;
+
+    /**
+     * The quantile of the standard normal distribution for a 95% confidence interval.
+     */
+    private static final double Z_95 = 1.959963984540054;
+
+    /**
+     * This class represents the outcome of a simulation.
+     */
+    public static class Report {
+        /**
+         * The number of trials.
+         */
+        private final long trials;
+
+        /**
+         * The number of trials that produced a magic square.
+         */
+        private final long victories;
+
+        /**
+         * The time taken by the simulation, in nanoseconds.
+         */
+        private final long nanos;
+
+        /**
+         * Constructs the outcome of a simulation.
+         *
+         * @param trials    The number of trials
+         * @param victories The number of trials that produced a magic square
+         * @param nanos     The time taken by the simulation, in nanoseconds
+         */
+        Report(long trials, long victories, long nanos) {
+            this.trials = trials;
+            this.victories = victories;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the number of trials.
+         *
+         * @return the number of trials
+         */
+        public long getTrials() {
+            return trials;
+        }
+
+        /**
+         * Returns the number of trials that produced a magic square.
+         *
+         * @return the number of trials that produced a magic square
+         */
+        public long getVictories() {
+            return victories;
+        }
+
+        /**
+         * Returns the time taken by the simulation, in nanoseconds.
+         *
+         * @return the time taken by the simulation, in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the number of trials per second.
+         *
+         * @return the number of trials per second
+         */
+        public double getTrialsPerSecond() {
+            return nanos == 0 ? 0 : trials * 1e9 / nanos;
+        }
+
+        /**
+         * Returns the fraction of trials that produced a magic square.
+         *
+         * @return the fraction of trials that produced a magic square
+         */
+        public double getVictoryRate() {
+            return trials == 0 ? 0 : (double) victories / trials;
+        }
+
+        /**
+         * Returns the lower bound of the 95% Wilson score interval of the probability of a magic square, which remains
+         * meaningful when victories are very rare (or never happen).
+         *
+         * @return the lower bound of the confidence interval
+         */
+        public double getLowerBound() {
+            return wilsonBound(-1);
+        }
+
+        /**
+         * Returns the upper bound of the 95% Wilson score interval of the probability of a magic square.
+         *
+         * @return the upper bound of the confidence interval
+         */
+        public double getUpperBound() {
+            return wilsonBound(1);
+        }
+
+        /**
+         * Returns a bound of the Wilson score interval.
+         *
+         * @param sign -1 for the lower bound, 1 for the upper bound
+         * @return the bound of the confidence interval
+         */
+        private double wilsonBound(int sign) {
+            if (trials == 0) {
+                return sign < 0 ? 0 : 1;
+            }
+            double n = trials;
+            double p = getVictoryRate();
+            double z2 = Z_95 * Z_95;
+            double center = p + z2 / (2 * n);
+            double margin = Z_95 * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n));
+            return Math.min(1, Math.max(0, (center + sign * margin) / (1 + z2 / n)));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d trials in %.3f s (%.0f trials/sec), %d victories, rate %.6g (95%% CI %.6g - %.6g)",
+                    trials, nanos / 1e9, getTrialsPerSecond(), victories, getVictoryRate(), getLowerBound(),
+                    getUpperBound());
+        }
+    }
+
+    /**
+     * The size of the grids.
+     */
+    private final int size;
+
+    /**
+     * The smallest number placed on a square.
+     */
+    private final int min;
+
+    /**
+     * The largest number placed on a square.
+     */
+    private final int max;
+
+    /**
+     * The seed from which the random numbers of every chunk are derived.
+     */
+    private final long seed;
+
+    /**
+     * Constructs a simulation filling grids with numbers drawn uniformly from a range.
+     *
+     * @param size The size of the grids
+     * @param min  The smallest number placed on a square
+     * @param max  The largest number placed on a square
+     * @param seed The seed from which every random number is derived
+     * @throws IllegalArgumentException If the size is invalid or the range is empty
+     */
+    public MonteCarloSimulation(int size, int min, int max, long seed) {
+        if (size < 1 || size > 46340) {
+            throw new IllegalArgumentException("Invalid grid size: " + size);
+        }
+        if (min > max) {
+            throw new IllegalArgumentException("Empty range: " + min + " to " + max);
+        }
+
+        this.size = size;
+        this.min = min;
+        this.max = max;
+        this.seed = seed;
+    }
+
+    /**
+     * Runs trials in parallel and reports how many of them produced a magic square.
+     *
+     * @param trials The number of trials
+     * @return the outcome of the simulation
+     * @throws IllegalArgumentException If the number of trials is negative
+     */
+    public Report run(long trials) {
+        if (trials < 0) {
+            throw new IllegalArgumentException("Invalid number of trials: " + trials);
+        }
+
+        long start = System.nanoTime();
+        long chunks = (trials + CHUNK_TRIALS - 1) / CHUNK_TRIALS;
+        long victories = LongStream.range(0, chunks)
+                .parallel()
+                .map(chunk -> runChunk(chunk, Math.min(CHUNK_TRIALS, trials - chunk * CHUNK_TRIALS)))
+                .sum();
+
+        return new Report(trials, victories, System.nanoTime() - start);
+    }
+
+    /**
+     * Runs the trials of a chunk on a single model.
+     *
+     * @param chunk  The index of the chunk, from which its random numbers are derived
+     * @param trials The number of trials of the chunk
+     * @return the number of trials that produced a magic square
+     */
+    private long runChunk(long chunk, long trials) {
+        SplittableRandom random = new SplittableRandom(mix(seed + chunk * 0x9E3779B97F4A7C15L));
+        MagicSquareModel model = new MagicSquareModel(size);
+        model.setEagerEvaluation(true);
+        long bound = (long) max - min + 1;
+        long victories = 0;
+
+        for (long trial = 0; trial < trials; trial++) {
+            model.reset();
+
+            fill:
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    model.play(i, j, (int) (min + random.nextLong(bound)));
+                    if (model.getStatus() != Status.IN_PROGRESS) {
+                        break fill;
+                    }
+                }
+            }
+
+            if (model.getStatus() == Status.VICTORY) {
+                victories++;
+            }
+        }
+        return victories;
+    }
+
+    /**
+     * Scrambles a seed so that the seeds of consecutive chunks lead to unrelated random numbers.
+     *
+     * @param value The value to scramble
+     * @return the scrambled value
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * This is the entry point of the simulation, which prints its report.
+     *
+     * @param args The command-line arguments: the size of the grids, the smallest and largest numbers, the number of
+     *             trials and (optionally) the seed
+     */
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Usage: MonteCarloSimulation <size> <min> <max> <trials> [seed]");
+            return;
+        }
+
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        MonteCarloSimulation simulation = new MonteCarloSimulation(Integer.parseInt(args[0]),
+                Integer.parseInt(args[1]), Integer.parseInt(args[2]), seed);
+        System.out.println(simulation.run(Long.parseLong(args[3])));
+    }
+}
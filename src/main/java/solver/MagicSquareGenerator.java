@@ -0,0 +1,130 @@
+package solver;
+
+/**
+ * This class constructs normal magic squares (using every number from 1 to size * size exactly once) of any size other
+ * than 2, in time proportional to the number of squares. Odd sizes use the Siamese method, sizes that are a multiple of
+ * 4 use the diagonal complement method, and the remaining even sizes use Strachey's method.
+ *
+ * @author Samuel Gamelin
+ */
+public final class MagicSquareGenerator {
+    private MagicSquareGenerator() {
+    }
+
+    /**
+     * Constructs a normal magic square of the provided size.
+     *
+     * @param size The size of the magic square
+     * @return The magic square as an array of rows
+     * @throws IllegalArgumentException If the size is less than 1 or is 2 (for which no normal magic square exists)
+     */
+    public static int[][] generate(int size) {
+        if (size < 1 || size == 2) {
+            throw new IllegalArgumentException("No normal magic square of size " + size);
+        }
+
+        if (size % 2 == 1) {
+            return siamese(size);
+        } else if (size % 4 == 0) {
+            return doublyEven(size);
+        } else {
+            return strachey(size);
+        }
+    }
+
+    /**
+     * Constructs an odd-sized magic square by starting in the middle of the top row and moving up and to the right
+     * (wrapping around the edges), moving down instead whenever the next square is already taken.
+     *
+     * @param size The size of the magic square, which must be odd
+     * @return The magic square
+     */
+    private static int[][] siamese(int size) {
+        int[][] grid = new int[size][size];
+        int x = 0;
+        int y = size / 2;
+
+        for (int number = 1; number <= size * size; number++) {
+            grid[x][y] = number;
+
+            if (number % size == 0) { // The next square up and to the right is always taken after every size numbers
+                x = (x + 1) % size;
+            } else {
+                x = (x - 1 + size) % size;
+                y = (y + 1) % size;
+            }
+        }
+
+        return grid;
+    }
+
+    /**
+     * Constructs a magic square whose size is a multiple of 4 by numbering the squares in order and replacing every
+     * number lying on the diagonals of each 4x4 block with its complement.
+     *
+     * @param size The size of the magic square, which must be a multiple of 4
+     * @return The magic square
+     */
+    private static int[][] doublyEven(int size) {
+        int[][] grid = new int[size][size];
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int number = i * size + j + 1;
+                boolean onDiagonal = i % 4 == j % 4 || i % 4 + j % 4 == 3;
+                grid[i][j] = onDiagonal ? size * size + 1 - number : number;
+            }
+        }
+
+        return grid;
+    }
+
+    /**
+     * Constructs a magic square whose size is even but not a multiple of 4 by tiling four copies of an odd magic square
+     * (of half the size) shifted by different amounts, then exchanging a few columns between the tiles to balance the
+     * sums.
+     *
+     * @param size The size of the magic square, which must be 2 modulo 4
+     * @return The magic square
+     */
+    private static int[][] strachey(int size) {
+        int half = size / 2;
+        int area = half * half;
+        int swapped = (size - 2) / 4;
+        int[][] quarter = siamese(half);
+        int[][] grid = new int[size][size];
+
+        // Tiles: top-left A, bottom-right A + area, top-right A + 2 * area, bottom-left A + 3 * area
+        for (int i = 0; i < half; i++) {
+            for (int j = 0; j < half; j++) {
+                int number = quarter[i][j];
+                grid[i][j] = number;
+                grid[i + half][j + half] = number + area;
+                grid[i][j + half] = number + 2 * area;
+                grid[i + half][j] = number + 3 * area;
+            }
+        }
+
+        for (int i = 0; i < half; i++) {
+            // Exchange the leftmost columns of the top-left and bottom-left tiles, shifted by one in the middle row
+            for (int k = 0; k < swapped; k++) {
+                int j = i == half / 2 ? k + 1 : k;
+                swap(grid, i, j, i + half, j);
+            }
+
+            // Exchange the rightmost columns of the top-right and bottom-right tiles
+            for (int k = 0; k < swapped - 1; k++) {
+                int j = size - 1 - k;
+                swap(grid, i, j, i + half, j);
+            }
+        }
+
+        return grid;
+    }
+
+    private static void swap(int[][] grid, int x1, int y1, int x2, int y2) {
+        int temporary = grid[x1][y1];
+        grid[x1][y1] = grid[x2][y2];
+        grid[x2][y2] = temporary;
+    }
+}
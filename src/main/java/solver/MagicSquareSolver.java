@@ -0,0 +1,365 @@
+package solver;
+
+import model.MagicSquareModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class finds and counts the ways in which a partially-filled MagicSquareModel can be completed into a magic
+ * square, using numbers from a range of values (optionally without repeating a number). The search places numbers in
+ * row-major order, completes any line with a single free square left (constraint propagation) and abandons any branch in
+ * which a line can no longer reach the magic sum. The top of the search tree is split into fork-join tasks so that
+ * idle threads can steal branches from busy ones.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareSolver {
+    /**
+     * The number of tasks, per thread of the pool, that the search tree is split into.
+     */
+    private static final int TASKS_PER_THREAD = 16;
+
+    /**
+     * The smallest number that may be placed on a free square.
+     */
+    private final int minValue;
+
+    /**
+     * The largest number that may be placed on a free square.
+     */
+    private final int maxValue;
+
+    /**
+     * Whether every number of a completed grid must be different.
+     */
+    private final boolean distinct;
+
+    /**
+     * The pool on which searches run.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a solver using numbers from the provided range, searching on the common fork-join pool.
+     *
+     * @param minValue The smallest number that may be placed on a free square
+     * @param maxValue The largest number that may be placed on a free square
+     * @param distinct Whether every number of a completed grid must be different
+     * @throws IllegalArgumentException If the range is empty, or holds more than Integer.MAX_VALUE numbers
+     */
+    public MagicSquareSolver(int minValue, int maxValue, boolean distinct) {
+        this(minValue, maxValue, distinct, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a solver using numbers from the provided range, searching on the provided pool.
+     *
+     * @param minValue The smallest number that may be placed on a free square
+     * @param maxValue The largest number that may be placed on a free square
+     * @param distinct Whether every number of a completed grid must be different
+     * @param pool     The pool on which searches should run
+     * @throws IllegalArgumentException If the range is empty, or holds more than Integer.MAX_VALUE numbers
+     */
+    public MagicSquareSolver(int minValue, int maxValue, boolean distinct, ForkJoinPool pool) {
+        if (minValue > maxValue) {
+            throw new IllegalArgumentException("Empty range of values: [" + minValue + ", " + maxValue + "]");
+        }
+        if ((long) maxValue - minValue >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Range of values too wide: [" + minValue + ", " + maxValue + "]");
+        }
+
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.distinct = distinct;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns a solver for normal magic squares of the provided size, which use every number from 1 to size * size
+     * exactly once.
+     *
+     * @param size The size of the grids to solve
+     * @return a solver for normal magic squares
+     */
+    public static MagicSquareSolver normal(int size) {
+        return new MagicSquareSolver(1, size * size, true);
+    }
+
+    /**
+     * Finds one completion of the grid of the provided model. The model itself is left untouched.
+     *
+     * @param model The model whose grid should be completed
+     * @return The completed grid as an array of rows, or null if the grid cannot be completed
+     */
+    public int[][] findCompletion(MagicSquareModel model) {
+        AtomicReference<int[][]> found = new AtomicReference<>();
+        long[] targets = targets(model);
+
+        for (long target = targets[0]; target <= targets[1] && found.get() == null; target++) {
+            SearchState state = initialState(model, target);
+            if (state != null) {
+                pool.invoke(new SearchTask(state, budget(), found));
+            }
+        }
+
+        return found.get();
+    }
+
+    /**
+     * Counts the completions of the grid of the provided model. The model itself is left untouched.
+     *
+     * @param model The model whose grid should be completed
+     * @return The number of different completed grids
+     */
+    public long countCompletions(MagicSquareModel model) {
+        long count = 0;
+        long[] targets = targets(model);
+
+        for (long target = targets[0]; target <= targets[1]; target++) {
+            SearchState state = initialState(model, target);
+            if (state != null) {
+                count += pool.invoke(new SearchTask(state, budget(), null));
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Plays every free square of a model using the numbers of a completed grid.
+     *
+     * @param completion The completed grid, as returned by {@link #findCompletion(MagicSquareModel)}
+     * @param model      The model to play the numbers on
+     */
+    public static void apply(int[][] completion, MagicSquareModel model) {
+        for (int i = 0; i < completion.length; i++) {
+            for (int j = 0; j < completion.length; j++) {
+                if (!model.isOccupied(i, j)) {
+                    model.play(i, j, completion[i][j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of leaf tasks the search tree should be split into.
+     *
+     * @return the splitting budget of a search
+     */
+    private int budget() {
+        return pool.getParallelism() * TASKS_PER_THREAD;
+    }
+
+    /**
+     * Creates the search state of a magic sum, holding the squares already occupied on the model. States are only
+     * created one at a time, as each of them holds a copy of the grid.
+     *
+     * @param model  The model whose grid should be completed
+     * @param target The magic sum of the completions to search
+     * @return The state to search, or null if the occupied squares already rule out every completion with this sum
+     */
+    private SearchState initialState(MagicSquareModel model, long target) {
+        int size = model.getSize();
+        SearchState state = new SearchState(size, target, minValue, maxValue, distinct);
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (model.isOccupied(i, j)) {
+                    int number = model.getNumber(i, j);
+                    boolean consistent = (!distinct || state.isAvailable(number) || number < minValue
+                            || number > maxValue) && state.place(i * size + j, number);
+                    if (!consistent) {
+                        return null;
+                    }
+                }
+            }
+        }
+
+        // The occupied squares are part of the puzzle, so they are never rolled back
+        state.trailSize = 0;
+        return state;
+    }
+
+    /**
+     * Determines which magic sums a completion of the model's grid could have. When values are distinct and cover the
+     * range exactly, the sum is fixed by the range. Otherwise, if a line of the grid is already full, its sum is the only
+     * candidate. Failing both, the sum must be reachable by every line: between the sum of its occupied squares plus
+     * the smallest value on each free square, and the same with the largest value.
+     *
+     * @param model The model whose grid should be completed
+     * @return The smallest and the largest candidate magic sums, the former being larger if there is no candidate
+     */
+    private long[] targets(MagicSquareModel model) {
+        int size = model.getSize();
+
+        if (distinct && (long) maxValue - minValue + 1 == (long) size * size) {
+            long total = ((long) minValue + maxValue) * size * size / 2;
+            return total % size == 0 ? new long[]{total / size, total / size} : new long[]{1, 0};
+        }
+
+        // The sums and free squares of every row, then every column, then both diagonals
+        long[] sums = new long[2 * size + 2];
+        int[] free = new int[2 * size + 2];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                boolean occupied = model.isOccupied(i, j);
+                int number = occupied ? model.getNumber(i, j) : 0;
+                int vacant = occupied ? 0 : 1;
+                sums[i] += number;
+                free[i] += vacant;
+                sums[size + j] += number;
+                free[size + j] += vacant;
+                if (i == j) {
+                    sums[2 * size] += number;
+                    free[2 * size] += vacant;
+                }
+                if (i + j == size - 1) {
+                    sums[2 * size + 1] += number;
+                    free[2 * size + 1] += vacant;
+                }
+            }
+        }
+
+        for (int line = 0; line < size; line++) {
+            if (free[line] == 0) {
+                return new long[]{sums[line], sums[line]};
+            }
+        }
+
+        long first = Long.MIN_VALUE;
+        long last = Long.MAX_VALUE;
+        for (int line = 0; line < sums.length; line++) {
+            first = Math.max(first, sums[line] + (long) free[line] * minValue);
+            last = Math.min(last, sums[line] + (long) free[line] * maxValue);
+        }
+        return new long[]{first, last};
+    }
+
+    /**
+     * A task searching the completions of a state. While its budget allows it, the task forks one subtask per value of
+     * the next free square, and otherwise searches the rest of the tree on its own.
+     */
+    private static class SearchTask extends RecursiveTask<Long> {
+        /**
+         * The state searched by this task, which the task owns.
+         */
+        private final SearchState state;
+
+        /**
+         * The number of leaf tasks this task may still be split into.
+         */
+        private final int budget;
+
+        /**
+         * Where the first completion found is stored when only one completion is wanted, or null when counting.
+         */
+        private final AtomicReference<int[][]> found;
+
+        /**
+         * Constructs a task searching the completions of a state.
+         *
+         * @param state  The state to search, which must not be used by another task
+         * @param budget The number of leaf tasks the task may be split into
+         * @param found  Where to store the first completion found, or null to count every completion
+         */
+        SearchTask(SearchState state, int budget, AtomicReference<int[][]> found) {
+            this.state = state;
+            this.budget = budget;
+            this.found = found;
+        }
+
+        @Override
+        protected Long compute() {
+            if (budget <= 1) {
+                return search(state);
+            }
+
+            if (isSolved() || !state.propagate()) {
+                return 0L;
+            }
+
+            int index = state.firstFreeSquare();
+            if (index < 0) {
+                return complete(state);
+            }
+
+            List<SearchTask> subtasks = new ArrayList<>();
+            int branches = state.maxValue - state.minValue + 1;
+            for (int value = state.minValue; value <= state.maxValue; value++) {
+                if (state.isAvailable(value)) {
+                    SearchState child = new SearchState(state);
+                    if (child.place(index, value)) {
+                        subtasks.add(new SearchTask(child, budget / branches, found));
+                    }
+                }
+            }
+
+            long count = 0;
+            for (SearchTask subtask : invokeAll(subtasks)) {
+                count += subtask.join();
+            }
+            return count;
+        }
+
+        /**
+         * Searches the completions of a state on the current thread.
+         *
+         * @param state The state to complete, which is rolled back to how it was once the search is over
+         * @return The number of completions found
+         */
+        private long search(SearchState state) {
+            if (isSolved()) {
+                return 0;
+            }
+
+            int mark = state.trailSize;
+            long count = 0;
+
+            if (state.propagate()) {
+                int index = state.firstFreeSquare();
+                if (index < 0) {
+                    count = complete(state);
+                } else {
+                    for (int value = state.minValue; value <= state.maxValue && !isSolved(); value++) {
+                        if (state.isAvailable(value)) {
+                            int valueMark = state.trailSize;
+                            if (state.place(index, value)) {
+                                count += search(state);
+                            }
+                            state.rollback(valueMark);
+                        }
+                    }
+                }
+            }
+
+            state.rollback(mark);
+            return count;
+        }
+
+        /**
+         * Records a completed grid.
+         *
+         * @param state The full state
+         * @return 1, the number of completions found
+         */
+        private long complete(SearchState state) {
+            if (found != null) {
+                found.compareAndSet(null, state.toGrid());
+            }
+            return 1;
+        }
+
+        /**
+         * Returns whether the search can stop because a single completion was wanted and has been found.
+         *
+         * @return true if the search is over
+         */
+        private boolean isSolved() {
+            return found != null && found.get() != null;
+        }
+    }
+}
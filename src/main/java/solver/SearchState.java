@@ -0,0 +1,323 @@
+package solver;
+
+import java.util.Arrays;
+
+/**
+ * This class holds a partially-filled grid being completed by the solver, along with the sum and the number of free
+ * squares of every row, column and diagonal. Numbers are placed with {@link #place(int, int)}, which also checks the
+ * constraints of the lines going through the square, and removed again by rolling back to an earlier point of the
+ * trail of placed squares.
+ *
+ * @author Samuel Gamelin
+ */
+final class SearchState {
+    /**
+     * The size of the grid.
+     */
+    final int size;
+
+    /**
+     * The sum every row, column and diagonal must reach.
+     */
+    final long target;
+
+    /**
+     * The smallest value that may be placed on a square.
+     */
+    final int minValue;
+
+    /**
+     * The largest value that may be placed on a square.
+     */
+    final int maxValue;
+
+    /**
+     * Whether every square must hold a different value.
+     */
+    final boolean distinct;
+
+    /**
+     * The values of the squares, in row-major order.
+     */
+    final int[] cells;
+
+    /**
+     * Whether each square holds a value, in row-major order.
+     */
+    final boolean[] filled;
+
+    /**
+     * The sum of the values placed in each row.
+     */
+    final long[] rowSums;
+
+    /**
+     * The sum of the values placed in each column.
+     */
+    final long[] columnSums;
+
+    /**
+     * The sums of the values placed on the negative-sloped and positive-sloped diagonals.
+     */
+    final long[] diagonalSums;
+
+    /**
+     * The number of free squares in each row.
+     */
+    final int[] rowFree;
+
+    /**
+     * The number of free squares in each column.
+     */
+    final int[] columnFree;
+
+    /**
+     * The number of free squares on the negative-sloped and positive-sloped diagonals.
+     */
+    final int[] diagonalFree;
+
+    /**
+     * The values already used (offset by the minimum value), only tracked when values must be distinct.
+     */
+    final boolean[] used;
+
+    /**
+     * The indices of the squares placed by the solver, in the order in which they were placed.
+     */
+    final int[] trail;
+
+    /**
+     * The number of squares on the trail.
+     */
+    int trailSize;
+
+    /**
+     * Constructs the state of an empty grid.
+     *
+     * @param size     The size of the grid
+     * @param target   The sum every row, column and diagonal must reach
+     * @param minValue The smallest value that may be placed on a square
+     * @param maxValue The largest value that may be placed on a square
+     * @param distinct Whether every square must hold a different value
+     */
+    SearchState(int size, long target, int minValue, int maxValue, boolean distinct) {
+        this.size = size;
+        this.target = target;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.distinct = distinct;
+        this.cells = new int[size * size];
+        this.filled = new boolean[size * size];
+        this.rowSums = new long[size];
+        this.columnSums = new long[size];
+        this.diagonalSums = new long[2];
+        this.rowFree = new int[size];
+        this.columnFree = new int[size];
+        this.diagonalFree = new int[]{size, size};
+        this.used = distinct ? new boolean[maxValue - minValue + 1] : null;
+        this.trail = new int[size * size];
+
+        Arrays.fill(rowFree, size);
+        Arrays.fill(columnFree, size);
+    }
+
+    /**
+     * Creates an independent copy of the provided state, so that it can be searched by another task.
+     *
+     * @param other The state to copy
+     */
+    SearchState(SearchState other) {
+        this.size = other.size;
+        this.target = other.target;
+        this.minValue = other.minValue;
+        this.maxValue = other.maxValue;
+        this.distinct = other.distinct;
+        this.cells = other.cells.clone();
+        this.filled = other.filled.clone();
+        this.rowSums = other.rowSums.clone();
+        this.columnSums = other.columnSums.clone();
+        this.diagonalSums = other.diagonalSums.clone();
+        this.rowFree = other.rowFree.clone();
+        this.columnFree = other.columnFree.clone();
+        this.diagonalFree = other.diagonalFree.clone();
+        this.used = other.used == null ? null : other.used.clone();
+        this.trail = other.trail.clone();
+        this.trailSize = other.trailSize;
+    }
+
+    /**
+     * Returns whether a value may still be placed on a free square.
+     *
+     * @param value The value
+     * @return true if the value is within range and, if values must be distinct, not used yet
+     */
+    boolean isAvailable(long value) {
+        return value >= minValue && value <= maxValue && (used == null || !used[(int) (value - minValue)]);
+    }
+
+    /**
+     * Places a value on a free square and checks the constraints of every line going through it. The value is placed
+     * (and recorded on the trail) even if a constraint is violated, so that the caller can always roll back the same
+     * way.
+     *
+     * @param index The index of the square
+     * @param value The value to place
+     * @return true if no constraint is violated, false otherwise
+     */
+    boolean place(int index, int value) {
+        int x = index / size;
+        int y = index % size;
+
+        cells[index] = value;
+        filled[index] = true;
+        trail[trailSize++] = index;
+        if (used != null && value >= minValue && value <= maxValue) {
+            used[value - minValue] = true;
+        }
+
+        boolean consistent = check(rowSums[x] += value, --rowFree[x]);
+        consistent &= check(columnSums[y] += value, --columnFree[y]);
+        if (x == y) {
+            consistent &= check(diagonalSums[0] += value, --diagonalFree[0]);
+        }
+        if (x + y == size - 1) {
+            consistent &= check(diagonalSums[1] += value, --diagonalFree[1]);
+        }
+
+        return consistent;
+    }
+
+    /**
+     * Removes every value placed since the trail had the provided size.
+     *
+     * @param mark The size of the trail to roll back to
+     */
+    void rollback(int mark) {
+        while (trailSize > mark) {
+            int index = trail[--trailSize];
+            int x = index / size;
+            int y = index % size;
+            int value = cells[index];
+
+            filled[index] = false;
+            if (used != null && value >= minValue && value <= maxValue) {
+                used[value - minValue] = false;
+            }
+
+            rowSums[x] -= value;
+            rowFree[x]++;
+            columnSums[y] -= value;
+            columnFree[y]++;
+            if (x == y) {
+                diagonalSums[0] -= value;
+                diagonalFree[0]++;
+            }
+            if (x + y == size - 1) {
+                diagonalSums[1] -= value;
+                diagonalFree[1]++;
+            }
+        }
+    }
+
+    /**
+     * Places every value that is forced by a line with a single free square left, until no line is in that situation.
+     *
+     * @return true if every forced value could be placed without violating a constraint, false otherwise
+     */
+    boolean propagate() {
+        boolean changed = true;
+
+        while (changed) {
+            changed = false;
+
+            for (int i = 0; i < size; i++) {
+                if (rowFree[i] == 1) {
+                    if (!placeForced(i * size, 1, target - rowSums[i])) {
+                        return false;
+                    }
+                    changed = true;
+                }
+                if (columnFree[i] == 1) {
+                    if (!placeForced(i, size, target - columnSums[i])) {
+                        return false;
+                    }
+                    changed = true;
+                }
+            }
+            if (diagonalFree[0] == 1) {
+                if (!placeForced(0, size + 1, target - diagonalSums[0])) {
+                    return false;
+                }
+                changed = true;
+            }
+            if (diagonalFree[1] == 1) {
+                if (!placeForced(size - 1, size - 1, target - diagonalSums[1])) {
+                    return false;
+                }
+                changed = true;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Finds the single free square of a line and places the value that completes the line.
+     *
+     * @param start The index of the first square of the line
+     * @param step  The distance between two consecutive squares of the line
+     * @param value The value completing the line
+     * @return true if the value could be placed without violating a constraint, false otherwise
+     */
+    private boolean placeForced(int start, int step, long value) {
+        if (!isAvailable(value)) {
+            return false;
+        }
+
+        for (int k = 0, index = start; k < size; k++, index += step) {
+            if (!filled[index]) {
+                return place(index, (int) value);
+            }
+        }
+
+        throw new IllegalStateException("No free square on a line with one free square");
+    }
+
+    /**
+     * Returns the index of the first free square, in row-major order.
+     *
+     * @return the index of the first free square, or -1 if the grid is full
+     */
+    int firstFreeSquare() {
+        for (int i = 0; i < filled.length; i++) {
+            if (!filled[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a copy of the grid as an array of rows.
+     *
+     * @return the grid
+     */
+    int[][] toGrid() {
+        int[][] grid = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(cells, i * size, grid[i], 0, size);
+        }
+        return grid;
+    }
+
+    /**
+     * Checks whether a line can still reach the target sum.
+     *
+     * @param sum  The sum of the line so far
+     * @param free The number of free squares left on the line
+     * @return true if the target sum can still be reached, false otherwise
+     */
+    private boolean check(long sum, int free) {
+        return sum + (long) free * minValue <= target && sum + (long) free * maxValue >= target;
+    }
+}
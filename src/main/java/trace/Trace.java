@@ -0,0 +1,406 @@
+package trace;
+
+import model.PackedMagicSquareEvent;
+import model.Status;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * This class represents a trace: a sequence of calls to play and reset on a model of a given size, each play paired
+ * with the event that the model is expected to report for it. Replaying a trace against a model (see
+ * {@link TraceRunner}) checks that it behaves exactly as when the trace was generated or recorded, and measures how
+ * fast it does so. Traces are immutable and store their steps in primitive arrays, so traces of millions of steps can
+ * be replayed without allocating.
+ * <p>
+ * Traces are saved as text, with one step per line, after a line giving the size of the grid:
+ * <pre>
+ * size 3
+ * play 0 0 2 IN_PROGRESS
+ * play 0 0 7 rejected
+ * reset
+ * </pre>
+ * A play is followed by its coordinates, its number, and either the status expected in the event of the move or
+ * "rejected" if the model is expected to reject the move without notifying its listeners. Blank lines and lines
+ * starting with # are ignored. A trace always starts on an empty grid.
+ *
+ * @author Samuel Gamelin
+ */
+public final class Trace {
+    /**
+     * The expected event of a play that the model rejects. No packed event has this value, as its type bits are unused.
+     */
+    public static final long NO_EVENT = -1;
+
+    /**
+     * The kind of a step playing a number on a square.
+     */
+    private static final byte PLAY = 0;
+
+    /**
+     * The kind of a step resetting the grid.
+     */
+    private static final byte RESET = 1;
+
+    /**
+     * The size of the grid the trace is played on.
+     */
+    private final int size;
+
+    /**
+     * The number of steps of the trace.
+     */
+    private final int length;
+
+    /**
+     * The kind of each step, PLAY or RESET.
+     */
+    private final byte[] operations;
+
+    /**
+     * The x-coordinate of each play.
+     */
+    private final int[] xs;
+
+    /**
+     * The y-coordinate of each play.
+     */
+    private final int[] ys;
+
+    /**
+     * The number of each play.
+     */
+    private final int[] numbers;
+
+    /**
+     * The packed event expected for each play, or NO_EVENT.
+     */
+    private final long[] events;
+
+    /**
+     * Constructs a trace from the steps added to a builder, which are copied.
+     *
+     * @param builder The builder of the trace
+     */
+    private Trace(Builder builder) {
+        this.size = builder.size;
+        this.length = builder.length;
+        this.operations = Arrays.copyOf(builder.operations, length);
+        this.xs = Arrays.copyOf(builder.xs, length);
+        this.ys = Arrays.copyOf(builder.ys, length);
+        this.numbers = Arrays.copyOf(builder.numbers, length);
+        this.events = Arrays.copyOf(builder.events, length);
+    }
+
+    /**
+     * Returns the size of the grid the trace is played on.
+     *
+     * @return the size of the grid the trace is played on
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of steps of the trace.
+     *
+     * @return the number of steps of the trace
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns whether a step is a reset.
+     *
+     * @param step The index of the step
+     * @return true if the step resets the model, false if it is a play
+     */
+    public boolean isReset(int step) {
+        return operations[step] == RESET;
+    }
+
+    /**
+     * @param step The index of a play
+     * @return the x-coordinate of the play
+     */
+    public int getX(int step) {
+        return xs[step];
+    }
+
+    /**
+     * @param step The index of a play
+     * @return the y-coordinate of the play
+     */
+    public int getY(int step) {
+        return ys[step];
+    }
+
+    /**
+     * @param step The index of a play
+     * @return the number of the play
+     */
+    public int getNumber(int step) {
+        return numbers[step];
+    }
+
+    /**
+     * Returns the event the model is expected to report for a play, encoded as a {@link PackedMagicSquareEvent}.
+     *
+     * @param step The index of a play
+     * @return the packed event expected for the play, or NO_EVENT if the play is expected to be rejected
+     */
+    public long getExpectedEvent(int step) {
+        return events[step];
+    }
+
+    /**
+     * Returns the number of steps of the trace that are plays.
+     *
+     * @return the number of steps of the trace that are plays
+     */
+    public int getPlayCount() {
+        int plays = 0;
+        for (int step = 0; step < length; step++) {
+            if (operations[step] == PLAY) {
+                plays++;
+            }
+        }
+        return plays;
+    }
+
+    /**
+     * Returns a step of the trace as it is written in the text format.
+     *
+     * @param step The index of the step
+     * @return the line of the step
+     */
+    public String describe(int step) {
+        if (operations[step] == RESET) {
+            return "reset";
+        }
+        return "play " + xs[step] + " " + ys[step] + " " + numbers[step] + " " + describeEvent(events[step]);
+    }
+
+    /**
+     * Returns the outcome of a play as it is written in the text format.
+     *
+     * @param event The packed event reported for the play, or NO_EVENT
+     * @return the status of the event, or "rejected"
+     */
+    static String describeEvent(long event) {
+        return event == NO_EVENT ? "rejected" : PackedMagicSquareEvent.getStatus(event).name();
+    }
+
+    /**
+     * Writes this trace in the text format. The writer is neither buffered nor closed by this method.
+     *
+     * @param writer The writer to write to
+     * @throws IOException If the trace cannot be written
+     */
+    public void write(Writer writer) throws IOException {
+        writer.write("size " + size + "\n");
+        for (int step = 0; step < length; step++) {
+            writer.write(describe(step));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Reads a trace in the text format. The reader is not closed by this method.
+     *
+     * @param reader The reader to read from
+     * @return the trace
+     * @throws IOException If the trace cannot be read, or is not in the text format
+     */
+    public static Trace read(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        Builder builder = null;
+        int lineNumber = 0;
+
+        for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] tokens = line.split("\\s+");
+            try {
+                if (builder == null) {
+                    if (tokens.length != 2 || !tokens[0].equals("size")) {
+                        throw new IOException("Expected the size of the grid");
+                    }
+                    builder = new Builder(Integer.parseInt(tokens[1]));
+                } else if (tokens.length == 1 && tokens[0].equals("reset")) {
+                    builder.reset();
+                } else if (tokens.length == 5 && tokens[0].equals("play")) {
+                    int x = Integer.parseInt(tokens[1]);
+                    int y = Integer.parseInt(tokens[2]);
+                    int number = Integer.parseInt(tokens[3]);
+                    if (tokens[4].equals("rejected")) {
+                        builder.playRejected(x, y, number);
+                    } else {
+                        builder.play(x, y, number, Status.valueOf(tokens[4]));
+                    }
+                } else {
+                    throw new IOException("Unknown step: " + line);
+                }
+            } catch (IllegalArgumentException e) { // Includes malformed numbers and unknown statuses
+                throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+            } catch (IOException e) {
+                throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+
+        if (builder == null) {
+            throw new IOException("The trace is empty");
+        }
+        return builder.build();
+    }
+
+    /**
+     * This class builds a trace one step at a time.
+     */
+    public static class Builder {
+        /**
+         * The size of the grid the trace is played on.
+         */
+        private final int size;
+
+        /**
+         * The number of steps added so far.
+         */
+        private int length;
+
+        /**
+         * The kind of each step, PLAY or RESET. The arrays of the steps grow together as steps are added.
+         */
+        private byte[] operations = new byte[16];
+
+        /**
+         * The x-coordinate of each play.
+         */
+        private int[] xs = new int[16];
+
+        /**
+         * The y-coordinate of each play.
+         */
+        private int[] ys = new int[16];
+
+        /**
+         * The number of each play.
+         */
+        private int[] numbers = new int[16];
+
+        /**
+         * The packed event expected for each play, or NO_EVENT.
+         */
+        private long[] events = new long[16];
+
+        /**
+         * Constructs a builder of a trace played on a grid of the provided size.
+         *
+         * @param size The size of the grid
+         * @throws IllegalArgumentException If the size is not positive, or too large for packed events
+         */
+        public Builder(int size) {
+            if (size < 1 || size > PackedMagicSquareEvent.MAX_SIZE) {
+                throw new IllegalArgumentException("Invalid grid size: " + size);
+            }
+            this.size = size;
+        }
+
+        /**
+         * Adds a play that the model is expected to accept.
+         *
+         * @param x      The x-coordinate of the play
+         * @param y      The y-coordinate of the play
+         * @param number The number of the play
+         * @param status The status of the game expected after the play
+         * @return this builder
+         * @throws IllegalArgumentException If the coordinates are outside of the grid
+         */
+        public Builder play(int x, int y, int number, Status status) {
+            if (x < 0 || y < 0 || x >= size || y >= size) {
+                throw new IllegalArgumentException("(" + x + ", " + y + ") is outside of the grid");
+            }
+            return add(PLAY, x, y, number, PackedMagicSquareEvent.pack(x, y, number, status));
+        }
+
+        /**
+         * Adds a play that the model is expected to reject.
+         *
+         * @param x      The x-coordinate of the play
+         * @param y      The y-coordinate of the play
+         * @param number The number of the play
+         * @return this builder
+         */
+        public Builder playRejected(int x, int y, int number) {
+            return add(PLAY, x, y, number, NO_EVENT);
+        }
+
+        /**
+         * Adds a reset.
+         *
+         * @return this builder
+         */
+        public Builder reset() {
+            return add(RESET, 0, 0, 0, NO_EVENT);
+        }
+
+        /**
+         * Adds a play expected to report the provided event, as captured from a model.
+         *
+         * @param x      The x-coordinate of the play
+         * @param y      The y-coordinate of the play
+         * @param number The number of the play
+         * @param event  The packed event reported for the play, or NO_EVENT
+         * @return this builder
+         */
+        Builder play(int x, int y, int number, long event) {
+            return add(PLAY, x, y, number, event);
+        }
+
+        /**
+         * Adds a step, growing the arrays of the steps if they are full.
+         *
+         * @param operation The kind of the step, PLAY or RESET
+         * @param x         The x-coordinate of the play
+         * @param y         The y-coordinate of the play
+         * @param number    The number of the play
+         * @param event     The packed event expected for the play, or NO_EVENT
+         * @return this builder
+         */
+        private Builder add(byte operation, int x, int y, int number, long event) {
+            if (length == operations.length) {
+                int capacity = length * 2;
+                operations = Arrays.copyOf(operations, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                numbers = Arrays.copyOf(numbers, capacity);
+                events = Arrays.copyOf(events, capacity);
+            }
+
+            operations[length] = operation;
+            xs[length] = x;
+            ys[length] = y;
+            numbers[length] = number;
+            events[length] = event;
+            length++;
+            return this;
+        }
+
+        /**
+         * Returns the trace made of the steps added so far.
+         *
+         * @return the trace made of the steps added so far
+         */
+        public Trace build() {
+            return new Trace(this);
+        }
+    }
+}
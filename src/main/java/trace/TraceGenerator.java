@@ -0,0 +1,185 @@
+package trace;
+
+import model.Status;
+import solver.MagicSquareGenerator;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * This class generates large randomized traces. The expected events are not taken from the model but from a simple,
+ * independent reference implementation of the game kept by the generator, so replaying a generated trace checks the
+ * model against that reference.
+ * <p>
+ * Each game fills the free squares in a random order, either with the numbers of a magic square (so that games are
+ * regularly won) or with small random numbers (so that lines often agree by chance). Moves on occupied squares, moves
+ * outside of the grid, moves after the end of a game and resets in the middle of a game are mixed in, all of which the
+ * model must handle as the reference does. The same seed always produces the same trace.
+ *
+ * @author Samuel Gamelin
+ */
+public class TraceGenerator {
+    /**
+     * The size of the grids.
+     */
+    private final int size;
+
+    /**
+     * The source of every random choice.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * A magic square of the generator's size, or null if there is none.
+     */
+    private final int[][] magicSquare;
+
+    /**
+     * The numbers on the squares of the reference game, in row-major order.
+     */
+    private final int[] cells;
+
+    /**
+     * Whether each square of the reference game is occupied, in row-major order.
+     */
+    private final boolean[] occupied;
+
+    /**
+     * The squares of the current game in the order in which they are filled.
+     */
+    private final int[] order;
+
+    /**
+     * The numbers the squares of the current game are filled with, in the order of {@link #order}.
+     */
+    private final int[] plan;
+
+    /**
+     * The number of squares filled so far in the current game.
+     */
+    private int filled;
+
+    /**
+     * The status of the reference game.
+     */
+    private Status status;
+
+    /**
+     * Constructs a generator of traces played on grids of the provided size.
+     *
+     * @param size The size of the grids
+     * @param seed The seed of every random choice
+     * @throws IllegalArgumentException If the size is not positive
+     */
+    public TraceGenerator(int size, long seed) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid grid size: " + size);
+        }
+
+        this.size = size;
+        this.random = new SplittableRandom(seed);
+        this.magicSquare = size == 2 ? null : MagicSquareGenerator.generate(size);
+        this.cells = new int[size * size];
+        this.occupied = new boolean[size * size];
+        this.order = new int[size * size];
+        this.plan = new int[size * size];
+        for (int square = 0; square < order.length; square++) {
+            order[square] = square;
+        }
+    }
+
+    /**
+     * Generates a trace. Consecutive traces of the same generator continue with different random choices.
+     *
+     * @param steps The number of steps of the trace
+     * @return the trace
+     */
+    public Trace generate(int steps) {
+        Trace.Builder builder = new Trace.Builder(size);
+        newGame();
+
+        for (int step = 0; step < steps; step++) {
+            int choice = random.nextInt(100);
+            if (status != Status.IN_PROGRESS ? choice < 50 : random.nextInt(4 * order.length) == 0) {
+                builder.reset();
+                newGame();
+            } else if (status != Status.IN_PROGRESS || choice < 5) { // A move that must be rejected
+                int square = random.nextInt(order.length);
+                if (filled > 0 && choice % 2 == 0) {
+                    square = order[random.nextInt(filled)];
+                }
+                if (status == Status.IN_PROGRESS && !occupied[square]) { // Move outside of the grid instead
+                    builder.playRejected(choice % 2 == 0 ? -1 : size, square % size, random.nextInt(10));
+                } else {
+                    builder.playRejected(square / size, square % size, random.nextInt(10));
+                }
+            } else {
+                int square = order[filled];
+                int number = plan[filled];
+                cells[square] = number;
+                occupied[square] = true;
+                if (++filled == order.length) {
+                    status = evaluate();
+                }
+                builder.play(square / size, square % size, number, status);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Starts a new reference game, choosing the order in which squares are filled and the numbers they are filled with.
+     */
+    private void newGame() {
+        filled = 0;
+        status = Status.IN_PROGRESS;
+        Arrays.fill(occupied, false);
+
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+
+        boolean magic = magicSquare != null && random.nextBoolean();
+        int bound = random.nextInt(3) + 1;
+        for (int k = 0; k < order.length; k++) {
+            int square = order[k];
+            plan[k] = magic ? magicSquare[square / size][square % size] : random.nextInt(bound) + 1;
+        }
+    }
+
+    /**
+     * Determines the outcome of the filled reference grid: a victory if every row, column and both diagonals share the
+     * same sum.
+     *
+     * @return VICTORY if the grid is a magic square, NO_VICTORY otherwise
+     */
+    private Status evaluate() {
+        long target = 0;
+        long first = 0;
+        long second = 0;
+        for (int i = 0; i < size; i++) {
+            target += cells[i];
+            first += cells[i * size + i];
+            second += cells[i * size + size - 1 - i];
+        }
+        if (first != target || second != target) {
+            return Status.NO_VICTORY;
+        }
+
+        for (int i = 0; i < size; i++) {
+            long row = 0;
+            long column = 0;
+            for (int j = 0; j < size; j++) {
+                row += cells[i * size + j];
+                column += cells[j * size + i];
+            }
+            if (row != target || column != target) {
+                return Status.NO_VICTORY;
+            }
+        }
+        return Status.VICTORY;
+    }
+}
@@ -0,0 +1,34 @@
+package trace;
+
+/**
+ * This exception is thrown when a model does not report the event expected by a step of a trace. It records which step
+ * the model diverged at.
+ *
+ * @author Samuel Gamelin
+ */
+public class TraceMismatchException extends Exception {
+    /**
+     * The index of the step the model diverged at.
+     */
+    private final int step;
+
+    /**
+     * Constructs an exception for a step of a trace.
+     *
+     * @param message The description of the mismatch
+     * @param step    The index of the step the model diverged at
+     */
+    public TraceMismatchException(String message, int step) {
+        super(message);
+        this.step = step;
+    }
+
+    /**
+     * Returns the index of the step the model diverged at.
+     *
+     * @return the index of the step the model diverged at
+     */
+    public int getStep() {
+        return step;
+    }
+}
@@ -0,0 +1,91 @@
+package trace;
+
+import model.MagicSquareBoard;
+import model.MagicSquareModel;
+import model.Status;
+
+/**
+ * This class records the calls made to a model as a trace, along with the events the model reports, so that a session
+ * (for instance one that exposed a bug) can be saved and replayed later. Plays and resets must be made through the
+ * recorder to be recorded, and the model must start with an empty grid, as traces do.
+ *
+ * @author Samuel Gamelin
+ */
+public class TraceRecorder implements MagicSquareBoard {
+    /**
+     * The model whose calls are recorded.
+     */
+    private final MagicSquareModel model;
+
+    /**
+     * The builder of the recorded trace.
+     */
+    private final Trace.Builder builder;
+
+    /**
+     * The last event reported by the model, or Trace.NO_EVENT if it reported none since the last play.
+     */
+    private long lastEvent;
+
+    /**
+     * Constructs a recorder of the calls made to a model.
+     *
+     * @param model The model to record, whose grid must be empty
+     * @throws IllegalArgumentException If a square of the model's grid is occupied
+     */
+    public TraceRecorder(MagicSquareModel model) {
+        for (int i = 0; i < model.getSize(); i++) {
+            for (int j = 0; j < model.getSize(); j++) {
+                if (model.isOccupied(i, j)) {
+                    throw new IllegalArgumentException("The model's grid is not empty");
+                }
+            }
+        }
+
+        this.model = model;
+        this.builder = new Trace.Builder(model.getSize());
+        model.addPackedMagicSquareListener(event -> lastEvent = event);
+    }
+
+    /**
+     * Returns the trace of the calls recorded so far.
+     *
+     * @return the trace of the calls recorded so far
+     */
+    public Trace getTrace() {
+        return builder.build();
+    }
+
+    @Override
+    public int getSize() {
+        return model.getSize();
+    }
+
+    @Override
+    public void play(int x, int y, int number) {
+        lastEvent = Trace.NO_EVENT;
+        model.play(x, y, number);
+        builder.play(x, y, number, lastEvent);
+    }
+
+    @Override
+    public boolean isOccupied(int x, int y) {
+        return model.isOccupied(x, y);
+    }
+
+    @Override
+    public int getNumber(int x, int y) {
+        return model.getNumber(x, y);
+    }
+
+    @Override
+    public Status getStatus() {
+        return model.getStatus();
+    }
+
+    @Override
+    public void reset() {
+        model.reset();
+        builder.reset();
+    }
+}
@@ -0,0 +1,260 @@
+package trace;
+
+import model.MagicSquareModel;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * This class replays traces against a model, either to check that the model reports every expected event (as a
+ * conformance test) or to measure how many moves per second it plays and how many bytes it allocates per move (as a
+ * benchmark). The runner listens to the model with a packed listener, so replaying does not allocate by itself, and
+ * resets the model before every replay since traces start on an empty grid.
+ *
+ * @author Samuel Gamelin
+ */
+public class TraceRunner {
+    /**
+     * This class represents the outcome of a measurement.
+     */
+    public static class Result {
+        /**
+         * The number of plays made.
+         */
+        private final long moves;
+
+        /**
+         * The time taken to make them, in nanoseconds.
+         */
+        private final long nanos;
+
+        /**
+         * The number of bytes allocated while making them, or -1 if the JVM cannot tell.
+         */
+        private final long allocatedBytes;
+
+        /**
+         * Constructs the outcome of a measurement.
+         *
+         * @param moves          The number of plays made
+         * @param nanos          The time taken to make them, in nanoseconds
+         * @param allocatedBytes The number of bytes allocated while making them, or -1 if unknown
+         */
+        Result(long moves, long nanos, long allocatedBytes) {
+            this.moves = moves;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        /**
+         * Returns the number of plays made.
+         *
+         * @return the number of plays made
+         */
+        public long getMoves() {
+            return moves;
+        }
+
+        /**
+         * Returns the time taken to make the plays, in nanoseconds.
+         *
+         * @return the time taken to make the plays, in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the number of plays per second.
+         *
+         * @return the number of plays per second
+         */
+        public double getMovesPerSecond() {
+            return nanos == 0 ? 0 : moves * 1e9 / nanos;
+        }
+
+        /**
+         * Returns the number of bytes allocated per play, or NaN if the JVM cannot measure allocations.
+         *
+         * @return the number of bytes allocated per play, or NaN if the JVM cannot measure allocations
+         */
+        public double getBytesPerMove() {
+            return allocatedBytes < 0 || moves == 0 ? Double.NaN : (double) allocatedBytes / moves;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d moves in %.3f s (%.0f moves/sec), %.2f bytes allocated per move", moves,
+                    nanos / 1e9, getMovesPerSecond(), getBytesPerMove());
+        }
+    }
+
+    /**
+     * The model the traces are replayed against.
+     */
+    private final MagicSquareModel model;
+
+    /**
+     * The last event reported by the model, or Trace.NO_EVENT if it reported none since the last play.
+     */
+    private long lastEvent;
+
+    /**
+     * Constructs a runner replaying traces against a new model of the provided size.
+     *
+     * @param size The size of the model's grid
+     */
+    public TraceRunner(int size) {
+        this(new MagicSquareModel(size));
+    }
+
+    /**
+     * Constructs a runner replaying traces against the provided model, which may be configured beforehand (with metrics
+     * or listeners, for instance). Its rules must be the default rules the traces expect, and it must notify its
+     * listeners synchronously: a replay checks the event of each play as soon as the play returns, and measures the
+     * model on the calling thread alone.
+     *
+     * @param model The model to replay traces against
+     * @throws IllegalArgumentException If the model notifies its listeners asynchronously
+     */
+    public TraceRunner(MagicSquareModel model) {
+        if (model.isAsyncDispatch()) {
+            throw new IllegalArgumentException("Traces cannot be replayed against a model with asynchronous dispatch");
+        }
+
+        this.model = model;
+        model.addPackedMagicSquareListener(event -> lastEvent = event);
+    }
+
+    /**
+     * Replays a trace, stopping at the first step at which the model does not report the expected event.
+     *
+     * @param trace The trace to replay
+     * @return the index of the first step the model diverged at, or -1 if it reported every expected event
+     * @throws IllegalArgumentException If the trace is not for grids of the model's size
+     * @throws IllegalStateException    If the model was made to notify its listeners asynchronously since the runner
+     *                                  was constructed
+     */
+    public int replay(Trace trace) {
+        if (trace.getSize() != model.getSize()) {
+            throw new IllegalArgumentException("The trace is for grids of size " + trace.getSize() + ", not "
+                    + model.getSize());
+        }
+        if (model.isAsyncDispatch()) {
+            throw new IllegalStateException("Traces cannot be replayed against a model with asynchronous dispatch");
+        }
+
+        model.reset();
+        for (int step = 0, length = trace.length(); step < length; step++) {
+            if (trace.isReset(step)) {
+                model.reset();
+                continue;
+            }
+
+            lastEvent = Trace.NO_EVENT;
+            model.play(trace.getX(step), trace.getY(step), trace.getNumber(step));
+            if (lastEvent != trace.getExpectedEvent(step)) {
+                return step;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Replays a trace and checks that the model reports every expected event.
+     *
+     * @param trace The trace to replay
+     * @throws TraceMismatchException   If the model does not report the event expected by a step
+     * @throws IllegalArgumentException If the trace is not for grids of the model's size
+     */
+    public void check(Trace trace) throws TraceMismatchException {
+        int step = replay(trace);
+        if (step >= 0) {
+            throw new TraceMismatchException("Step " + step + " (" + trace.describe(step) + ") was "
+                    + Trace.describeEvent(lastEvent), step);
+        }
+    }
+
+    /**
+     * Checks a trace, then replays it repeatedly and measures the rate of plays and the allocations made on the calling
+     * thread. The trace is first replayed as many times without being measured, so that the measurement reflects
+     * compiled code (the interpreter allocates objects that compiled code does not, such as iterators).
+     *
+     * @param trace      The trace to replay
+     * @param iterations The number of measured replays
+     * @return the outcome of the measurement
+     * @throws TraceMismatchException   If the model does not report the event expected by a step
+     * @throws IllegalArgumentException If the trace is not for grids of the model's size
+     */
+    public Result measure(Trace trace, int iterations) throws TraceMismatchException {
+        check(trace);
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            replay(trace);
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            replay(trace);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+
+        long allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+        return new Result((long) trace.getPlayCount() * iterations, nanos, allocated);
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the calling thread.
+     *
+     * @return the number of bytes, or -1 if the JVM cannot measure allocations per thread
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspotThreads = (com.sun.management.ThreadMXBean) threads;
+            if (hotspotThreads.isThreadAllocatedMemorySupported() && hotspotThreads.isThreadAllocatedMemoryEnabled()) {
+                return hotspotThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * This is the entry point of the runner, which checks and measures a trace read from a file or a generated one.
+     *
+     * @param args The command-line arguments: either the path of a trace file, or the size of the grid and the number
+     *             of steps of a generated trace, followed (optionally) by the number of measured replays
+     * @throws IOException If the trace file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: TraceRunner <trace file> [iterations] | TraceRunner <size> <steps> [iterations]");
+            return;
+        }
+
+        Trace trace;
+        int next;
+        if (args.length > 1 && args[0].matches("\\d+") && args[1].matches("\\d+")) {
+            trace = new TraceGenerator(Integer.parseInt(args[0]), 42).generate(Integer.parseInt(args[1]));
+            next = 2;
+        } else {
+            try (Reader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+                trace = Trace.read(reader);
+            }
+            next = 1;
+        }
+        int iterations = args.length > next ? Integer.parseInt(args[next]) : 10;
+
+        try {
+            System.out.println(new TraceRunner(trace.getSize()).measure(trace, iterations));
+        } catch (TraceMismatchException e) {
+            System.out.println("The model diverged from the trace: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package view;
+
+import controller.MagicSquareController;
+import model.EventType;
+import model.MagicSquareEvent;
+import model.MagicSquareListener;
+import model.MagicSquareModel;
+import model.Status;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * This class represents a component that draws the whole grid of a Magic Square game itself, rather than with one
+ * button per square, so that large grids remain responsive. Only the squares within the area being repainted are
+ * drawn, a click is mapped to its square arithmetically, and the squares changed by a burst of events are repainted
+ * together once per frame.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareGrid extends JComponent implements MagicSquareListener {
+    /**
+     * The number of milliseconds between two repaints of the squares that changed, which is about one frame.
+     */
+    private static final int FRAME_MILLIS = 16;
+
+    /**
+     * The smallest size (in pixels) of a square whose number is drawn.
+     */
+    private static final int MIN_TEXT_CELL_SIZE = 12;
+
+    /**
+     * The model whose grid is drawn.
+     */
+    private final MagicSquareModel model;
+
+    /**
+     * The size of the grid.
+     */
+    private final int size;
+
+    /**
+     * The size of each square, in pixels.
+     */
+    private final int cellSize;
+
+    /**
+     * The timer repainting the squares that changed since the last frame.
+     */
+    private final Timer repaintTimer;
+
+    /**
+     * The area covering every square that changed since the last frame, or null if none did. Events may be handled on
+     * any thread, so this is guarded by this component's lock. The timer is started when this becomes non-null and this
+     * is cleared when the timer fires, so the timer is started at most once per frame.
+     */
+    private Rectangle dirtyRegion;
+
+    /**
+     * Constructs a component drawing the grid of a model. The component listens to the model, and clicking a free
+     * square prompts the user for a number to place on it.
+     *
+     * @param model    The model whose grid is drawn
+     * @param cellSize The size of each square, in pixels
+     */
+    public MagicSquareGrid(MagicSquareModel model, int cellSize) {
+        this.model = model;
+        this.size = model.getSize();
+        this.cellSize = cellSize;
+        this.repaintTimer = new Timer(FRAME_MILLIS, e -> repaintDirtyRegion());
+        this.repaintTimer.setRepeats(false);
+
+        this.setPreferredSize(new Dimension(size * cellSize + 1, size * cellSize + 1));
+        this.setFont(new Font("Arial", Font.BOLD, Math.max(1, cellSize / 4)));
+        this.setOpaque(true);
+        this.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int x = e.getY() / MagicSquareGrid.this.cellSize;
+                int y = e.getX() / MagicSquareGrid.this.cellSize;
+
+                if (x < size && y < size && model.getStatus() == Status.IN_PROGRESS && !model.isOccupied(x, y)) {
+                    MagicSquareController.promptAndPlay(x, y, model);
+                }
+            }
+        });
+
+        model.addMagicSquareListener(this);
+    }
+
+    @Override
+    public void handleMagicSquareEvent(MagicSquareEvent e) {
+        if (e.getType() == EventType.BULK) { // Any square may have changed
+            repaint();
+            return;
+        }
+        if (e.getX() < 0) { // Events without a square do not change anything that is drawn
+            return;
+        }
+
+        Rectangle cell = new Rectangle(e.getY() * cellSize, e.getX() * cellSize, cellSize + 1, cellSize + 1);
+        boolean firstChange;
+        synchronized (this) {
+            firstChange = dirtyRegion == null;
+            this.dirtyRegion = firstChange ? cell : dirtyRegion.union(cell);
+        }
+
+        // Only the first change of a frame starts the timer, which must be done on the event dispatch thread
+        if (firstChange) {
+            if (SwingUtilities.isEventDispatchThread()) {
+                repaintTimer.start();
+            } else {
+                SwingUtilities.invokeLater(repaintTimer::start);
+            }
+        }
+    }
+
+    /**
+     * Repaints the squares that changed since the last frame.
+     */
+    private void repaintDirtyRegion() {
+        Rectangle region;
+        synchronized (this) {
+            region = dirtyRegion;
+            dirtyRegion = null;
+        }
+
+        if (region != null) {
+            repaint(region);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+
+        g.setColor(Color.WHITE);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        // Only go over the squares that intersect the area being painted
+        int firstRow = Math.max(0, clip.y / cellSize);
+        int lastRow = Math.min(size - 1, (clip.y + clip.height) / cellSize);
+        int firstColumn = Math.max(0, clip.x / cellSize);
+        int lastColumn = Math.min(size - 1, (clip.x + clip.width) / cellSize);
+
+        FontMetrics metrics = g.getFontMetrics();
+        boolean drawText = cellSize >= MIN_TEXT_CELL_SIZE;
+
+        for (int i = firstRow; i <= lastRow; i++) {
+            for (int j = firstColumn; j <= lastColumn; j++) {
+                int left = j * cellSize;
+                int top = i * cellSize;
+
+                if (model.isOccupied(i, j)) {
+                    g.setColor(Color.LIGHT_GRAY);
+                    g.fillRect(left, top, cellSize, cellSize);
+
+                    if (drawText) {
+                        String text = Integer.toString(model.getNumber(i, j));
+                        g.setColor(Color.BLACK);
+                        g.drawString(text, left + (cellSize - metrics.stringWidth(text)) / 2,
+                                top + (cellSize - metrics.getHeight()) / 2 + metrics.getAscent());
+                    }
+                }
+
+                g.setColor(Color.GRAY);
+                g.drawRect(left, top, cellSize, cellSize);
+            }
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package view;
 
+import cli.MagicSquareCli;
+import controller.BulkInputController;
 import controller.MagicSquareController;
+import model.EventType;
 import model.MagicSquareEvent;
 import model.MagicSquareListener;
 import model.MagicSquareModel;
@@ -8,8 +11,12 @@ import model.Status;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
 
-import static model.MagicSquareModel.SIZE;
+import static model.MagicSquareModel.DEFAULT_SIZE;
 
 /**
  * This class represents the view portion of the Magic Square game.
@@ -17,15 +24,22 @@ import static model.MagicSquareModel.SIZE;
  * @author Samuel Gamelin
  */
 public class MagicSquareView extends JFrame implements MagicSquareListener {
+    /**
+     * The largest size of a grid displayed with one button per square. Larger grids are drawn by a MagicSquareGrid.
+     */
+    public static final int MAX_BUTTON_GRID_SIZE = 16;
+
+    /**
+     * The smallest size (in pixels) of a square drawn by a MagicSquareGrid, below which the grid scrolls instead.
+     */
+    private static final int MIN_CELL_SIZE = 24;
+
     /**
      * A scaling factor based on the current display's height (or width, depending on
-     * which is greater), which will be used in calculations to determine
-     * appropriate scaling of buttons and GUI elements.
+     * which is greater) and the size of the grid, which will be used in calculations to determine
+     * appropriate scaling of buttons and GUI elements. It is computed the first time it is needed, or 0 before then.
      */
-    public static final double SCALE_FACTOR = (Toolkit.getDefaultToolkit().getScreenSize().getWidth() > Toolkit
-            .getDefaultToolkit().getScreenSize().getHeight()
-            ? (0.5 * Toolkit.getDefaultToolkit().getScreenSize().getHeight())
-            : (0.5 * Toolkit.getDefaultToolkit().getScreenSize().getWidth())) / SIZE;
+    private double scaleFactor;
 
     /**
      * The model associated with this view.
@@ -33,17 +47,35 @@ public class MagicSquareView extends JFrame implements MagicSquareListener {
     private MagicSquareModel model;
 
     /**
-     * A 2D array of buttons used to play the game.
+     * The size of the grid displayed by this view.
+     */
+    private final int size;
+
+    /**
+     * A 2D array of buttons used to play the game, or null if the grid is drawn by a MagicSquareGrid.
      */
     private JButton[][] buttons;
 
     /**
-     * Constructs a view for the Magic Square game.
+     * The component drawing the grid, or null if the game is played with buttons.
+     */
+    private MagicSquareGrid grid;
+
+    /**
+     * Constructs a view for the Magic Square game using a grid of the default size.
      */
     public MagicSquareView() {
-        this.model = new MagicSquareModel();
-        this.model.addMagicSquareListener(this);
+        this(DEFAULT_SIZE);
+    }
 
+    /**
+     * Constructs a view for the Magic Square game using a grid of the provided size.
+     *
+     * @param size The size of the grid
+     */
+    public MagicSquareView(int size) {
+        this.model = new MagicSquareModel(size);
+        this.size = size;
         // Set the default look and feel to remain consistent across platforms
         try {
             UIManager.setLookAndFeel(UIManager.getCrossPlatformLookAndFeelClassName());
@@ -51,23 +83,22 @@ public class MagicSquareView extends JFrame implements MagicSquareListener {
             e.printStackTrace(System.out);
         }
 
-        // Create a button panel with a SIZExSIZE grid layout
-        JPanel buttonGrid = new JPanel(new GridLayout(SIZE, SIZE));
-
-        // Create grid of buttons and add them to this frame
-        this.buttons = new JButton[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                JButton newButton = new JButton();
-                newButton.setPreferredSize(new Dimension((int) SCALE_FACTOR, (int) SCALE_FACTOR));
-                newButton.addActionListener(new MagicSquareController(i, j, model));
-                newButton.setFont(new Font("Arial", Font.BOLD, (int) (SCALE_FACTOR / 4)));
-
-                buttonGrid.add(this.buttons[i][j] = newButton);
-            }
+        if (size <= MAX_BUTTON_GRID_SIZE) {
+            this.add(createButtonGrid(), BorderLayout.CENTER);
+        } else {
+            // Large grids are drawn by a single component, scrolling if the squares would otherwise be too small
+            this.grid = new MagicSquareGrid(model, Math.max(MIN_CELL_SIZE, (int) getScaleFactor()));
+            JScrollPane scrollPane = new JScrollPane(grid);
+            int viewportSize = (int) (getScaleFactor() * size);
+            scrollPane.getViewport().setPreferredSize(new Dimension(viewportSize, viewportSize));
+            scrollPane.getVerticalScrollBar().setUnitIncrement(MIN_CELL_SIZE);
+            scrollPane.getHorizontalScrollBar().setUnitIncrement(MIN_CELL_SIZE);
+            this.add(scrollPane, BorderLayout.CENTER);
         }
-
-        this.add(buttonGrid, BorderLayout.CENTER);
+        // Listen after the grid component, so that the last move is drawn before the game over dialog is shown
+        this.model.addMagicSquareListener(this);
+        this.bindUndoKeys();
+        this.setJMenuBar(createMenuBar());
 
         this.pack();
         this.setResizable(false);
@@ -77,6 +108,45 @@ public class MagicSquareView extends JFrame implements MagicSquareListener {
         this.setVisible(true);
     }
 
+    /**
+     * Returns the scaling factor of the GUI elements, computing it from the size of the screen the first time.
+     *
+     * @return the scaling factor
+     */
+    private double getScaleFactor() {
+        if (scaleFactor == 0) {
+            Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
+            this.scaleFactor = 0.5 * Math.min(screenSize.getWidth(), screenSize.getHeight()) / size;
+        }
+        return scaleFactor;
+    }
+
+    /**
+     * Creates a panel with one button per square of the grid.
+     *
+     * @return the panel of buttons
+     */
+    private JPanel createButtonGrid() {
+        // Create a button panel with a size x size grid layout
+        JPanel buttonGrid = new JPanel(new GridLayout(size, size));
+        Font font = new Font("Arial", Font.BOLD, (int) (getScaleFactor() / 4));
+
+        // Create grid of buttons and add them to the panel
+        this.buttons = new JButton[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                JButton newButton = new JButton();
+                newButton.setPreferredSize(new Dimension((int) getScaleFactor(), (int) getScaleFactor()));
+                newButton.addActionListener(new MagicSquareController(i, j, model));
+                newButton.setFont(font);
+
+                buttonGrid.add(this.buttons[i][j] = newButton);
+            }
+        }
+
+        return buttonGrid;
+    }
+
     @Override
     public void handleMagicSquareEvent(MagicSquareEvent e) {
         int x = e.getX();
@@ -84,8 +154,25 @@ public class MagicSquareView extends JFrame implements MagicSquareListener {
         int number = e.getNumber();
         Status status = e.getStatus();
 
-        this.buttons[x][y].setEnabled(false);
-        this.buttons[x][y].setText("" + number);
+        if (this.buttons != null) { // The grid component repaints itself
+            if (e.getType() == EventType.BULK) { // Show every square that was filled
+                for (int i = 0; i < size; i++) {
+                    for (int j = 0; j < size; j++) {
+                        if (model.isOccupied(i, j)) {
+                            this.buttons[i][j].setEnabled(false);
+                            this.buttons[i][j].setText("" + model.getNumber(i, j));
+                        }
+                    }
+                }
+            } else if (e.getType() == EventType.UNDO) { // Give the square back to the player
+                this.buttons[x][y].setText("");
+                this.buttons[x][y].setEnabled(true);
+                return;
+            } else {
+                this.buttons[x][y].setEnabled(false);
+                this.buttons[x][y].setText("" + number);
+            }
+        }
 
         if (status == Status.VICTORY || status == Status.NO_VICTORY) {
             this.disableButtons();
@@ -106,12 +193,61 @@ public class MagicSquareView extends JFrame implements MagicSquareListener {
         }
     }
 
+    /**
+     * Creates the menu bar, whose items fill the whole grid at once.
+     *
+     * @return the menu bar
+     */
+    private JMenuBar createMenuBar() {
+        BulkInputController bulkInputController = new BulkInputController(model, this);
+
+        JMenuItem loadItem = new JMenuItem("Load grid from file...");
+        loadItem.addActionListener(e -> bulkInputController.loadFromFile());
+        JMenuItem pasteItem = new JMenuItem("Paste grid...");
+        pasteItem.addActionListener(e -> bulkInputController.paste());
+
+        JMenu gameMenu = new JMenu("Game");
+        gameMenu.add(loadItem);
+        gameMenu.add(pasteItem);
+
+        JMenuBar menuBar = new JMenuBar();
+        menuBar.add(gameMenu);
+        return menuBar;
+    }
+
+    /**
+     * Binds Ctrl+Z to undoing the last move and Ctrl+Y to redoing it.
+     */
+    private void bindUndoKeys() {
+        InputMap inputMap = this.getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        ActionMap actionMap = this.getRootPane().getActionMap();
+
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "undo");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "redo");
+        actionMap.put("undo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                model.undo();
+            }
+        });
+        actionMap.put("redo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                model.redo();
+            }
+        });
+    }
+
     /**
      * Disables all buttons for the game.
      */
     private void disableButtons() {
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
+        if (this.buttons == null) { // The grid component ignores clicks once the game is over
+            return;
+        }
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
                 this.buttons[i][j].setEnabled(false);
             }
         }
@@ -121,8 +257,13 @@ public class MagicSquareView extends JFrame implements MagicSquareListener {
      * Resets (enables and clears text) on all buttons on the grid.
      */
     private void reset() {
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
+        if (this.buttons == null) {
+            this.grid.repaint();
+            return;
+        }
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
                 this.buttons[i][j].setText("");
                 this.buttons[i][j].setEnabled(true);
             }
@@ -132,9 +273,17 @@ public class MagicSquareView extends JFrame implements MagicSquareListener {
     /**
      * This is the entry point for the Magic Square game.
      *
-     * @param args The command-line arguments
+     * @param args The command-line arguments, where the first (optional) argument is the size of the grid
+     * @throws IOException If there is no display and the moves of the text version cannot be read
      */
-    public static void main(String[] args) {
-        SwingUtilities.invokeLater(MagicSquareView::new);
+    public static void main(String[] args) throws IOException {
+        if (GraphicsEnvironment.isHeadless()) { // Play in the terminal rather than failing to open a window
+            System.err.println("No display available, starting the text version of the game");
+            MagicSquareCli.main(args.length > 0 ? new String[]{"play", args[0]} : new String[]{"play"});
+            return;
+        }
+
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        SwingUtilities.invokeLater(() -> new MagicSquareView(size));
     }
 }
@@ -0,0 +1,83 @@
+package cli;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This test class contains a series of tests for the MagicSquareCli class.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareCliTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    ByteArrayOutputStream output;
+    MagicSquareCli cli;
+
+    @Before
+    public void setUp() {
+        output = new ByteArrayOutputStream();
+        cli = new MagicSquareCli(new PrintStream(output, true));
+    }
+
+    @Test
+    public void play() throws IOException {
+        String moves = "0 0 2\n0 1 7\n0 2 6\n1 0 9\n0 0 4\n1 1 5\n1 2 1\n2 0 4\n2 1 3\nundo\nredo\n2 2 8\nquit\n0 0 1\n";
+        assertEquals(0, cli.run(new String[]{"play"}, new BufferedReader(new StringReader(moves))));
+
+        String text = output.toString();
+        assertTrue(text.contains("(0, 0) is not a free square"));
+        assertTrue(text.endsWith(" 2 7 6\n 9 5 1\n 4 3 8\nMagic square!\n"));
+    }
+
+    @Test
+    public void playOtherSize() throws IOException {
+        cli.run(new String[]{"play", "2"}, new BufferedReader(new StringReader("1 1 10\n")));
+        assertEquals(" . .\n . .\n  .  .\n  . 10\n", output.toString());
+    }
+
+    @Test
+    public void playInvalidSize() throws IOException {
+        for (String size : new String[]{"abc", "0", "-3", "50000"}) {
+            output.reset();
+            assertEquals(2, cli.run(new String[]{"play", size}, new BufferedReader(new StringReader("quit\n"))));
+            assertTrue(output.toString(), output.toString().startsWith("The size must be a number between 1 and 1024"));
+            assertTrue(output.toString(), output.toString().contains("Usage: "));
+        }
+    }
+
+    @Test
+    public void check() throws IOException {
+        File magic = grid("magic.txt", "2 7 6\n9 5 1\n4 3 8\n");
+        File notMagic = grid("not-magic.txt", "1 2\n3 4\n");
+        File invalid = grid("invalid.txt", "1 2\n3\n");
+
+        assertEquals(0, cli.run(new String[]{"check", magic.getPath()}, null));
+        assertTrue(output.toString(), output.toString().contains("Victory! [SEMI_MAGIC, MAGIC, NORMAL, ASSOCIATIVE]"));
+        assertEquals(1, cli.run(new String[]{"check", magic.getPath(), notMagic.getPath()}, null));
+        assertEquals(2, cli.run(new String[]{"check", invalid.getPath(), notMagic.getPath()}, null));
+        assertEquals(2, cli.run(new String[]{"check", new File(folder.getRoot(), "missing.txt").getPath()}, null));
+        assertEquals(2, cli.run(new String[0], null));
+    }
+
+    private File grid(String name, String text) throws IOException {
+        File file = folder.newFile(name);
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,54 @@
+package controller;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * This test class contains a series of tests for the GridParser class.
+ *
+ * @author Samuel Gamelin
+ */
+public class GridParserTest {
+    @Test
+    public void whitespaceSeparated() throws GridParseException {
+        int[][] grid = GridParser.parse("2 7 6\n9\t5 1\n  4 3   8  \n");
+        assertArrayEquals(new int[][]{{2, 7, 6}, {9, 5, 1}, {4, 3, 8}}, grid);
+    }
+
+    @Test
+    public void commaSeparatedWithBlankLines() throws GridParseException, IOException {
+        int[][] grid = GridParser.parse(new BufferedReader(new StringReader("\r\n-1, +2\r\n\r\n2147483647;-2147483648")));
+        assertArrayEquals(new int[][]{{-1, 2}, {Integer.MAX_VALUE, Integer.MIN_VALUE}}, grid);
+    }
+
+    @Test
+    public void errorPositions() {
+        assertError("1 2\n3 x\n", 2, 3);
+        assertError("1 2\n3 4 5\n", 2, 6);
+        assertError("1,,2\n3 4\n", 1, 3);
+        assertError("1 2,\n3 4\n", 1, 5);
+        assertError("1 2\n, 3 4\n", 2, 1);
+        assertError("1 2\n3 4a\n", 2, 4);
+        assertError("1 -\n", 1, 4);
+        assertError("1 2147483648\n", 1, 3);
+        assertError("1 2\n3 4\n5 6\n", 4, 1);
+        assertError("  \n", 2, 1);
+    }
+
+    private static void assertError(String text, int line, int column) {
+        try {
+            GridParser.parse(text);
+            fail("Expected an error in " + text);
+        } catch (GridParseException e) {
+            assertEquals(e.getMessage(), line, e.getLine());
+            assertEquals(e.getMessage(), column, e.getColumn());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package metrics;
+
+import model.MagicSquareModel;
+import model.MoveResult;
+import model.Status;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This test class contains a series of tests for the ModelMetrics and LatencyHistogram classes.
+ *
+ * @author Samuel Gamelin
+ */
+public class ModelMetricsTest {
+    ModelMetrics metrics;
+    MagicSquareModel model;
+
+    @Before
+    public void setUp() {
+        metrics = new ModelMetrics();
+        model = new MagicSquareModel();
+        model.setMetrics(metrics);
+    }
+
+    @Test
+    public void recordsGame() {
+        model.addMagicSquareListener(event -> {
+        });
+        model.play(3, 0, 1);
+        int[][] grid = {{2, 7, 6}, {9, 5, 1}, {4, 3, 8}};
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                model.play(i, j, grid[i][j]);
+            }
+        }
+        model.play(0, 0, 1);
+        model.reset();
+        model.play(0, 0, 1);
+        model.play(0, 0, 1);
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(10, snapshot.getMovesPlayed());
+        assertEquals(1, snapshot.getMovesRejected(MoveResult.OUT_OF_RANGE));
+        assertEquals(1, snapshot.getMovesRejected(MoveResult.GAME_OVER));
+        assertEquals(1, snapshot.getMovesRejected(MoveResult.OCCUPIED));
+        assertEquals(1, snapshot.getEvaluations(Status.VICTORY));
+        assertEquals(0, snapshot.getEvaluations(Status.NO_VICTORY));
+        assertEquals(1, snapshot.getResets());
+        assertEquals(1, snapshot.getEvaluationLatency().getCount());
+        assertEquals(10, snapshot.getNotificationLatency().getCount());
+        assertEquals(10, snapshot.getPlayLatency().getCount());
+        assertEquals(1, snapshot.getResetLatency().getCount());
+
+        String text = snapshot.toText();
+        assertTrue(text.contains("magic_square_moves_played_total 10\n"));
+        assertTrue(text.contains("magic_square_moves_rejected_total{reason=\"OCCUPIED\"} 1\n"));
+        assertTrue(text.contains("magic_square_notification_nanos_count 10\n"));
+        assertTrue(text.contains("magic_square_play_nanos_count 10\n"));
+        assertTrue(text.contains("magic_square_reset_nanos_count 1\n"));
+    }
+
+    @Test
+    public void snapshotIsNotAffectedByLaterMoves() {
+        MetricsSnapshot snapshot = metrics.snapshot();
+        model.play(0, 0, 1);
+        assertEquals(0, snapshot.getMovesPlayed());
+        assertEquals(0, snapshot.getNotificationLatency().getCount());
+    }
+
+    @Test
+    public void histogramBuckets() {
+        for (long value = 0; value < 100000; value++) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(value <= LatencyHistogram.highestValueIn(bucket));
+            assertTrue(bucket == 0 || value > LatencyHistogram.highestValueIn(bucket - 1));
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void histogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean(), 1e-9);
+        long median = histogram.getValueAtPercentile(50);
+        assertTrue(median >= 500 && median <= 500 * 1.125);
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getValueAtPercentile(0));
+    }
+}
@@ -0,0 +1,251 @@
+package model;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This test class contains a series of tests for the asynchronous dispatch of events by MagicSquareModel, covering
+ * ordering, batching and each back-pressure policy.
+ *
+ * @author Samuel Gamelin
+ */
+public class AsyncEventDispatcherTest {
+    MagicSquareModel model;
+    ExecutorService executorService;
+    Queue<Runnable> pendingTasks;
+    List<Integer> receivedNumbers;
+
+    @Before
+    public void setUp() {
+        model = new MagicSquareModel(8);
+        executorService = Executors.newFixedThreadPool(4);
+        pendingTasks = new ArrayDeque<>();
+        receivedNumbers = Collections.synchronizedList(new ArrayList<>());
+        model.addMagicSquareListener(e -> receivedNumbers.add(e.getNumber()));
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void eventsArriveInOrder() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        model.setAsyncDispatch(executorService, 16, 5, BackPressurePolicy.BLOCK);
+        model.addMagicSquareListener(e -> {
+            if (e.getStatus() != Status.IN_PROGRESS) {
+                done.countDown();
+            }
+        });
+
+        playAll(64);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(expectedNumbers(0, 64), receivedNumbers);
+        assertEquals(0, model.getDiscardedEventCount());
+    }
+
+    @Test
+    public void blockWaitsForSlowListeners() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(64);
+        model.setAsyncDispatch(executorService, 2, 1, BackPressurePolicy.BLOCK);
+        model.addMagicSquareListener(e -> {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+
+        playAll(64);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(expectedNumbers(0, 64), receivedNumbers);
+    }
+
+    @Test
+    public void batches() {
+        List<Integer> batchSizes = new ArrayList<>();
+        model.setAsyncDispatch(pendingTasks::add, 16, 3, BackPressurePolicy.BLOCK);
+        model.addMagicSquareBatchListener(events -> batchSizes.add(events.size()));
+
+        playAll(7);
+        runPendingTasks();
+
+        assertEquals(expectedNumbers(0, 7), receivedNumbers);
+        assertEquals(Arrays.asList(3, 3, 1), batchSizes);
+    }
+
+    @Test
+    public void dropOldest() {
+        model.setAsyncDispatch(pendingTasks::add, 4, 4, BackPressurePolicy.DROP_OLDEST);
+
+        playAll(10);
+        runPendingTasks();
+
+        assertEquals(expectedNumbers(6, 10), receivedNumbers);
+        assertEquals(6, model.getDiscardedEventCount());
+    }
+
+    @Test
+    public void coalesce() {
+        model.setAsyncDispatch(pendingTasks::add, 4, 4, BackPressurePolicy.COALESCE);
+
+        playAll(10);
+        runPendingTasks();
+
+        assertEquals(Arrays.asList(0, 1, 2, 9), receivedNumbers);
+        assertEquals(6, model.getDiscardedEventCount());
+    }
+
+    @Test
+    public void synchronousBatchListener() {
+        List<Integer> batchSizes = new ArrayList<>();
+        model.addMagicSquareBatchListener(events -> batchSizes.add(events.size()));
+
+        playAll(3);
+
+        assertEquals(Arrays.asList(1, 1, 1), batchSizes);
+    }
+
+    @Test
+    public void rejectedDrainIsSubmittedAgain() {
+        boolean[] reject = {true};
+        model.setAsyncDispatch(task -> {
+            if (reject[0]) {
+                throw new RejectedExecutionException("Saturated");
+            }
+            pendingTasks.add(task);
+        }, 16, 16, BackPressurePolicy.BLOCK);
+
+        try {
+            playAll(1);
+            fail("The rejection should reach the caller");
+        } catch (RejectedExecutionException expected) {
+            // The event stays in the buffer
+        }
+        reject[0] = false;
+        model.play(0, 1, 1);
+        runPendingTasks();
+
+        assertEquals(expectedNumbers(0, 2), receivedNumbers);
+    }
+
+    @Test
+    public void rejectedDrainIsSubmittedAgainWhenCoalescing() {
+        boolean[] reject = {true};
+        model.setAsyncDispatch(task -> {
+            if (reject[0]) {
+                throw new RejectedExecutionException("Saturated");
+            }
+            pendingTasks.add(task);
+        }, 1, 1, BackPressurePolicy.COALESCE);
+
+        try {
+            playAll(1);
+            fail("The rejection should reach the caller");
+        } catch (RejectedExecutionException expected) {
+            // The event stays in the buffer, which is now full
+        }
+        reject[0] = false;
+        for (int i = 1; i <= 5; i++) {
+            model.play(i / 8, i % 8, i);
+        }
+        runPendingTasks();
+
+        assertEquals(Collections.singletonList(5), receivedNumbers);
+        assertEquals(5, model.getDiscardedEventCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void blockingFromListenerFails() {
+        model.setAsyncDispatch(Runnable::run, 1, 1, BackPressurePolicy.BLOCK);
+        model.addMagicSquareListener(e -> {
+            if (e.getNumber() == 0) { // The buffer fills up while this listener is being notified
+                model.play(0, 1, 1);
+                model.play(0, 2, 2);
+            }
+        });
+
+        playAll(1);
+    }
+
+    @Test
+    public void backToSynchronousDispatch() {
+        model.setAsyncDispatch(pendingTasks::add, 16, 16, BackPressurePolicy.BLOCK);
+        playAll(3);
+        assertTrue(receivedNumbers.isEmpty());
+
+        model.setAsyncDispatch(null, 0, 0, null);
+        assertEquals(expectedNumbers(0, 3), receivedNumbers);
+
+        model.play(0, 3, 3);
+        runPendingTasks(); // The drain submitted before closing finds nothing left to do
+        assertEquals(expectedNumbers(0, 4), receivedNumbers);
+    }
+
+    @Test
+    public void replacingDispatcherKeepsOrder() {
+        Queue<Runnable> otherTasks = new ArrayDeque<>();
+        model.setAsyncDispatch(pendingTasks::add, 16, 16, BackPressurePolicy.BLOCK);
+        playAll(3);
+        model.setAsyncDispatch(otherTasks::add, 16, 16, BackPressurePolicy.BLOCK);
+        model.play(0, 3, 3);
+
+        Runnable task;
+        while ((task = otherTasks.poll()) != null) {
+            task.run();
+        }
+        runPendingTasks();
+        assertEquals(expectedNumbers(0, 4), receivedNumbers);
+    }
+
+    /**
+     * Plays the provided number of moves in row-major order, where the number placed on each square is its index.
+     *
+     * @param moves The number of moves to play
+     */
+    private void playAll(int moves) {
+        int size = model.getSize();
+        for (int i = 0; i < moves; i++) {
+            model.play(i / size, i % size, i);
+        }
+    }
+
+    /**
+     * Runs the tasks submitted to the manual executor until there are none left.
+     */
+    private void runPendingTasks() {
+        Runnable task;
+        while ((task = pendingTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static List<Integer> expectedNumbers(int from, int to) {
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            numbers.add(i);
+        }
+        return numbers;
+    }
+}
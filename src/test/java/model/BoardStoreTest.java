@@ -0,0 +1,136 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This test class contains a series of tests for the BoardStore class, checking that its boards behave like models.
+ *
+ * @author Samuel Gamelin
+ */
+public class BoardStoreTest {
+    BoardStore store;
+
+    @Before
+    public void setUp() {
+        store = new BoardStore(3, 100);
+    }
+
+    @Test
+    public void boardsMatchModels() {
+        Random random = new Random(11);
+        MagicSquareModel[] models = new MagicSquareModel[100];
+        MagicSquareBoard[] boards = new MagicSquareBoard[100];
+        for (int k = 0; k < 100; k++) {
+            models[k] = new MagicSquareModel();
+            boards[k] = store.board(store.allocate());
+        }
+
+        for (int move = 0; move < 20000; move++) {
+            int k = random.nextInt(100);
+            if (random.nextInt(50) == 0) {
+                models[k].reset();
+                boards[k].reset();
+                continue;
+            }
+
+            int x = random.nextInt(4);
+            int y = random.nextInt(4);
+            int number = random.nextInt(2);
+            models[k].play(x, y, number);
+            boards[k].play(x, y, number);
+
+            assertEquals(models[k].getStatus(), boards[k].getStatus());
+            if (x < 3 && y < 3) {
+                assertEquals(models[k].isOccupied(x, y), boards[k].isOccupied(x, y));
+                assertEquals(models[k].getNumber(x, y), boards[k].getNumber(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void moveResults() {
+        int board = store.allocate();
+        assertEquals(MoveResult.OUT_OF_RANGE, store.play(board, 3, 0, 1));
+        int[][] grid = {{2, 7, 6}, {9, 5, 1}, {4, 3, 8}};
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(MoveResult.ACCEPTED, store.play(board, i, j, grid[i][j]));
+            }
+        }
+        assertEquals(Status.VICTORY, store.getStatus(board));
+        assertEquals(MoveResult.GAME_OVER, store.play(board, 0, 0, 1));
+
+        store.reset(board);
+        assertEquals(MoveResult.ACCEPTED, store.play(board, 0, 0, 1));
+        assertEquals(MoveResult.OCCUPIED, store.play(board, 0, 0, 1));
+    }
+
+    @Test
+    public void releasedBoardsAreReused() {
+        for (int k = 0; k < 100; k++) {
+            assertEquals(k, store.allocate());
+        }
+        store.play(42, 0, 0, 1);
+        store.release(42);
+        assertEquals(99, store.getBoardCount());
+        assertEquals(42, store.allocate());
+        assertFalse(store.isOccupied(42, 0, 0)); // A reused board starts empty
+        assertEquals(Status.IN_PROGRESS, store.getStatus(42));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void full() {
+        for (int k = 0; k <= 100; k++) {
+            store.allocate();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void released() {
+        int board = store.allocate();
+        store.release(board);
+        store.getStatus(board);
+    }
+
+    @Test
+    public void staleViewOfReusedBoard() {
+        int board = store.allocate();
+        MagicSquareBoard stale = store.board(board);
+        store.release(board);
+        assertEquals(board, store.allocate());
+        MagicSquareBoard view = store.board(board);
+
+        try {
+            stale.play(0, 0, 1);
+            fail("A view of a released board should not play on the board reusing its index");
+        } catch (IllegalStateException expected) {
+            // The view was created before the board was released
+        }
+        view.play(1, 1, 5);
+        assertFalse(store.isOccupied(board, 0, 0));
+        assertTrue(view.isOccupied(1, 1));
+    }
+
+    @Test
+    public void largeBoards() {
+        BoardStore largeStore = new BoardStore(9, 2); // 81 squares take two words of occupancy bits
+        int board = largeStore.allocate();
+        largeStore.allocate();
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                largeStore.play(board, i, j, 1);
+            }
+        }
+        assertEquals(Status.VICTORY, largeStore.getStatus(board));
+        assertTrue(largeStore.isOccupied(board, 8, 8));
+        assertFalse(largeStore.isOccupied(board + 1, 8, 8));
+    }
+}
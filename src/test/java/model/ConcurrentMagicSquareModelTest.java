@@ -0,0 +1,126 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This test class contains a series of tests for the ConcurrentMagicSquareModel class, including a stress test where
+ * many threads race for every square of a large board.
+ *
+ * @author Samuel Gamelin
+ */
+public class ConcurrentMagicSquareModelTest {
+    static final int THREADS = 8;
+    static final int SIZE = 256;
+
+    ConcurrentMagicSquareModel model;
+
+    @Before
+    public void setUp() {
+        model = new ConcurrentMagicSquareModel(3);
+    }
+
+    @Test
+    public void play() {
+        int[][] grid = {{2, 7, 6}, {9, 5, 1}, {4, 3, 8}};
+
+        assertEquals(MoveResult.OUT_OF_RANGE, model.play(3, 0, 1));
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(MoveResult.ACCEPTED, model.play(i, j, grid[i][j]));
+                assertEquals(MoveResult.OCCUPIED, model.play(i, j, 0));
+            }
+        }
+
+        assertEquals(Status.VICTORY, model.getStatus());
+
+        model.reset();
+        assertEquals(Status.IN_PROGRESS, model.getStatus());
+        assertEquals(9, model.getNumFreeSquares());
+        assertEquals(MoveResult.ACCEPTED, model.play(0, 0, 1));
+    }
+
+    @Test
+    public void stressMagicSquare() throws Exception {
+        // Every thread places 1 everywhere, so whoever wins each square the board is a magic square
+        assertEquals(Status.VICTORY, race(false));
+    }
+
+    @Test
+    public void stressConsistentStatus() throws Exception {
+        // Every thread places its own number, so the outcome depends on which thread won each square
+        race(true);
+    }
+
+    /**
+     * Has several threads try to play every square of a large board, each in a different order, and checks that every
+     * square was won exactly once and that the final status matches the numbers that ended up on the board.
+     *
+     * @param distinctNumbers Whether each thread places its own number rather than 1
+     * @return The final status of the board
+     */
+    private Status race(boolean distinctNumbers) throws Exception {
+        ConcurrentMagicSquareModel board = new ConcurrentMagicSquareModel(SIZE);
+        AtomicIntegerArray numbers = new AtomicIntegerArray(SIZE * SIZE);
+        AtomicInteger events = new AtomicInteger();
+        AtomicInteger finalEvents = new AtomicInteger();
+        board.addMagicSquareListener(e -> {
+            numbers.set(e.getX() * SIZE + e.getY(), e.getNumber());
+            events.incrementAndGet();
+            if (e.getStatus() != Status.IN_PROGRESS) {
+                finalEvents.incrementAndGet();
+            }
+        });
+
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        List<Future<Integer>> accepted = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            Callable<Integer> player = () -> {
+                int moves = 0;
+                start.await();
+                for (int k = 0; k < SIZE * SIZE; k++) {
+                    int index = (k * (2 * thread + 1) + thread * 7919) % (SIZE * SIZE); // A different order per thread
+                    if (board.play(index / SIZE, index % SIZE, distinctNumbers ? thread + 1 : 1) == MoveResult.ACCEPTED) {
+                        moves++;
+                    }
+                }
+                return moves;
+            };
+            accepted.add(executorService.submit(player));
+        }
+
+        int totalAccepted = 0;
+        for (Future<Integer> future : accepted) {
+            totalAccepted += future.get();
+        }
+        executorService.shutdown();
+
+        int[] cells = new int[SIZE * SIZE];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = numbers.get(i);
+        }
+
+        assertEquals(SIZE * SIZE, totalAccepted);
+        assertEquals(SIZE * SIZE, events.get());
+        assertEquals(1, finalEvents.get());
+        assertEquals(0, board.getNumFreeSquares());
+        assertEquals(MagicSquareVerifier.verify(cells, SIZE), board.getStatus());
+
+        return board.getStatus();
+    }
+}
@@ -0,0 +1,105 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This test class contains a series of tests for the MagicSquareAnalyzer class and for models requiring properties
+ * other than MAGIC.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareAnalyzerTest {
+    static final int[][] LO_SHU = {{2, 7, 6}, {9, 5, 1}, {4, 3, 8}};
+
+    static final int[][] PANDIAGONAL = {{1, 8, 13, 12}, {14, 11, 2, 7}, {4, 5, 16, 9}, {15, 10, 3, 6}};
+
+    static final int[][] SEMI_MAGIC = {{1, 2, 3}, {2, 3, 1}, {3, 1, 2}};
+
+    @Test
+    public void loShu() {
+        assertEquals(EnumSet.of(MagicProperty.SEMI_MAGIC, MagicProperty.MAGIC, MagicProperty.NORMAL,
+                MagicProperty.ASSOCIATIVE), MagicSquareAnalyzer.analyze(LO_SHU));
+    }
+
+    @Test
+    public void pandiagonal() {
+        assertEquals(EnumSet.of(MagicProperty.SEMI_MAGIC, MagicProperty.MAGIC, MagicProperty.PANDIAGONAL,
+                MagicProperty.NORMAL), MagicSquareAnalyzer.analyze(PANDIAGONAL));
+    }
+
+    @Test
+    public void semiMagic() {
+        assertEquals(EnumSet.of(MagicProperty.SEMI_MAGIC), MagicSquareAnalyzer.analyze(SEMI_MAGIC));
+    }
+
+    @Test
+    public void otherProperties() {
+        assertEquals(EnumSet.of(MagicProperty.NORMAL, MagicProperty.ASSOCIATIVE),
+                MagicSquareAnalyzer.analyze(new int[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 9}}));
+        assertEquals(EnumSet.noneOf(MagicProperty.class),
+                MagicSquareAnalyzer.analyze(new int[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 10}}));
+    }
+
+    @Test
+    public void magicAgreesWithVerifier() {
+        Random random = new Random(3);
+
+        for (int game = 0; game < 5000; game++) {
+            int size = 1 + random.nextInt(4);
+            int bound = 1 + game % 3;
+            int[][] grid = new int[size][size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    grid[i][j] = random.nextInt(bound);
+                }
+            }
+
+            boolean magic = MagicSquareAnalyzer.analyze(grid).contains(MagicProperty.MAGIC);
+            assertEquals(MagicSquareVerifier.verify(grid), magic ? Status.VICTORY : Status.NO_VICTORY);
+        }
+    }
+
+    @Test
+    public void modelRequiringProperties() {
+        MagicSquareModel model = new MagicSquareModel();
+        model.setRequiredProperties(EnumSet.of(MagicProperty.SEMI_MAGIC));
+        model.playAll(SEMI_MAGIC);
+        assertEquals(Status.VICTORY, model.getStatus());
+        assertEquals(EnumSet.of(MagicProperty.SEMI_MAGIC), model.getProperties());
+
+        model.reset();
+        model.setRequiredProperties(EnumSet.of(MagicProperty.MAGIC, MagicProperty.NORMAL));
+        model.playAll(LO_SHU);
+        assertEquals(Status.VICTORY, model.getStatus());
+
+        model = new MagicSquareModel(4);
+        model.setRequiredProperties(EnumSet.of(MagicProperty.PANDIAGONAL));
+        model.playAll(new int[][]{{16, 3, 2, 13}, {5, 10, 11, 8}, {9, 6, 7, 12}, {4, 15, 14, 1}}); // Dürer's square
+        assertEquals(Status.NO_VICTORY, model.getStatus());
+    }
+
+    @Test
+    public void eagerEvaluationOnlyEndsGamesRequiringEqualLines() {
+        MagicSquareModel model = new MagicSquareModel();
+        model.setEagerEvaluation(true);
+        model.setRequiredProperties(EnumSet.of(MagicProperty.NORMAL));
+        model.playAll(new int[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 9}});
+        assertEquals(Status.VICTORY, model.getStatus());
+
+        model.undo();
+        assertEquals(Status.IN_PROGRESS, model.getStatus());
+        model.setRequiredProperties(EnumSet.of(MagicProperty.MAGIC));
+        assertEquals(Status.NO_VICTORY, model.getStatus()); // The first two rows already disagree
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongNumberOfCellsAfterOverflow() {
+        // 65536 * 65536 overflows an int to 0
+        MagicSquareAnalyzer.analyze(new int[0], 65536);
+    }
+}
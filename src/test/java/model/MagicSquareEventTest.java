@@ -3,7 +3,7 @@ package model;
 import org.junit.Before;
 import org.junit.Test;
 
-import static model.MagicSquareModel.SIZE;
+import static model.MagicSquareModel.DEFAULT_SIZE;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -15,23 +15,28 @@ import static org.junit.Assert.assertEquals;
 public class MagicSquareEventTest {
     MagicSquareEvent validEvent;
     MagicSquareEvent invalidEvent;
+    MagicSquareEvent largeGridEvent;
 
     @Before
     public void setUp() {
         validEvent = new MagicSquareEvent(2, 1, 10, Status.IN_PROGRESS);
-        invalidEvent = new MagicSquareEvent(-500, SIZE + 10, 5, Status.NO_VICTORY);
+        invalidEvent = new MagicSquareEvent(-500, DEFAULT_SIZE + 10, 5, Status.NO_VICTORY);
+        largeGridEvent = new MagicSquareEvent(63, DEFAULT_SIZE + 10, 7, Status.IN_PROGRESS, 64);
     }
 
     @Test
     public void getX() {
         assertEquals(2, validEvent.getX());
         assertEquals(-1, invalidEvent.getX());
+        assertEquals(63, largeGridEvent.getX());
+        assertEquals(-1, new MagicSquareEvent(64, 0, 7, Status.IN_PROGRESS, 64).getX());
     }
 
     @Test
     public void getY() {
         assertEquals(1, validEvent.getY());
         assertEquals(-1, invalidEvent.getY());
+        assertEquals(DEFAULT_SIZE + 10, largeGridEvent.getY());
     }
 
     @Test
@@ -3,11 +3,20 @@ package model;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static model.MagicSquareModel.DEFAULT_SIZE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
- * This test class contains a series of tests for the MagicSquareModel class. These tests work under the assumption that
- * the SIZE value of the model is 3.
+ * This test class contains a series of tests for the MagicSquareModel class. Unless a size is given explicitly, these
+ * tests work under the assumption that the DEFAULT_SIZE value of the model is 3.
  *
  * @author Samuel Gamelin
  */
@@ -76,8 +85,293 @@ public class MagicSquareModelTest {
         assertEquals(Status.IN_PROGRESS, model.getStatus());
     }
 
+    @Test
+    public void playOnLargerGrid() {
+        model = new MagicSquareModel(4);
+        assertEquals(4, model.getSize());
+
+        /* Dürer's magic square
+         *
+         * | 16 |  3 |  2 | 13 |
+         * |  5 | 10 | 11 |  8 |
+         * |  9 |  6 |  7 | 12 |
+         * |  4 | 15 | 14 |  1 |
+         *
+         */
+        int[][] grid = {{16, 3, 2, 13}, {5, 10, 11, 8}, {9, 6, 7, 12}, {4, 15, 14, 1}};
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                model.play(i, j, grid[i][j]);
+            }
+        }
+
+        assertEquals(Status.VICTORY, model.getStatus());
+
+        model.reset();
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                model.play(i, j, grid[j][3 - i] + (i == 3 && j == 3 ? 1 : 0)); // A rotation with one square altered
+            }
+        }
+
+        assertEquals(Status.NO_VICTORY, model.getStatus());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSize() {
+        new MagicSquareModel(0);
+    }
+
     @Test
     public void getStatus() {
         assertEquals(Status.IN_PROGRESS, model.getStatus());
     }
+
+    @Test
+    public void playMatchesReferenceEvaluation() {
+        Random random = new Random(42);
+        int victories = 0;
+
+        // Small value ranges make victories (e.g. constant grids) frequent enough to exercise both outcomes
+        for (int game = 0; game < 20000; game++) {
+            int bound = 1 + game % 4;
+            int[][] grid = new int[DEFAULT_SIZE][DEFAULT_SIZE];
+
+            for (int i = 0; i < DEFAULT_SIZE; i++) {
+                for (int j = 0; j < DEFAULT_SIZE; j++) {
+                    grid[i][j] = random.nextInt(bound) - bound / 2;
+                    model.play(i, j, grid[i][j]);
+                }
+            }
+
+            Status expected = referenceStatus(grid);
+            assertEquals(expected, model.getStatus());
+
+            if (expected == Status.VICTORY) {
+                victories++;
+            }
+
+            model.reset();
+        }
+
+        // Make sure that the comparison above did not only ever see one kind of outcome
+        assertTrue(victories > 0);
+        assertTrue(victories < 20000);
+    }
+
+    @Test
+    public void eagerEvaluationEndsDoomedGame() {
+        model.setEagerEvaluation(true);
+
+        model.play(0, 0, 1);
+        model.play(0, 1, 1);
+        model.play(0, 2, 1);
+        assertEquals(Status.IN_PROGRESS, model.getStatus()); // A single filled line cannot disagree with anything
+
+        model.play(1, 0, 2);
+        model.play(2, 0, 2);
+        assertEquals(Status.NO_VICTORY, model.getStatus()); // The first column sums to 5 while the first row sums to 3
+
+        model.play(1, 1, 5);
+        assertFalse(model.isOccupied(1, 1)); // Moves are rejected once the game is over
+        assertFalse(model.redo());
+
+        assertTrue(model.undo());
+        assertEquals(Status.IN_PROGRESS, model.getStatus());
+        model.play(2, 0, 0);
+        assertEquals(Status.IN_PROGRESS, model.getStatus()); // Both lines now sum to 3
+    }
+
+    @Test
+    public void eagerEvaluationAgreesWithFullEvaluation() {
+        Random random = new Random(7);
+        MagicSquareModel eagerModel = new MagicSquareModel();
+        eagerModel.setEagerEvaluation(true);
+
+        for (int game = 0; game < 20000; game++) {
+            int bound = 1 + game % 3;
+
+            for (int i = 0; i < DEFAULT_SIZE; i++) {
+                for (int j = 0; j < DEFAULT_SIZE; j++) {
+                    int number = random.nextInt(bound);
+                    model.play(i, j, number);
+                    eagerModel.play(i, j, number);
+                }
+            }
+
+            // An early verdict is always NO_VICTORY, which must be the final verdict as well
+            assertEquals(model.getStatus(), eagerModel.getStatus());
+
+            model.reset();
+            eagerModel.reset();
+        }
+    }
+
+    @Test
+    public void enablingEagerEvaluationMidGame() {
+        model.play(0, 0, 1);
+        model.play(1, 1, 1);
+        model.play(2, 2, 1);
+        model.play(0, 2, 0);
+        model.play(2, 0, 0);
+        assertEquals(Status.IN_PROGRESS, model.getStatus());
+
+        model.setEagerEvaluation(true);
+        assertEquals(Status.NO_VICTORY, model.getStatus()); // The diagonals sum to 3 and 1
+    }
+
+    @Test
+    public void playAllNotifiesOnce() {
+        List<MagicSquareEvent> events = new ArrayList<>();
+        model.addMagicSquareListener(events::add);
+        model.play(1, 1, 5);
+
+        assertEquals(8, model.playAll(new int[][]{{2, 7, 6}, {9, 0, 1}, {4, 3, 8}}));
+        assertEquals(2, events.size());
+        assertEquals(EventType.BULK, events.get(1).getType());
+        assertEquals(8, events.get(1).getNumber());
+        assertEquals(Status.VICTORY, events.get(1).getStatus());
+        assertEquals(5, model.getNumber(1, 1)); // Occupied squares keep their numbers
+        assertEquals(8, events.get(1).getFilledCount()); // The event holds every filled square, in order
+        assertEquals(1, events.get(1).getFilledX(4));
+        assertEquals(2, events.get(1).getFilledY(4));
+        assertEquals(1, events.get(1).getFilledNumber(4));
+        assertEquals(0, events.get(0).getFilledCount());
+
+        assertTrue(model.undo());
+        assertFalse(model.isOccupied(2, 2));
+        assertEquals(Status.IN_PROGRESS, model.getStatus());
+        assertEquals(1, model.playAll(new int[][]{{0, 0, 0}, {0, 0, 0}, {0, 0, 0}}));
+        assertEquals(Status.NO_VICTORY, model.getStatus());
+    }
+
+    @Test
+    public void playAllWithPackedListenerOnly() {
+        List<Long> events = new ArrayList<>();
+        model.addPackedMagicSquareListener(events::add);
+
+        assertEquals(9, model.playAll(new int[][]{{2, 7, 6}, {9, 5, 1}, {4, 3, 8}}));
+        assertEquals(1, events.size());
+        assertEquals(EventType.BULK, PackedMagicSquareEvent.getType(events.get(0)));
+        assertEquals(9, PackedMagicSquareEvent.getNumber(events.get(0)));
+        assertEquals(2, PackedMagicSquareEvent.getX(events.get(0))); // The last square filled
+        assertEquals(2, PackedMagicSquareEvent.getY(events.get(0)));
+        assertEquals(Status.VICTORY, model.getStatus());
+    }
+
+    @Test
+    public void playAllStopsWhenEagerlyDoomed() {
+        model.setEagerEvaluation(true);
+        assertEquals(6, model.playAll(new int[][]{{1, 1, 1}, {2, 2, 2}, {3, 3, 3}}));
+        assertEquals(Status.NO_VICTORY, model.getStatus());
+        assertFalse(model.isOccupied(2, 0));
+        assertEquals(0, model.playAll(new int[][]{{1, 1, 1}, {2, 2, 2}, {3, 3, 3}}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void playAllWrongSize() {
+        model.playAll(new int[][]{{1, 2}, {3, 4}});
+    }
+
+    @Test
+    public void alternatingResetsAndPlays() {
+        Random random = new Random(23);
+        MagicSquareSnapshot snapshot = null;
+        int[][] snapshotNumbers = null;
+        boolean[][] snapshotOccupied = null;
+
+        for (int game = 0; game < 5000; game++) {
+            model.reset();
+            boolean[][] occupied = new boolean[DEFAULT_SIZE][DEFAULT_SIZE];
+            int[][] numbers = new int[DEFAULT_SIZE][DEFAULT_SIZE];
+            int moves = random.nextInt(DEFAULT_SIZE * DEFAULT_SIZE + 1);
+
+            for (int move = 0; move < moves; move++) {
+                int x = random.nextInt(DEFAULT_SIZE);
+                int y = random.nextInt(DEFAULT_SIZE);
+                int number = random.nextInt(3) + 4;
+                model.play(x, y, number);
+                if (!occupied[x][y]) { // Moves on free squares are accepted until the grid is filled
+                    occupied[x][y] = true;
+                    numbers[x][y] = number;
+                }
+            }
+
+            // Resetting must free every square of the previous game, and only the squares played since are occupied
+            int filled = 0;
+            for (int i = 0; i < DEFAULT_SIZE; i++) {
+                for (int j = 0; j < DEFAULT_SIZE; j++) {
+                    assertEquals(occupied[i][j], model.isOccupied(i, j));
+                    if (occupied[i][j]) {
+                        assertEquals(numbers[i][j], model.getNumber(i, j));
+                        filled++;
+                    }
+                }
+            }
+            if (filled == DEFAULT_SIZE * DEFAULT_SIZE) {
+                assertEquals(referenceStatus(numbers), model.getStatus());
+            } else {
+                assertEquals(Status.IN_PROGRESS, model.getStatus());
+            }
+
+            // Snapshots must keep the squares of their game across later resets
+            if (snapshot != null) {
+                for (int i = 0; i < DEFAULT_SIZE; i++) {
+                    for (int j = 0; j < DEFAULT_SIZE; j++) {
+                        assertEquals(snapshotOccupied[i][j], snapshot.isOccupied(i, j));
+                        if (snapshotOccupied[i][j]) {
+                            assertEquals(snapshotNumbers[i][j], snapshot.getNumber(i, j));
+                        }
+                    }
+                }
+            }
+            if (game % 100 == 0) {
+                snapshot = model.snapshot();
+                snapshotNumbers = numbers;
+                snapshotOccupied = occupied;
+            }
+        }
+    }
+
+    /**
+     * The original, allocation-heavy evaluation of a filled grid, kept as the reference that the incremental
+     * evaluation in the model is checked against.
+     *
+     * @param grid The filled grid to evaluate
+     * @return VICTORY if all rows, columns and diagonals share the same sum, NO_VICTORY otherwise
+     */
+    private static Status referenceStatus(int[][] grid) {
+        Set<Integer> allSums = new HashSet<>();
+        List<Integer> integerListRow = new ArrayList<>();
+        List<Integer> integerListColumn = new ArrayList<>();
+        List<Integer> integerListDiagonal = new ArrayList<>();
+
+        for (int i = 0; i < DEFAULT_SIZE; i++) {
+            for (int j = 0; j < DEFAULT_SIZE; j++) {
+                integerListRow.add(grid[i][j]);
+                integerListColumn.add(grid[j][i]);
+            }
+
+            allSums.add(integerListRow.stream().mapToInt(Integer::intValue).sum());
+            allSums.add(integerListColumn.stream().mapToInt(Integer::intValue).sum());
+
+            integerListRow.clear();
+            integerListColumn.clear();
+        }
+
+        for (int i = 0; i < DEFAULT_SIZE; i++) {
+            integerListDiagonal.add(grid[i][i]);
+        }
+
+        allSums.add(integerListDiagonal.stream().mapToInt(Integer::intValue).sum());
+        integerListDiagonal.clear();
+
+        for (int i = 0; i < DEFAULT_SIZE; i++) {
+            integerListDiagonal.add(grid[DEFAULT_SIZE - 1 - i][i]);
+        }
+
+        allSums.add(integerListDiagonal.stream().mapToInt(Integer::intValue).sum());
+
+        return allSums.size() == 1 ? Status.VICTORY : Status.NO_VICTORY;
+    }
 }
@@ -0,0 +1,177 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This test class contains a series of tests for undoing and redoing moves on a MagicSquareModel, and for taking and
+ * restoring snapshots of it.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareSnapshotTest {
+    MagicSquareModel model;
+    List<MagicSquareEvent> events;
+
+    @Before
+    public void setUp() {
+        model = new MagicSquareModel();
+        events = new ArrayList<>();
+        model.addMagicSquareListener(events::add);
+    }
+
+    @Test
+    public void undoAndRedo() {
+        assertFalse(model.undo());
+        assertFalse(model.redo());
+
+        int[][] grid = {{2, 7, 6}, {9, 5, 1}, {4, 3, 8}};
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                model.play(i, j, grid[i][j]);
+            }
+        }
+        assertEquals(Status.VICTORY, model.getStatus());
+
+        assertTrue(model.undo());
+        assertEquals(Status.IN_PROGRESS, model.getStatus());
+        assertFalse(model.isOccupied(2, 2));
+
+        MagicSquareEvent undoEvent = events.get(events.size() - 1);
+        assertEquals(EventType.UNDO, undoEvent.getType());
+        assertEquals(2, undoEvent.getX());
+        assertEquals(2, undoEvent.getY());
+        assertEquals(8, undoEvent.getNumber());
+
+        assertTrue(model.redo());
+        assertEquals(Status.VICTORY, model.getStatus());
+        assertEquals(EventType.MOVE, events.get(events.size() - 1).getType());
+        assertFalse(model.redo());
+
+        // A new move after undoing discards the moves that could have been redone
+        assertTrue(model.undo());
+        assertTrue(model.undo());
+        model.play(2, 1, 4);
+        assertFalse(model.redo());
+        model.play(2, 2, 8);
+        assertEquals(Status.NO_VICTORY, model.getStatus());
+
+        model.reset();
+        assertFalse(model.undo());
+    }
+
+    @Test
+    public void undoMatchesNeverHavingPlayed() {
+        Random random = new Random(5);
+        model = new MagicSquareModel(4);
+
+        for (int game = 0; game < 2000; game++) {
+            List<int[]> moves = new ArrayList<>();
+            while (model.getStatus() == Status.IN_PROGRESS) {
+                int[] move = {random.nextInt(4), random.nextInt(4), random.nextInt(2)};
+                if (!model.isOccupied(move[0], move[1])) {
+                    moves.add(move);
+                    model.play(move[0], move[1], move[2]);
+                }
+                if (random.nextInt(4) == 0 && model.undo()) {
+                    moves.remove(moves.size() - 1);
+                }
+            }
+
+            MagicSquareModel replayed = new MagicSquareModel(4);
+            for (int[] move : moves) {
+                replayed.play(move[0], move[1], move[2]);
+            }
+            assertEquals(replayed.getStatus(), model.getStatus());
+
+            model.reset();
+        }
+    }
+
+    @Test
+    public void snapshotAndRestore() {
+        model = new MagicSquareModel(100);
+        MagicSquareSnapshot empty = model.snapshot();
+        List<MagicSquareSnapshot> snapshots = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < 100; j++) {
+                model.play(i, j, i * 100 + j);
+            }
+            snapshots.add(model.snapshot());
+        }
+
+        // Every snapshot holds exactly the rows played up to when it was taken
+        for (int k = 0; k < 100; k += 9) {
+            MagicSquareSnapshot snapshot = snapshots.get(k);
+            assertEquals(10000 - 100 * (k + 1), snapshot.getNumFreeSquares());
+            for (int i = 0; i < 100; i += 7) {
+                assertEquals(i <= k, snapshot.isOccupied(i, 3));
+                if (i <= k) {
+                    assertEquals(i * 100 + 3, snapshot.getNumber(i, 3));
+                }
+            }
+        }
+
+        Status finalStatus = model.getStatus();
+        assertFalse(empty.isOccupied(50, 50));
+
+        // Restoring a snapshot and changing the model does not change the snapshot
+        model.restore(snapshots.get(49));
+        assertFalse(model.isOccupied(50, 0));
+        model.play(50, 0, -1);
+        assertFalse(snapshots.get(49).isOccupied(50, 0));
+        assertEquals(5000, snapshots.get(50).getNumber(50, 0));
+
+        model.restore(snapshots.get(99));
+        assertEquals(finalStatus, model.getStatus());
+        assertEquals(finalStatus, snapshots.get(99).getStatus());
+
+        model.restore(empty);
+        assertEquals(Status.IN_PROGRESS, model.getStatus());
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < 100; j++) {
+                model.play(i, j, 1);
+            }
+        }
+        assertEquals(Status.VICTORY, model.getStatus());
+    }
+
+    @Test
+    public void restoreIntoSeveralModels() {
+        model.play(0, 0, 2);
+        model.play(1, 1, 5);
+        MagicSquareSnapshot snapshot = model.snapshot();
+
+        // Each model restored from the same snapshot changes its own copy of the grid
+        MagicSquareModel first = new MagicSquareModel();
+        MagicSquareModel second = new MagicSquareModel();
+        first.restore(snapshot);
+        second.restore(snapshot);
+        first.play(2, 2, 8);
+        second.play(2, 2, 3);
+        second.play(0, 1, 7);
+
+        assertEquals(8, first.getNumber(2, 2));
+        assertFalse(first.isOccupied(0, 1));
+        assertEquals(3, second.getNumber(2, 2));
+        assertEquals(7, second.getNumber(0, 1));
+        assertFalse(snapshot.isOccupied(2, 2));
+        assertFalse(snapshot.isOccupied(0, 1));
+        assertEquals(2, snapshot.getNumber(0, 0));
+        assertEquals(5, snapshot.getNumber(1, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void restoreWrongSize() {
+        model.restore(new MagicSquareModel(4).snapshot());
+    }
+}
@@ -0,0 +1,203 @@
+package model;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import solver.MagicSquareGenerator;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This test class contains a series of tests for the MagicSquareVerifier class, including checks that it agrees with
+ * the outcome of games played through MagicSquareModel.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareVerifierTest {
+    ForkJoinPool pool;
+    MagicSquareVerifier verifier;
+    int[][] magicSquare;
+    int[][] nonMagicSquare;
+
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        verifier = new MagicSquareVerifier(pool);
+        magicSquare = new int[][]{{2, 7, 6}, {9, 5, 1}, {4, 3, 8}};
+        nonMagicSquare = new int[][]{{1, 1, 1}, {1, 1, 1}, {1, 1, 2}};
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void verify() {
+        assertEquals(Status.VICTORY, MagicSquareVerifier.verify(magicSquare));
+        assertEquals(Status.NO_VICTORY, MagicSquareVerifier.verify(nonMagicSquare));
+        assertEquals(Status.VICTORY, MagicSquareVerifier.verify(new int[]{2, 7, 6, 9, 5, 1, 4, 3, 8}, 3));
+        assertEquals(Status.VICTORY, MagicSquareVerifier.verify(new int[][]{{42}}));
+    }
+
+    @Test
+    public void verifyLarge() {
+        int size = 601;
+        int[][] grid = MagicSquareGenerator.generate(size);
+        int[] cells = new int[size * size];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(grid[i], 0, cells, i * size, size);
+        }
+        assertEquals(Status.VICTORY, verifier.verifyLarge(grid));
+        assertEquals(Status.VICTORY, verifier.verifyLarge(cells, size));
+
+        // Swapping two squares of a row keeps every row sum, so only the column sums can tell
+        int swapped = grid[size - 1][0];
+        grid[size - 1][0] = grid[size - 1][1];
+        grid[size - 1][1] = swapped;
+        assertEquals(Status.NO_VICTORY, verifier.verifyLarge(grid));
+
+        grid[size - 1][1] = grid[size - 1][0];
+        grid[size - 1][0] = swapped;
+        grid[300][300]++; // Rows and columns keep their sums, but the main diagonal does not
+        grid[300][301]--;
+        grid[301][301]++;
+        grid[301][300]--;
+        assertEquals(MagicSquareVerifier.verify(grid), verifier.verifyLarge(grid));
+        assertEquals(Status.NO_VICTORY, verifier.verifyLarge(grid));
+        assertEquals(Status.VICTORY, verifier.verifyLarge(magicSquare)); // Small grids are verified sequentially
+    }
+
+    @Test
+    public void verifyWithoutOverflow() {
+        // Sums of int extremes exceed the range of an int but are still exact
+        int[][] maxGrid = new int[64][64];
+        for (int[] row : maxGrid) {
+            Arrays.fill(row, Integer.MAX_VALUE);
+        }
+        assertEquals(Status.VICTORY, MagicSquareVerifier.verify(maxGrid));
+        maxGrid[0][0] = Integer.MIN_VALUE;
+        assertEquals(Status.NO_VICTORY, MagicSquareVerifier.verify(maxGrid));
+
+        // Sums of long numbers overflow, so they are compared with arbitrary precision
+        long max = Long.MAX_VALUE;
+        assertEquals(Status.VICTORY, MagicSquareVerifier.verify(new long[][]{{max, max}, {max, max}}));
+        assertEquals(Status.NO_VICTORY, MagicSquareVerifier.verify(new long[][]{{max, max}, {-1, -1}}));
+        assertEquals(Status.VICTORY, MagicSquareVerifier.verify(new long[][]{{2, 7, 6}, {9, 5, 1}, {4, 3, 8}}));
+
+        BigInteger big = BigInteger.ONE.shiftLeft(100);
+        assertEquals(Status.VICTORY, MagicSquareVerifier.verify(new BigInteger[][]{{big, big}, {big, big}}));
+        assertEquals(Status.NO_VICTORY, MagicSquareVerifier.verify(
+                new BigInteger[][]{{big, big}, {big, big.add(BigInteger.ONE)}}));
+        assertEquals(Status.VICTORY, MagicSquareVerifier.verify(new BigInteger[][]{{BigInteger.TEN}}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyNonSquareGrid() {
+        MagicSquareVerifier.verify(new int[][]{{1, 2}, {3}});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyNonSquareGridAfterOverflow() {
+        // The first row overflows a long, and the last row is too short
+        MagicSquareVerifier.verify(new long[][]{{Long.MAX_VALUE, Long.MAX_VALUE, 1}, {1, 2, 3}, {4, 5}});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyNonSquareBigGrid() {
+        // The first row does not fit in a long, and the last row is too long
+        BigInteger big = BigInteger.ONE.shiftLeft(100);
+        MagicSquareVerifier.verify(new BigInteger[][]{{big, big}, {big, big, big}});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyWrongNumberOfCells() {
+        MagicSquareVerifier.verify(new int[]{1, 2, 3}, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyWrongNumberOfCellsAfterOverflow() {
+        // 65536 * 65536 overflows an int to 0
+        MagicSquareVerifier.verify(new int[0], 65536);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyLargeWrongNumberOfCellsAfterOverflow() {
+        verifier.verifyLarge(new int[0], 65536);
+    }
+
+    @Test
+    public void verifyMatchesModel() {
+        Random random = new Random(7);
+
+        for (int game = 0; game < 5000; game++) {
+            int size = 1 + game % 5;
+            int[][] grid = randomGrid(random, size);
+            MagicSquareModel model = new MagicSquareModel(size);
+
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    model.play(i, j, grid[i][j]);
+                }
+            }
+
+            assertEquals(model.getStatus(), MagicSquareVerifier.verify(grid));
+        }
+    }
+
+    @Test
+    public void verifyAll() {
+        Random random = new Random(11);
+        List<int[][]> grids = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            grids.add(i % 100 == 0 ? magicSquare : randomGrid(random, 3));
+        }
+
+        Status[] expected = new Status[grids.size()];
+        for (int i = 0; i < grids.size(); i++) {
+            expected[i] = MagicSquareVerifier.verify(grids.get(i));
+        }
+
+        assertArrayEquals(expected, verifier.verifyAll(grids));
+
+        List<Status> streamed = MagicSquareVerifier.verify(grids.parallelStream()).collect(Collectors.toList());
+        assertArrayEquals(expected, streamed.toArray());
+    }
+
+    @Test
+    public void verifyStream() {
+        List<Status> statuses = MagicSquareVerifier.verify(Stream.of(magicSquare, nonMagicSquare))
+                .collect(Collectors.toList());
+
+        assertEquals(2, statuses.size());
+        assertEquals(Status.VICTORY, statuses.get(0));
+        assertEquals(Status.NO_VICTORY, statuses.get(1));
+    }
+
+    /**
+     * Creates a grid filled with small random numbers, so that some of the grids created are magic squares.
+     *
+     * @param random The source of randomness
+     * @param size   The size of the grid
+     * @return The random grid
+     */
+    private static int[][] randomGrid(Random random, int size) {
+        int[][] grid = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                grid[i][j] = random.nextInt(2);
+            }
+        }
+        return grid;
+    }
+}
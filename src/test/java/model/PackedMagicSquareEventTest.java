@@ -0,0 +1,69 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This test class contains a series of tests for the PackedMagicSquareEvent class and for the notification of packed
+ * listeners by MagicSquareModel.
+ *
+ * @author Samuel Gamelin
+ */
+public class PackedMagicSquareEventTest {
+    @Test
+    public void packAndUnpack() {
+        int max = PackedMagicSquareEvent.MAX_SIZE - 1;
+        int[][] moves = {{0, 0, 0}, {2, 1, 10}, {max, max, -1}, {max, 0, Integer.MIN_VALUE}, {0, max, Integer.MAX_VALUE}};
+
+        for (int[] move : moves) {
+            for (Status status : Status.values()) {
+                long event = PackedMagicSquareEvent.pack(move[0], move[1], move[2], status);
+
+                assertEquals(move[0], PackedMagicSquareEvent.getX(event));
+                assertEquals(move[1], PackedMagicSquareEvent.getY(event));
+                assertEquals(move[2], PackedMagicSquareEvent.getNumber(event));
+                assertEquals(status, PackedMagicSquareEvent.getStatus(event));
+            }
+        }
+    }
+
+    @Test
+    public void toEvent() {
+        MagicSquareEvent event = PackedMagicSquareEvent.toEvent(PackedMagicSquareEvent.pack(2, 1, -7, Status.VICTORY));
+
+        assertEquals(2, event.getX());
+        assertEquals(1, event.getY());
+        assertEquals(-7, event.getNumber());
+        assertEquals(Status.VICTORY, event.getStatus());
+    }
+
+    @Test
+    public void packedListenersMatchListeners() {
+        MagicSquareModel model = new MagicSquareModel();
+        List<Long> packedEvents = new ArrayList<>();
+        List<MagicSquareEvent> events = new ArrayList<>();
+        model.addPackedMagicSquareListener(packedEvents::add);
+        model.addMagicSquareListener(events::add);
+
+        int[][] grid = {{2, 7, 6}, {9, 5, 1}, {4, 3, 8}};
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                model.play(i, j, grid[i][j]);
+            }
+        }
+
+        assertEquals(9, packedEvents.size());
+        for (int i = 0; i < 9; i++) {
+            long packedEvent = packedEvents.get(i);
+            assertEquals(events.get(i).getX(), PackedMagicSquareEvent.getX(packedEvent));
+            assertEquals(events.get(i).getY(), PackedMagicSquareEvent.getY(packedEvent));
+            assertEquals(events.get(i).getNumber(), PackedMagicSquareEvent.getNumber(packedEvent));
+            assertEquals(events.get(i).getStatus(), PackedMagicSquareEvent.getStatus(packedEvent));
+        }
+        assertEquals(Status.VICTORY, PackedMagicSquareEvent.getStatus(packedEvents.get(8)));
+    }
+}
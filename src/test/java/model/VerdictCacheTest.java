@@ -0,0 +1,124 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * This test class contains a series of tests for the VerdictCache and CanonicalGrid classes.
+ *
+ * @author Samuel Gamelin
+ */
+public class VerdictCacheTest {
+    static final int[][] LO_SHU = {{2, 7, 6}, {9, 5, 1}, {4, 3, 8}};
+
+    VerdictCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new VerdictCache(4);
+    }
+
+    @Test
+    public void symmetricGridsShareCanonicalForm() {
+        Random random = new Random(5);
+
+        for (int size = 1; size <= 6; size++) {
+            int[][] grid = new int[size][size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    grid[i][j] = random.nextInt(100);
+                }
+            }
+
+            CanonicalGrid canonical = CanonicalGrid.of(grid);
+            for (int[][] symmetric : symmetries(grid)) {
+                assertEquals(canonical, CanonicalGrid.of(symmetric));
+                assertEquals(canonical.hashCode(), CanonicalGrid.of(symmetric).hashCode());
+            }
+        }
+    }
+
+    @Test
+    public void canonicalFormIsSmallestSymmetry() {
+        CanonicalGrid canonical = CanonicalGrid.of(LO_SHU);
+        assertEquals(2, canonical.getNumber(0, 0));
+        assertEquals(7, canonical.getNumber(0, 1)); // 2 9 4 would come after 2 7 6
+        assertNotEquals(canonical, CanonicalGrid.of(new int[][]{{2, 7, 6}, {9, 5, 1}, {4, 8, 3}}));
+    }
+
+    @Test
+    public void cachesVerdictsOfSymmetricGrids() {
+        for (int[][] symmetric : symmetries(LO_SHU)) {
+            assertEquals(Status.VICTORY, cache.verify(symmetric));
+        }
+        assertEquals(1, cache.getMissCount());
+        assertEquals(7, cache.getHitCount());
+        assertEquals(1, cache.size());
+
+        int[][] notMagic = {{1, 2, 3}, {4, 5, 6}, {7, 8, 9}};
+        assertEquals(Status.NO_VICTORY, cache.verify(notMagic));
+        assertEquals(Status.NO_VICTORY, cache.verify(rotate(notMagic)));
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0.8, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        for (int number = 0; number < 4; number++) {
+            cache.verify(new int[]{number}, 1);
+        }
+        cache.verify(new int[]{0}, 1); // Grid 0 is now the most recently used, so grid 1 is evicted next
+        cache.verify(new int[]{4}, 1);
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(4, cache.size());
+
+        long misses = cache.getMissCount();
+        cache.verify(new int[]{0}, 1);
+        assertEquals(misses, cache.getMissCount());
+        cache.verify(new int[]{1}, 1);
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongNumberOfCellsAfterOverflow() {
+        // 65536 * 65536 overflows an int to 0
+        CanonicalGrid.of(new int[0], 65536);
+    }
+
+    /**
+     * Returns the 8 symmetries of a grid, made by rotating it and its transpose.
+     */
+    private static int[][][] symmetries(int[][] grid) {
+        int[][][] symmetries = new int[8][][];
+        int[][] transposed = new int[grid.length][grid.length];
+        for (int i = 0; i < grid.length; i++) {
+            for (int j = 0; j < grid.length; j++) {
+                transposed[j][i] = grid[i][j];
+            }
+        }
+
+        symmetries[0] = grid;
+        symmetries[4] = transposed;
+        for (int k = 1; k < 4; k++) {
+            symmetries[k] = rotate(symmetries[k - 1]);
+            symmetries[k + 4] = rotate(symmetries[k + 3]);
+        }
+        return symmetries;
+    }
+
+    private static int[][] rotate(int[][] grid) {
+        int size = grid.length;
+        int[][] rotated = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                rotated[j][size - 1 - i] = grid[i][j];
+            }
+        }
+        return rotated;
+    }
+}
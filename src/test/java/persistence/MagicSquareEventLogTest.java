@@ -0,0 +1,221 @@
+package persistence;
+
+import model.BackPressurePolicy;
+import model.MagicSquareModel;
+import model.Status;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * This test class contains a series of tests for the MagicSquareEventLog and MagicSquareEventLogReader classes, checking
+ * that boards restored from a log are identical to the boards whose moves were recorded.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareEventLogTest {
+    static final int BOARDS = 500;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    Path path;
+
+    @Before
+    public void setUp() throws IOException {
+        path = folder.newFile("game.log").toPath();
+        path.toFile().delete();
+    }
+
+    @Test
+    public void restoreAll() throws IOException {
+        MagicSquareModel[] models = new MagicSquareModel[BOARDS];
+
+        try (MagicSquareEventLog log = new MagicSquareEventLog(path, 3)) {
+            for (int i = 0; i < BOARDS; i++) {
+                models[i] = new MagicSquareModel();
+                log.attach(i, models[i]);
+            }
+            playRandomly(models, log, new Random(3), 20000);
+        }
+
+        try (MagicSquareEventLogReader reader = new MagicSquareEventLogReader(path)) {
+            assertEquals(3, reader.getSize());
+
+            Map<Integer, MagicSquareModel> restored = reader.restoreAll();
+            for (int i = 0; i < BOARDS; i++) {
+                MagicSquareModel expected = models[i];
+                MagicSquareModel actual = restored.containsKey(i) ? restored.get(i) : new MagicSquareModel();
+                assertSameBoard(expected, actual);
+            }
+
+            MagicSquareModel single = new MagicSquareModel();
+            reader.replay(7, single);
+            assertSameBoard(models[7], single);
+        }
+    }
+
+    @Test
+    public void reopenAndAppend() throws IOException {
+        MagicSquareModel model = new MagicSquareModel();
+
+        try (MagicSquareEventLog log = new MagicSquareEventLog(path, 3)) {
+            log.attach(0, model);
+            model.play(0, 0, 2);
+            model.play(0, 1, 7);
+        }
+
+        // Continue the same game on a new model after reopening the log
+        model = new MagicSquareModel();
+        model.play(0, 0, 2);
+        model.play(0, 1, 7);
+
+        MagicSquareEventLog log = new MagicSquareEventLog(path, 3);
+        assertEquals(2, log.getRecordCount());
+        log.attach(0, model);
+        int[][] rest = {{2, 7, 6}, {9, 5, 1}, {4, 3, 8}};
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                model.play(i, j, rest[i][j]);
+            }
+        }
+        log.force(); // The log is not closed, as if the process had stopped, so it is followed by zero-filled space
+
+        try (MagicSquareEventLogReader reader = new MagicSquareEventLogReader(path)) {
+            assertEquals(9, reader.getRecordCount());
+
+            MagicSquareModel restored = new MagicSquareModel();
+            reader.replay(0, restored);
+            assertEquals(Status.VICTORY, restored.getStatus());
+        }
+
+        log.close();
+    }
+
+    @Test
+    public void forceAcrossRegions() throws IOException {
+        MagicSquareModel model = new MagicSquareModel();
+        int[] loShu = {2, 7, 6, 9, 5, 1, 4, 3, 8};
+        int games = MagicSquareEventLog.RECORDS_PER_CHUNK / 10 + 10; // Each game takes 10 records
+
+        MagicSquareEventLog log = new MagicSquareEventLog(path, 3);
+        log.attach(0, model);
+        for (int game = 0; game < games; game++) {
+            model.reset();
+            log.appendReset(0);
+            for (int square = 0; square < 9; square++) {
+                model.play(square / 3, square % 3, loShu[(square + game) % 9]);
+            }
+        }
+        log.force(); // The log is not closed, so every region written so far must have been forced
+
+        try (MagicSquareEventLogReader reader = new MagicSquareEventLogReader(path)) {
+            assertEquals(10L * games, reader.getRecordCount());
+
+            MagicSquareModel restored = new MagicSquareModel();
+            reader.replay(0, restored);
+            assertSameBoard(model, restored);
+        }
+
+        log.close();
+    }
+
+    @Test
+    public void replayBulkInput() throws IOException {
+        MagicSquareModel model = new MagicSquareModel();
+
+        try (MagicSquareEventLog log = new MagicSquareEventLog(path, 3)) {
+            log.attach(0, model);
+            model.play(1, 1, 5);
+            model.playAll(new int[][]{{2, 7, 6}, {9, 0, 1}, {4, 3, 8}});
+            model.undo();
+        }
+
+        try (MagicSquareEventLogReader reader = new MagicSquareEventLogReader(path)) {
+            MagicSquareModel restored = new MagicSquareModel();
+            reader.replay(0, restored);
+            assertEquals(Status.IN_PROGRESS, restored.getStatus());
+            assertFalse(restored.isOccupied(2, 2));
+            assertEquals(5, restored.getNumber(1, 1));
+            assertEquals(3, restored.getNumber(2, 1));
+            restored.play(2, 2, 8);
+            assertEquals(Status.VICTORY, restored.getStatus());
+        }
+    }
+
+    @Test
+    public void replayAsynchronousBulkInput() throws IOException {
+        MagicSquareModel model = new MagicSquareModel();
+        Queue<Runnable> pendingTasks = new ArrayDeque<>();
+        model.setAsyncDispatch(pendingTasks::add, 16, 16, BackPressurePolicy.BLOCK);
+
+        try (MagicSquareEventLog log = new MagicSquareEventLog(path, 3)) {
+            log.attach(0, model);
+            model.play(1, 1, 5);
+            model.playAll(new int[][]{{2, 7, 6}, {9, 0, 1}, {4, 3, 8}});
+            model.undo();
+            model.play(2, 2, 1); // The grid changes again before listeners are notified of the bulk input
+
+            Runnable task;
+            while ((task = pendingTasks.poll()) != null) {
+                task.run();
+            }
+            assertEquals(11, log.getRecordCount()); // Squares that were already occupied are not recorded again
+        }
+
+        try (MagicSquareEventLogReader reader = new MagicSquareEventLogReader(path)) {
+            MagicSquareModel restored = new MagicSquareModel();
+            reader.replay(0, restored);
+            assertSameBoard(model, restored);
+            assertEquals(Status.NO_VICTORY, restored.getStatus());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void sizeMismatch() throws IOException {
+        new MagicSquareEventLog(path, 3).close();
+        new MagicSquareEventLog(path, 4);
+    }
+
+    /**
+     * Makes random moves (some of them invalid), undos and resets on random boards.
+     */
+    private static void playRandomly(MagicSquareModel[] models, MagicSquareEventLog log, Random random, int moves) {
+        for (int k = 0; k < moves; k++) {
+            int board = random.nextInt(models.length);
+            MagicSquareModel model = models[board];
+
+            if (model.getStatus() != Status.IN_PROGRESS && random.nextBoolean()) {
+                model.reset();
+                log.appendReset(board);
+            } else if (random.nextInt(5) == 0) {
+                model.undo();
+            } else {
+                model.play(random.nextInt(3), random.nextInt(3), random.nextInt(3));
+            }
+        }
+    }
+
+    private static void assertSameBoard(MagicSquareModel expected, MagicSquareModel actual) {
+        assertEquals(expected.getStatus(), actual.getStatus());
+        for (int x = 0; x < 3; x++) {
+            for (int y = 0; y < 3; y++) {
+                assertEquals(expected.isOccupied(x, y), actual.isOccupied(x, y));
+                if (expected.isOccupied(x, y)) {
+                    assertEquals(expected.getNumber(x, y), actual.getNumber(x, y));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package persistence;
+
+import model.MagicSquareVerifier;
+import model.Status;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import solver.MagicSquareGenerator;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This test class contains a series of tests for the StreamingMagicSquareVerifier class, checking that its verdicts
+ * agree with those of the MagicSquareVerifier whichever way the file is read.
+ *
+ * @author Samuel Gamelin
+ */
+public class StreamingMagicSquareVerifierTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    Path path;
+
+    StreamingMagicSquareVerifier[] verifiers;
+
+    @Before
+    public void setUp() throws IOException {
+        path = folder.newFile("grid.bin").toPath();
+        // A buffer of a few numbers splits rows (and numbers, once the header has been read) across reads
+        verifiers = new StreamingMagicSquareVerifier[]{new StreamingMagicSquareVerifier(),
+                new StreamingMagicSquareVerifier(true), new StreamingMagicSquareVerifier(false, 12)};
+    }
+
+    @Test
+    public void magicSquares() throws IOException {
+        for (int size = 1; size <= 37; size += 3) {
+            if (size == 2) {
+                continue;
+            }
+            StreamingMagicSquareVerifier.write(path, MagicSquareGenerator.generate(size));
+            for (StreamingMagicSquareVerifier verifier : verifiers) {
+                StreamingMagicSquareVerifier.Result result = verifier.verify(path);
+                assertEquals(Status.VICTORY, result.getStatus());
+                assertEquals((long) size * size, result.getCellsRead());
+            }
+        }
+    }
+
+    @Test
+    public void agreesWithVerifier() throws IOException {
+        Random random = new Random(17);
+
+        for (int game = 0; game < 300; game++) {
+            int size = 1 + random.nextInt(5);
+            int bound = 1 + game % 3;
+            int[][] grid = new int[size][size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    grid[i][j] = random.nextInt(bound);
+                }
+            }
+
+            StreamingMagicSquareVerifier.write(path, grid);
+            for (StreamingMagicSquareVerifier verifier : verifiers) {
+                assertEquals(MagicSquareVerifier.verify(grid), verifier.verify(path).getStatus());
+            }
+        }
+    }
+
+    @Test
+    public void stopsAtFirstMismatchingRow() throws IOException {
+        int size = 201;
+        int[][] grid = MagicSquareGenerator.generate(size);
+        grid[1][0]++;
+        StreamingMagicSquareVerifier.write(path, grid);
+
+        for (StreamingMagicSquareVerifier verifier : verifiers) {
+            StreamingMagicSquareVerifier.Result result = verifier.verify(path);
+            assertEquals(Status.NO_VICTORY, result.getStatus());
+            assertTrue(result.getCellsRead() < (long) size * size);
+        }
+    }
+
+    @Test
+    public void computedNumbers() throws IOException {
+        StreamingMagicSquareVerifier.write(path, 1000, (i, j) -> 7);
+        StreamingMagicSquareVerifier.Result result = new StreamingMagicSquareVerifier(true).verify(path);
+        assertEquals(Status.VICTORY, result.getStatus());
+        assertTrue(result.getCellsPerSecond() > 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedFile() throws IOException {
+        StreamingMagicSquareVerifier.write(path, MagicSquareGenerator.generate(5));
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(file.length() - 1);
+        }
+        new StreamingMagicSquareVerifier().verify(path);
+    }
+}
@@ -0,0 +1,94 @@
+package server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This test class contains a series of tests for the MagicSquareServer class, talking to it over a real connection, and
+ * for the LoadGenerator class.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareServerTest {
+    MagicSquareServer server;
+    Socket socket;
+    BufferedReader reader;
+    Writer writer;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MagicSquareServer(0, 30);
+        socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        socket.close();
+        server.close();
+    }
+
+    @Test
+    public void playGame() throws IOException {
+        String id = request("NEW").substring(3);
+        int[][] grid = {{2, 7, 6}, {9, 5, 1}, {4, 3, 8}};
+
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                String expected = i == 2 && j == 2 ? "OK VICTORY" : "OK IN_PROGRESS";
+                assertEquals(expected, request("PLAY " + id + " " + i + " " + j + " " + grid[i][j]));
+            }
+        }
+
+        assertEquals("REJECTED OCCUPIED", request("PLAY " + id + " 0 0 1"));
+        assertEquals("REJECTED OUT_OF_RANGE", request("PLAY " + id + " 3 0 1"));
+        assertEquals("OK VICTORY", request("STATUS " + id));
+        assertEquals("OK", request("RESET " + id));
+        assertEquals("OK IN_PROGRESS", request("status " + id));
+        assertEquals("OK", request("CLOSE " + id));
+        assertTrue(request("STATUS " + id).startsWith("ERROR"));
+    }
+
+    @Test
+    public void errors() throws IOException {
+        assertTrue(request("JUMP").startsWith("ERROR"));
+        assertTrue(request("PLAY 1 2").startsWith("ERROR"));
+        assertTrue(request("PLAY x 0 0 1").startsWith("ERROR"));
+        assertTrue(request("NEW 0").startsWith("ERROR"));
+        assertEquals("ERROR The size cannot exceed " + MagicSquareServer.MAX_SIZE, request("NEW 46340"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void idleMinutesMustBePositive() throws IOException {
+        new MagicSquareServer(0, 0);
+    }
+
+    @Test
+    public void loadGenerator() throws Exception {
+        LoadGenerator.Report report = new LoadGenerator(server.getPort(), 4, 20, 3).run();
+
+        assertEquals(4 * 20 * 9, report.getMoves());
+        assertTrue(report.getLatencyPercentile(99) <= report.getLatencyPercentile(100));
+        assertEquals(0, server.getSessionManager().size());
+    }
+
+    private String request(String command) throws IOException {
+        writer.write(command + "\n");
+        writer.flush();
+        return reader.readLine();
+    }
+}
@@ -0,0 +1,75 @@
+package server;
+
+import model.MoveResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This test class contains a series of tests for the SessionManager class.
+ *
+ * @author Samuel Gamelin
+ */
+public class SessionManagerTest {
+    SessionManager sessionManager;
+
+    @Before
+    public void setUp() {
+        sessionManager = new SessionManager(4);
+    }
+
+    @Test
+    public void createAndGet() {
+        Session first = sessionManager.create(3);
+        Session second = sessionManager.create(4);
+
+        assertNotEquals(first.getId(), second.getId());
+        assertSame(first, sessionManager.get(first.getId()));
+        assertEquals(4, sessionManager.get(second.getId()).getModel().getSize());
+        assertEquals(MoveResult.ACCEPTED, sessionManager.get(first.getId()).getModel().play(0, 0, 1));
+        assertNull(sessionManager.get(12345));
+    }
+
+    @Test
+    public void manySessions() {
+        for (int i = 0; i < 100000; i++) {
+            sessionManager.create(3);
+        }
+        assertEquals(100000, sessionManager.size());
+    }
+
+    @Test
+    public void remove() {
+        Session session = sessionManager.create(3);
+
+        assertTrue(sessionManager.remove(session.getId()));
+        assertFalse(sessionManager.remove(session.getId()));
+        assertNull(sessionManager.get(session.getId()));
+    }
+
+    @Test
+    public void evictIdle() throws InterruptedException {
+        Session idle = sessionManager.create(3);
+        Session active = sessionManager.create(3);
+
+        Thread.sleep(50);
+        sessionManager.get(active.getId());
+
+        assertEquals(1, sessionManager.evictIdle(40, TimeUnit.MILLISECONDS));
+        assertNull(sessionManager.get(idle.getId()));
+        assertSame(active, sessionManager.get(active.getId()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidShardCount() {
+        new SessionManager(3);
+    }
+}
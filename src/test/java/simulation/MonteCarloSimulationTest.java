@@ -0,0 +1,58 @@
+package simulation;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This test class contains a series of tests for the MonteCarloSimulation class.
+ *
+ * @author Samuel Gamelin
+ */
+public class MonteCarloSimulationTest {
+    @Test
+    public void deterministic() {
+        MonteCarloSimulation simulation = new MonteCarloSimulation(3, 0, 1, 7);
+        MonteCarloSimulation.Report first = simulation.run(300000);
+        MonteCarloSimulation.Report second = simulation.run(300000);
+        assertEquals(first.getVictories(), second.getVictories());
+        assertTrue(first.getVictories() != new MonteCarloSimulation(3, 0, 1, 8).run(300000).getVictories()
+                || first.getVictories() == 0);
+    }
+
+    @Test
+    public void independentOfThreadCount() throws InterruptedException, ExecutionException {
+        MonteCarloSimulation simulation = new MonteCarloSimulation(3, 0, 1, 7);
+        long expected = simulation.run(300000).getVictories();
+
+        // A parallel stream started from a fork-join pool runs on that pool
+        for (int threads : new int[]{1, 4}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                assertEquals(expected, (long) pool.submit(() -> simulation.run(300000).getVictories()).get());
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    public void certainOutcomes() {
+        assertEquals(1.0, new MonteCarloSimulation(1, -5, 5, 1).run(1000).getVictoryRate(), 0);
+        assertEquals(1.0, new MonteCarloSimulation(4, 3, 3, 1).run(1000).getVictoryRate(), 0);
+        assertEquals(0, new MonteCarloSimulation(3, 0, 0, 1).run(0).getTrials());
+    }
+
+    @Test
+    public void estimatesKnownProbability() {
+        // A 2x2 grid is only magic when all four numbers are equal, which happens with probability 2/16 for {0, 1}
+        MonteCarloSimulation.Report report = new MonteCarloSimulation(2, 0, 1, 3).run(200000);
+        assertEquals(200000, report.getTrials());
+        assertTrue(report.toString(), report.getLowerBound() < 0.125 && 0.125 < report.getUpperBound());
+        assertTrue(report.getUpperBound() - report.getLowerBound() < 0.01);
+    }
+}
@@ -0,0 +1,48 @@
+package solver;
+
+import model.MagicSquareVerifier;
+import model.Status;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This test class contains a series of tests for the MagicSquareGenerator class, checking that every generated grid is
+ * a normal magic square.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareGeneratorTest {
+    @Test
+    public void generate() {
+        for (int size = 1; size <= 40; size++) {
+            if (size == 2) {
+                continue;
+            }
+
+            int[][] grid = MagicSquareGenerator.generate(size);
+            assertEquals("size " + size, Status.VICTORY, MagicSquareVerifier.verify(grid));
+
+            boolean[] seen = new boolean[size * size + 1];
+            for (int[] row : grid) {
+                for (int number : row) {
+                    assertTrue(number >= 1 && number <= size * size && !seen[number]);
+                    seen[number] = true;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void generateLarge() {
+        assertEquals(Status.VICTORY, MagicSquareVerifier.verify(MagicSquareGenerator.generate(1001)));
+        assertEquals(Status.VICTORY, MagicSquareVerifier.verify(MagicSquareGenerator.generate(1002)));
+        assertEquals(Status.VICTORY, MagicSquareVerifier.verify(MagicSquareGenerator.generate(1004)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void generateSizeTwo() {
+        MagicSquareGenerator.generate(2);
+    }
+}
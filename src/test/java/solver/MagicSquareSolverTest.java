@@ -0,0 +1,91 @@
+package solver;
+
+import model.MagicSquareModel;
+import model.Status;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * This test class contains a series of tests for the MagicSquareSolver class.
+ *
+ * @author Samuel Gamelin
+ */
+public class MagicSquareSolverTest {
+    MagicSquareModel model;
+
+    @Before
+    public void setUp() {
+        model = new MagicSquareModel();
+    }
+
+    @Test
+    public void countNormalSquares() {
+        // There are 8 normal 3x3 magic squares (the rotations and reflections of a single one)
+        assertEquals(8, MagicSquareSolver.normal(3).countCompletions(model));
+
+        // There are 7040 normal 4x4 magic squares
+        assertEquals(7040, new MagicSquareSolver(1, 16, true, new ForkJoinPool(4))
+                .countCompletions(new MagicSquareModel(4)));
+    }
+
+    @Test
+    public void countFromPartialGrid() {
+        model.play(1, 1, 5);
+        assertEquals(8, MagicSquareSolver.normal(3).countCompletions(model));
+
+        model.play(0, 0, 2);
+        assertEquals(2, MagicSquareSolver.normal(3).countCompletions(model));
+
+        model.play(0, 1, 7);
+        assertEquals(1, MagicSquareSolver.normal(3).countCompletions(model));
+        assertFalse(model.isOccupied(2, 2)); // The model itself is not touched by the solver
+    }
+
+    @Test
+    public void countWithRepeatedValues() {
+        // With values 0 and 1, the only 3x3 magic squares are the two constant grids
+        assertEquals(2, new MagicSquareSolver(0, 1, false).countCompletions(model));
+    }
+
+    @Test
+    public void findCompletion() {
+        model.play(0, 0, 2);
+        model.play(1, 1, 5);
+
+        int[][] completion = MagicSquareSolver.normal(3).findCompletion(model);
+        assertNotNull(completion);
+
+        MagicSquareSolver.apply(completion, model);
+        assertEquals(Status.VICTORY, model.getStatus());
+    }
+
+    @Test(timeout = 30000)
+    public void findCompletionWithWideRange() {
+        // Candidate sums are searched one at a time, from the smallest, rather than all being prepared up front
+        model.play(1, 1, 4);
+        int[][] completion = new MagicSquareSolver(0, 20000, true).findCompletion(model);
+        assertNotNull(completion);
+
+        MagicSquareSolver.apply(completion, model);
+        assertEquals(Status.VICTORY, model.getStatus());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rangeTooWide() {
+        new MagicSquareSolver(Integer.MIN_VALUE, Integer.MAX_VALUE, false);
+    }
+
+    @Test
+    public void findNoCompletion() {
+        model.play(1, 1, 1); // The center of a normal 3x3 magic square is always 5
+        assertNull(MagicSquareSolver.normal(3).findCompletion(model));
+        assertEquals(0, MagicSquareSolver.normal(3).countCompletions(model));
+    }
+}
@@ -0,0 +1,129 @@
+package trace;
+
+import model.BackPressurePolicy;
+import model.MagicSquareModel;
+import model.PackedMagicSquareEvent;
+import model.Status;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This test class replays generated and recorded traces against the model.
+ *
+ * @author Samuel Gamelin
+ */
+public class TraceRunnerTest {
+    TraceRunner runner;
+
+    @Before
+    public void setUp() {
+        runner = new TraceRunner(3);
+    }
+
+    @Test
+    public void generatedTracesConform() throws TraceMismatchException {
+        for (int size = 1; size <= 6; size++) {
+            Trace trace = new TraceGenerator(size, size).generate(100000);
+            new TraceRunner(size).check(trace);
+        }
+    }
+
+    @Test
+    public void generatedTracesWinAndLose() {
+        Trace trace = new TraceGenerator(3, 1).generate(100000);
+        int victories = 0;
+        int defeats = 0;
+        int rejections = 0;
+        for (int step = 0; step < trace.length(); step++) {
+            if (trace.isReset(step)) {
+                continue;
+            }
+            long event = trace.getExpectedEvent(step);
+            if (event == Trace.NO_EVENT) {
+                rejections++;
+            } else if (PackedMagicSquareEvent.getStatus(event) == Status.VICTORY) {
+                victories++;
+            } else if (PackedMagicSquareEvent.getStatus(event) == Status.NO_VICTORY) {
+                defeats++;
+            }
+        }
+        assertTrue(victories > 100 && defeats > 100 && rejections > 100);
+    }
+
+    @Test
+    public void sameSeedSameTrace() {
+        Trace first = new TraceGenerator(4, 9).generate(1000);
+        Trace second = new TraceGenerator(4, 9).generate(1000);
+        for (int step = 0; step < first.length(); step++) {
+            assertEquals(first.describe(step), second.describe(step));
+        }
+    }
+
+    @Test
+    public void mismatch() {
+        Trace trace = new Trace.Builder(3)
+                .play(0, 0, 2, Status.IN_PROGRESS)
+                .play(0, 0, 7, Status.IN_PROGRESS) // The square is occupied, so the move is rejected
+                .build();
+        assertEquals(1, runner.replay(trace));
+        try {
+            runner.check(trace);
+            fail("The model should have diverged from the trace");
+        } catch (TraceMismatchException e) {
+            assertEquals(1, e.getStep());
+        }
+    }
+
+    @Test
+    public void recordAndReplay() throws TraceMismatchException {
+        TraceRecorder recorder = new TraceRecorder(new MagicSquareModel());
+        int[] loShu = {2, 7, 6, 9, 5, 1, 4, 3, 8};
+        for (int square = 0; square < 9; square++) {
+            recorder.play(square / 3, square % 3, loShu[square]);
+        }
+        recorder.play(1, 1, 5);
+        recorder.reset();
+        recorder.play(2, 2, 1);
+
+        Trace trace = recorder.getTrace();
+        assertEquals(12, trace.length());
+        assertEquals("play 2 2 8 VICTORY", trace.describe(8));
+        assertEquals("play 1 1 5 rejected", trace.describe(9));
+        runner.check(trace);
+    }
+
+    @Test
+    public void measure() throws TraceMismatchException {
+        Trace trace = new TraceGenerator(3, 5).generate(10000);
+        TraceRunner.Result result = runner.measure(trace, 100);
+        assertEquals(100L * trace.getPlayCount(), result.getMoves());
+        assertTrue(result.getMovesPerSecond() > 0);
+        if (!Double.isNaN(result.getBytesPerMove())) { // Replaying a trace does not allocate per move
+            assertTrue(result.toString(), result.getBytesPerMove() < 1);
+        }
+    }
+
+    @Test
+    public void asynchronousDispatchIsRejected() {
+        MagicSquareModel model = new MagicSquareModel(3);
+        TraceRunner modelRunner = new TraceRunner(model);
+        model.setAsyncDispatch(Runnable::run, 16, 16, BackPressurePolicy.BLOCK);
+
+        try {
+            new TraceRunner(model);
+            fail("A model with asynchronous dispatch should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // Replays check each event as soon as its play returns
+        }
+        try {
+            modelRunner.replay(new TraceGenerator(3, 1).generate(10));
+            fail("A replay should not start once asynchronous dispatch is enabled");
+        } catch (IllegalStateException expected) {
+            // The model was configured after the runner was constructed
+        }
+    }
+}
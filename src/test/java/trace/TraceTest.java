@@ -0,0 +1,75 @@
+package trace;
+
+import model.Status;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This test class contains a series of tests for the Trace class and its text format.
+ *
+ * @author Samuel Gamelin
+ */
+public class TraceTest {
+    Trace trace;
+
+    @Before
+    public void setUp() {
+        trace = new Trace.Builder(3)
+                .play(0, 0, 2, Status.IN_PROGRESS)
+                .playRejected(0, 0, 7)
+                .playRejected(3, 1, 4)
+                .reset()
+                .play(1, 2, -5, Status.IN_PROGRESS)
+                .build();
+    }
+
+    @Test
+    public void steps() {
+        assertEquals(3, trace.getSize());
+        assertEquals(5, trace.length());
+        assertEquals(4, trace.getPlayCount());
+        assertTrue(trace.isReset(3));
+        assertFalse(trace.isReset(4));
+        assertEquals(-5, trace.getNumber(4));
+        assertEquals(Trace.NO_EVENT, trace.getExpectedEvent(1));
+        assertEquals("play 0 0 7 rejected", trace.describe(1));
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+        StringWriter writer = new StringWriter();
+        trace.write(writer);
+        assertEquals("size 3\nplay 0 0 2 IN_PROGRESS\nplay 0 0 7 rejected\nplay 3 1 4 rejected\nreset\n"
+                + "play 1 2 -5 IN_PROGRESS\n", writer.toString());
+
+        Trace read = Trace.read(new StringReader("# A comment\n\n" + writer));
+        assertEquals(trace.length(), read.length());
+        for (int step = 0; step < trace.length(); step++) {
+            assertEquals(trace.describe(step), read.describe(step));
+            assertEquals(trace.getExpectedEvent(step), read.getExpectedEvent(step));
+        }
+    }
+
+    @Test
+    public void readInvalid() {
+        String[] invalid = {"", "play 0 0 1 VICTORY", "size 3\nplay 0 0 x VICTORY", "size 3\nplay 0 0 1 WON",
+                "size 3\nplay 3 0 1 VICTORY", "size 3\nundo"};
+        for (String text : invalid) {
+            try {
+                Trace.read(new StringReader(text));
+                fail("Read an invalid trace: " + text);
+            } catch (IOException e) {
+                // Expected
+            }
+        }
+    }
+}